@@ -0,0 +1,141 @@
+package com.sgp.appointment.calendar;
+
+import com.sgp.appointment.repository.AppointmentRepository;
+import com.sgp.common.enums.AppointmentStatus;
+import com.sgp.common.exception.ResourceNotAuthorizedException;
+import com.sgp.common.exception.ResourceNotFoundException;
+import com.sgp.common.service.SecurityContextService;
+import com.sgp.parish.model.Parish;
+import com.sgp.parish.repository.ParishRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Genera el feed iCalendar (.ics) de la agenda de una parroquia.
+ * El feed se protege con un token por parroquia y admite peticiones condicionales,
+ * de modo que el sondeo de las apps de calendario cuesta una agregación indexada cuando no hay cambios.
+ */
+@Service
+@RequiredArgsConstructor
+public class AppointmentCalendarService {
+
+    private static final String RESOURCE_PARISH = "Parroquia";
+    private static final int TOKEN_BYTES = 32;
+    private static final Set<AppointmentStatus> FEED_STATUSES =
+            EnumSet.of(AppointmentStatus.PENDING, AppointmentStatus.CONFIRMED, AppointmentStatus.COMPLETED, AppointmentStatus.CANCELED);
+
+    private final AppointmentRepository appointmentRepository;
+    private final ParishRepository parishRepository;
+    private final SecurityContextService securityContextService;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Value("${app.appointments.calendar.past-days:30}")
+    private int pastDays;
+
+    @Value("${app.appointments.calendar.event-duration-minutes:60}")
+    private int eventDurationMinutes;
+
+    // --- TOKEN ---
+
+    /**
+     * Genera (o regenera, invalidando el anterior) el token del feed de una parroquia.
+     * Un GESTOR solo puede generarlo para su propia parroquia: el token da acceso a toda su agenda.
+     */
+    @Transactional
+    public String regenerateToken(Long parishId) {
+        securityContextService.resolveParishScope(parishId);
+
+        Parish parish = parishRepository.findById(parishId)
+                .orElseThrow(() -> new ResourceNotFoundException(RESOURCE_PARISH, "ID", parishId));
+
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        parish.setCalendarFeedToken(token);
+        parishRepository.save(parish);
+        return token;
+    }
+
+    /**
+     * Valida el token del feed. Responde igual si la parroquia no existe o el token no coincide,
+     * para no revelar qué parroquias tienen feed habilitado.
+     */
+    @Transactional(readOnly = true)
+    public Parish authorizeFeed(Long parishId, String token) {
+        Parish parish = parishRepository.findById(parishId).orElse(null);
+        String expected = parish != null ? parish.getCalendarFeedToken() : null;
+
+        if (expected == null || token == null
+                || !MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8))) {
+            throw new ResourceNotAuthorizedException("Token de calendario inválido.");
+        }
+        return parish;
+    }
+
+    // --- PETICIONES CONDICIONALES ---
+
+    @Transactional(readOnly = true)
+    public CalendarFeedState getFeedState(Long parishId) {
+        return appointmentRepository.findCalendarFeedState(parishId);
+    }
+
+    /**
+     * ETag del feed: cambia si se modifica o elimina alguna cita, y cada día (la ventana de fechas se desplaza).
+     */
+    public String buildETag(Long parishId, CalendarFeedState state) {
+        String lastModified = state.getLastModified() != null ? state.getLastModified().toString() : "0";
+        return "\"" + parishId + "-" + state.getAppointmentCount() + "-" + lastModified + "-" + windowStart() + "\"";
+    }
+
+    public long lastModifiedMillis(CalendarFeedState state) {
+        if (state.getLastModified() == null) {
+            return -1;
+        }
+        return state.getLastModified().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    // --- GENERACIÓN ---
+
+    /**
+     * Escribe el feed completo recorriendo las citas con un cursor; la memoria usada no depende
+     * del número de citas.
+     */
+    @Transactional(readOnly = true)
+    public void writeFeed(Parish parish, Writer out) {
+        ICalendarWriter calendar = new ICalendarWriter(out, ZoneId.systemDefault(), Duration.ofMinutes(eventDurationMinutes));
+
+        try (Stream<CalendarEntry> entries = appointmentRepository.streamCalendarEntries(
+                parish.getId(), windowStart().atStartOfDay(), FEED_STATUSES)) {
+            calendar.begin("Agenda - " + parish.getName());
+            Iterator<CalendarEntry> iterator = entries.iterator();
+            while (iterator.hasNext()) {
+                calendar.event(iterator.next());
+            }
+            calendar.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private LocalDate windowStart() {
+        return LocalDate.now().minusDays(pastDays);
+    }
+}
@@ -0,0 +1,23 @@
+package com.sgp.appointment.calendar;
+
+import com.sgp.common.enums.AppointmentStatus;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección de una cita con solo las columnas necesarias para generar un VEVENT.
+ */
+@Value
+public class CalendarEntry {
+
+    Long id;
+    Long version;
+    String subject;
+    String notes;
+    AppointmentStatus status;
+    LocalDateTime appointmentDateTime;
+    LocalDateTime updatedAt;
+    String personFirstName;
+    String personLastName;
+}
@@ -0,0 +1,15 @@
+package com.sgp.appointment.calendar;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resumen del feed iCalendar de una parroquia, usado para las peticiones condicionales (ETag / Last-Modified).
+ */
+@Value
+public class CalendarFeedState {
+
+    LocalDateTime lastModified; // null si la parroquia no tiene citas
+    Long appointmentCount;
+}
@@ -0,0 +1,112 @@
+package com.sgp.appointment.calendar;
+
+import com.sgp.common.enums.AppointmentStatus;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Escribe un VCALENDAR (RFC 5545) evento a evento sobre un Writer, sin acumular el documento en memoria.
+ * Las fechas se emiten en UTC para no depender de definiciones VTIMEZONE.
+ */
+public class ICalendarWriter {
+
+    private static final DateTimeFormatter UTC_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+    private static final int MAX_LINE_OCTETS = 75;
+
+    private final Writer writer;
+    private final ZoneId zoneId;
+    private final Duration eventDuration;
+
+    public ICalendarWriter(Writer writer, ZoneId zoneId, Duration eventDuration) {
+        this.writer = writer;
+        this.zoneId = zoneId;
+        this.eventDuration = eventDuration;
+    }
+
+    public void begin(String calendarName) throws IOException {
+        line("BEGIN:VCALENDAR");
+        line("VERSION:2.0");
+        line("PRODID:-//SGP//Agenda Parroquial//ES");
+        line("CALSCALE:GREGORIAN");
+        line("METHOD:PUBLISH");
+        line("X-WR-CALNAME:" + escape(calendarName));
+    }
+
+    public void event(CalendarEntry entry) throws IOException {
+        LocalDateTime start = entry.getAppointmentDateTime();
+        LocalDateTime stamp = entry.getUpdatedAt() != null ? entry.getUpdatedAt() : start;
+
+        line("BEGIN:VEVENT");
+        line("UID:appointment-" + entry.getId() + "@sgp");
+        line("SEQUENCE:" + (entry.getVersion() != null ? entry.getVersion() : 0));
+        line("DTSTAMP:" + toUtc(stamp));
+        line("DTSTART:" + toUtc(start));
+        line("DTEND:" + toUtc(start.plus(eventDuration)));
+        line("SUMMARY:" + escape(entry.getSubject() + " - " + entry.getPersonFirstName() + " " + entry.getPersonLastName()));
+        if (entry.getNotes() != null && !entry.getNotes().isBlank()) {
+            line("DESCRIPTION:" + escape(entry.getNotes()));
+        }
+        line("STATUS:" + toEventStatus(entry.getStatus()));
+        line("END:VEVENT");
+    }
+
+    public void end() throws IOException {
+        line("END:VCALENDAR");
+        writer.flush();
+    }
+
+    private static String toEventStatus(AppointmentStatus status) {
+        return switch (status) {
+            case PENDING -> "TENTATIVE";
+            case CANCELED, REJECTED -> "CANCELLED";
+            default -> "CONFIRMED";
+        };
+    }
+
+    private String toUtc(LocalDateTime dateTime) {
+        return dateTime.atZone(zoneId).withZoneSameInstant(ZoneOffset.UTC).format(UTC_FORMAT);
+    }
+
+    /** Escapa los caracteres especiales de un valor TEXT (RFC 5545, 3.3.11). */
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("\\", "\\\\")
+                .replace(";", "\\;")
+                .replace(",", "\\,")
+                .replace("\r\n", "\\n")
+                .replace("\n", "\\n")
+                .replace("\r", "");
+    }
+
+    /** Escribe una línea terminada en CRLF, plegándola cada 75 octetos UTF-8 (RFC 5545, 3.1). */
+    private void line(String content) throws IOException {
+        int octets = 0;
+        for (int i = 0; i < content.length(); ) {
+            int codePoint = content.codePointAt(i);
+            int size = utf8Length(codePoint);
+            if (octets + size > MAX_LINE_OCTETS) {
+                writer.write("\r\n ");
+                octets = 1; // El espacio inicial de la continuación cuenta como octeto.
+            }
+            writer.write(Character.toChars(codePoint));
+            octets += size;
+            i += Character.charCount(codePoint);
+        }
+        writer.write("\r\n");
+    }
+
+    private static int utf8Length(int codePoint) {
+        if (codePoint < 0x80) return 1;
+        if (codePoint < 0x800) return 2;
+        if (codePoint < 0x10000) return 3;
+        return 4;
+    }
+}
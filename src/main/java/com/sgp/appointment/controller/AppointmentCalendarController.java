@@ -0,0 +1,62 @@
+package com.sgp.appointment.controller;
+
+import com.sgp.appointment.calendar.AppointmentCalendarService;
+import com.sgp.appointment.calendar.CalendarFeedState;
+import com.sgp.appointment.dto.CalendarFeedTokenResponse;
+import com.sgp.parish.model.Parish;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/v1/appointments/calendar")
+@RequiredArgsConstructor
+public class AppointmentCalendarController {
+
+    private static final String CALENDAR_CONTENT_TYPE = "text/calendar; charset=UTF-8";
+
+    private final AppointmentCalendarService appointmentCalendarService;
+
+    // --- 1. FEED ICALENDAR DE LA PARROQUIA ---
+    /**
+     * GET /api/v1/appointments/calendar/{parishId}.ics?token=...
+     * Público (protegido por token) para que las apps de calendario puedan suscribirse.
+     * Responde 304 si el ETag o la fecha de última modificación del cliente siguen vigentes.
+     */
+    @GetMapping("/{parishId}.ics")
+    public void getCalendarFeed(@PathVariable Long parishId,
+                                @RequestParam String token,
+                                WebRequest webRequest,
+                                HttpServletResponse response) throws IOException {
+        Parish parish = appointmentCalendarService.authorizeFeed(parishId, token);
+
+        CalendarFeedState state = appointmentCalendarService.getFeedState(parishId);
+        String eTag = appointmentCalendarService.buildETag(parishId, state);
+        if (webRequest.checkNotModified(eTag, appointmentCalendarService.lastModifiedMillis(state))) {
+            return; // 304 Not Modified, sin leer las citas.
+        }
+
+        response.setContentType(CALENDAR_CONTENT_TYPE);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        appointmentCalendarService.writeFeed(parish, response.getWriter());
+    }
+
+    // --- 2. GENERAR / REGENERAR TOKEN DEL FEED ---
+    // Regenerar invalida el enlace anterior (p. ej. si se compartió por error).
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'GESTOR')")
+    @PostMapping("/{parishId}/token")
+    public ResponseEntity<CalendarFeedTokenResponse> regenerateToken(@PathVariable Long parishId) {
+        String token = appointmentCalendarService.regenerateToken(parishId);
+        return ResponseEntity.ok(CalendarFeedTokenResponse.builder()
+                .parishId(parishId)
+                .token(token)
+                .feedPath("/api/v1/appointments/calendar/" + parishId + ".ics?token=" + token)
+                .build());
+    }
+}
@@ -2,20 +2,27 @@ package com.sgp.appointment.controller;
 
 import com.sgp.appointment.dto.AppointmentRequest;
 import com.sgp.appointment.dto.AppointmentResponse;
+import com.sgp.appointment.dto.AppointmentStatusCountsResponse;
+import com.sgp.appointment.dto.MyAppointmentResponse;
+import com.sgp.appointment.event.AppointmentEventStreamService;
 import com.sgp.appointment.service.AppointmentService;
+import com.sgp.appointment.service.AppointmentStatsService;
 import com.sgp.common.enums.AppointmentStatus;
+import com.sgp.common.util.ETagUtil;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/appointments")
@@ -23,6 +30,8 @@ import java.util.List;
 public class AppointmentController {
 
     private final AppointmentService appointmentService;
+    private final AppointmentStatsService appointmentStatsService;
+    private final AppointmentEventStreamService appointmentEventStreamService;
 
     // --- 1. CREAR CITA (Solicitud) ---
     // Permitido para GESTORES (que crean citas directamente) y USUARIOS (que las solicitan).
@@ -40,7 +49,8 @@ public class AppointmentController {
     public ResponseEntity<AppointmentResponse> getAppointmentById(@PathVariable Long id) {
         // Nota: En el servicio, se debe añadir lógica para que un 'USER' solo pueda ver SU cita.
         AppointmentResponse response = appointmentService.getAppointmentById(id);
-        return ResponseEntity.ok(response);
+        // El ETag permite al cliente enviar If-Match en las actualizaciones (concurrencia optimista).
+        return ResponseEntity.ok().eTag(ETagUtil.of(response.getVersion())).body(response);
     }
 
     // --------------------------------------------------------------------------------------------------
@@ -67,15 +77,43 @@ public class AppointmentController {
         return ResponseEntity.ok(responsePage);
     }
 
+    // --- 4. CONTADORES POR ESTADO (Panel de gestión) ---
+    /**
+     * GET /api/v1/appointments/stats?parishId=1
+     * Devuelve el número de citas activas por estado, de una parroquia o de todas si no se indica.
+     * GESTOR y COORDINATOR solo pueden consultar su propia parroquia (se usa por defecto).
+     * Se lee de los contadores materializados, por lo que el coste no depende del tamaño de la tabla de citas.
+     */
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'GESTOR', 'COORDINATOR')")
+    @GetMapping("/stats")
+    public ResponseEntity<AppointmentStatusCountsResponse> getStatusCounts(@RequestParam(required = false) Long parishId) {
+        return ResponseEntity.ok(appointmentStatsService.getStatusCounts(parishId));
+    }
+
+    // --- 4.1. FLUJO EN TIEMPO REAL DE CAMBIOS (SSE) ---
+    /**
+     * GET /api/v1/appointments/stream?parishId=1
+     * Abre un flujo Server-Sent Events con las creaciones y cambios de estado de citas,
+     * reemplazando el sondeo periódico del listado. GESTOR y COORDINATOR solo reciben su parroquia;
+     * ADMIN recibe todas o la indicada en parishId.
+     */
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'GESTOR', 'COORDINATOR')")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAppointmentEvents(@RequestParam(required = false) Long parishId) {
+        return appointmentEventStreamService.subscribe(parishId);
+    }
+
     // --- 5. ACTUALIZAR ESTADO DE CITA (Aprobación/Rechazo/Completado/CANCELAR) ---
     // Acción clave de gestión (ADMIN, GESTOR), pero permitimos a USER usarla para CANCELAR.
     @PreAuthorize("hasAnyAuthority('ADMIN', 'GESTOR', 'USER')")
     @PatchMapping("/{id}/status")
     public ResponseEntity<AppointmentResponse> updateAppointmentStatus(@PathVariable Long id,
-                                                                       @RequestParam AppointmentStatus newStatus) {
+                                                                       @RequestParam AppointmentStatus newStatus,
+                                                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         // La validación de que un USER solo puede pasar a CANCELED se hace en el Servicio.
-        AppointmentResponse response = appointmentService.updateAppointmentStatus(id, newStatus);
-        return ResponseEntity.ok(response);
+        // Si se envía If-Match y la versión no coincide, se responde 409 en lugar de sobrescribir.
+        AppointmentResponse response = appointmentService.updateAppointmentStatus(id, newStatus, ifMatch);
+        return ResponseEntity.ok().eTag(ETagUtil.of(response.getVersion())).body(response);
     }
 
     // --- 6. ACTUALIZAR DATOS DE CITA (Fecha/Asunto/Notas) ---
@@ -83,9 +121,10 @@ public class AppointmentController {
     @PreAuthorize("hasAnyAuthority('ADMIN', 'GESTOR')")
     @PutMapping("/{id}")
     public ResponseEntity<AppointmentResponse> updateAppointment(@PathVariable Long id,
-                                                                 @Valid @RequestBody AppointmentRequest request) {
-        AppointmentResponse response = appointmentService.updateAppointment(id, request);
-        return ResponseEntity.ok(response);
+                                                                 @Valid @RequestBody AppointmentRequest request,
+                                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        AppointmentResponse response = appointmentService.updateAppointment(id, request, ifMatch);
+        return ResponseEntity.ok().eTag(ETagUtil.of(response.getVersion())).body(response);
     }
 
     // --- 7. ELIMINAR CITA (Eliminación Lógica) ---
@@ -104,14 +143,17 @@ public class AppointmentController {
     // ⭐ NUEVO ENDPOINT: OBTENER MIS CITAS (USER) ⭐
     // --------------------------------------------------------------------------------------------------
     /**
-     * GET /api/v1/appointments/me
-     * Obtiene todas las citas asociadas a la persona del usuario autenticado (el feligrés).
+     * GET /api/v1/appointments/me?page=0&size=10
+     * Obtiene una página de las citas asociadas a la persona del usuario autenticado (el feligrés).
      */
     @PreAuthorize("hasAuthority('USER')") // Solo el feligrés puede ver "sus" citas.
     @GetMapping("/me")
-    public ResponseEntity<List<AppointmentResponse>> getMyAppointments() {
-        // Llama al nuevo método de servicio que obtiene el ID de la Persona internamente
-        List<AppointmentResponse> response = appointmentService.getMyAppointments();
+    public ResponseEntity<Page<MyAppointmentResponse>> getMyAppointments(
+            @PageableDefault(size = 10, sort = "appointmentDateTime", direction = Sort.Direction.DESC)
+            Pageable pageable
+    ) {
+        // Llama al método de servicio que obtiene el ID de la Persona internamente
+        Page<MyAppointmentResponse> response = appointmentService.getMyAppointments(pageable);
         return ResponseEntity.ok(response);
     }
 }
\ No newline at end of file
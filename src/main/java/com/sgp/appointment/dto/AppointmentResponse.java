@@ -39,4 +39,7 @@ public class AppointmentResponse {
     LocalDateTime updatedAt;
     String updatedBy;
     Boolean isActive;
+
+    // --- Concurrencia optimista (se envía también como ETag) ---
+    Long version;
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.sgp.appointment.dto;
+
+import com.sgp.common.enums.AppointmentStatus;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Map;
+
+/**
+ * DTO para el panel de gestión: número de citas activas por estado.
+ */
+@Value
+@Builder
+public class AppointmentStatusCountsResponse {
+
+    Long parishId; // null cuando son los totales de todas las parroquias
+    Map<AppointmentStatus, Long> counts;
+    long total;
+}
@@ -0,0 +1,16 @@
+package com.sgp.appointment.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * DTO con el token y la ruta del feed iCalendar de una parroquia.
+ */
+@Value
+@Builder
+public class CalendarFeedTokenResponse {
+
+    Long parishId;
+    String token;
+    String feedPath; // Ruta relativa lista para suscribirse desde la app de calendario
+}
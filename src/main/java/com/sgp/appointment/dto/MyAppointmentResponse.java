@@ -0,0 +1,33 @@
+package com.sgp.appointment.dto;
+
+import com.sgp.common.enums.AppointmentStatus;
+import com.sgp.sacrament.enums.SacramentType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO de "mis citas": se obtiene directamente con una proyección JPQL (sin cargar entidades)
+ * y se cachea por persona en Redis.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MyAppointmentResponse {
+
+    private Long id;
+    private LocalDateTime appointmentDateTime;
+    private String subject;
+    private AppointmentStatus status;
+    private String notes;
+
+    private Long parishId;
+    private String parishName;
+
+    private Long sacramentId;
+    private SacramentType sacramentType;
+
+    private Long version;
+}
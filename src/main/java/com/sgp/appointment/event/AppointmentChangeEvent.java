@@ -0,0 +1,36 @@
+package com.sgp.appointment.event;
+
+import com.sgp.common.enums.AppointmentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento de cambio de una cita que se difunde por Redis pub/sub y se envía por SSE al panel de gestión.
+ * Lleva solo los datos mínimos para que el cliente decida si debe refrescar su vista.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentChangeEvent {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        STATUS_CHANGED,
+        DELETED
+    }
+
+    private ChangeType type;
+    private Long appointmentId;
+    private Long parishId;
+    private Long personId;
+    private AppointmentStatus status;
+    private AppointmentStatus previousStatus; // Solo en STATUS_CHANGED
+    private LocalDateTime appointmentDateTime;
+    private LocalDateTime occurredAt;
+}
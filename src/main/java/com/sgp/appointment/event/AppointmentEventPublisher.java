@@ -0,0 +1,64 @@
+package com.sgp.appointment.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sgp.appointment.model.Appointment;
+import com.sgp.common.enums.AppointmentStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+
+/**
+ * Publica los cambios de citas en el canal Redis compartido por todos los nodos.
+ * La publicación se hace tras el commit para no anunciar cambios que luego se revierten.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AppointmentEventPublisher {
+
+    public static final String CHANNEL = "sgp:appointments:events";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+
+    public void publish(AppointmentChangeEvent.ChangeType type, Appointment appointment, AppointmentStatus previousStatus) {
+        AppointmentChangeEvent event = AppointmentChangeEvent.builder()
+                .type(type)
+                .appointmentId(appointment.getId())
+                .parishId(appointment.getParish().getId())
+                .personId(appointment.getPerson().getId())
+                .status(appointment.getStatus())
+                .previousStatus(previousStatus)
+                .appointmentDateTime(appointment.getAppointmentDateTime())
+                .occurredAt(LocalDateTime.now())
+                .build();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(event);
+                }
+            });
+        } else {
+            send(event);
+        }
+    }
+
+    private void send(AppointmentChangeEvent event) {
+        try {
+            stringRedisTemplate.convertAndSend(CHANNEL, objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException e) {
+            log.error("No se pudo serializar el evento de la cita {}", event.getAppointmentId(), e);
+        } catch (RuntimeException e) {
+            // Un fallo de Redis no debe afectar a la operación de negocio ya confirmada.
+            log.warn("No se pudo publicar el evento de la cita {} en Redis: {}", event.getAppointmentId(), e.getMessage());
+        }
+    }
+}
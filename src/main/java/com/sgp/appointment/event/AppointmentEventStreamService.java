@@ -0,0 +1,132 @@
+package com.sgp.appointment.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sgp.common.service.SecurityContextService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Gestiona las conexiones SSE del panel de gestión en este nodo.
+ * Cada nodo escucha el canal Redis de eventos de citas y reenvía a sus suscriptores locales
+ * solo los eventos de la parroquia que les corresponde.
+ *
+ * - ADMIN: recibe todas las parroquias (o solo la indicada en parishId).
+ * - GESTOR / COORDINATOR: solo la parroquia de su persona asociada.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AppointmentEventStreamService implements MessageListener {
+
+    private static final String EVENT_NAME = "appointment";
+
+    private final RedisMessageListenerContainer listenerContainer;
+    private final SecurityContextService securityContextService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.appointments.stream.timeout-ms:1800000}")
+    private long timeoutMillis;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    /** Suscriptor local. parishId null significa "todas las parroquias". */
+    private record Subscriber(SseEmitter emitter, Long parishId) {
+        boolean accepts(AppointmentChangeEvent event) {
+            return parishId == null || parishId.equals(event.getParishId());
+        }
+    }
+
+    @PostConstruct
+    void registerListener() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(AppointmentEventPublisher.CHANNEL));
+    }
+
+    // --- SUSCRIPCIÓN ---
+
+    /**
+     * Abre un flujo SSE para el usuario autenticado, aplicando el filtro de parroquia según su rol.
+     * Debe llamarse en el hilo de la petición (usa el contexto de seguridad).
+     */
+    @Transactional(readOnly = true)
+    public SseEmitter subscribe(Long requestedParishId) {
+        Long parishId = securityContextService.resolveParishScope(requestedParishId);
+
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, parishId);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+
+        // Primer mensaje para que el cliente sepa que la conexión está abierta.
+        try {
+            emitter.send(SseEmitter.event().comment("connected"));
+        } catch (IOException e) {
+            subscribers.remove(subscriber);
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    // --- DIFUSIÓN ---
+
+    /**
+     * Recibe los eventos publicados por cualquier nodo y los reenvía a los suscriptores locales.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String payload = new String(message.getBody(), StandardCharsets.UTF_8);
+        AppointmentChangeEvent event;
+        try {
+            event = objectMapper.readValue(payload, AppointmentChangeEvent.class);
+        } catch (IOException e) {
+            log.warn("Evento de cita inválido recibido desde Redis: {}", payload);
+            return;
+        }
+
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.accepts(event)) {
+                continue;
+            }
+            try {
+                subscriber.emitter().send(SseEmitter.event()
+                        .name(EVENT_NAME)
+                        .id(String.valueOf(event.getAppointmentId()))
+                        .data(payload));
+            } catch (IOException | IllegalStateException e) {
+                // Conexión cerrada por el cliente: se descarta el suscriptor.
+                subscribers.remove(subscriber);
+            }
+        }
+    }
+
+    /**
+     * Envía un comentario periódico para que proxies y balanceadores no cierren las conexiones inactivas,
+     * y de paso elimina las conexiones muertas.
+     */
+    @Scheduled(fixedDelay = 25000)
+    public void sendHeartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            try {
+                subscriber.emitter().send(SseEmitter.event().comment("heartbeat"));
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(subscriber);
+            }
+        }
+    }
+}
@@ -15,7 +15,12 @@ import lombok.Setter;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "appointments")
+@Table(name = "appointments", indexes = {
+        // Soporta la consulta por rango de fechas de las citas confirmadas (recordatorios).
+        @Index(name = "idx_appointments_status_datetime", columnList = "status, appointment_datetime"),
+        // Soporta el feed iCalendar por parroquia ordenado por fecha.
+        @Index(name = "idx_appointments_parish_datetime", columnList = "parish_id, appointment_datetime")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -27,6 +32,14 @@ public class Appointment extends Auditable {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    /**
+     * Versión para el control de concurrencia optimista: Hibernate la incrementa en cada UPDATE
+     * y rechaza la escritura si otro usuario la modificó primero. Se expone como ETag.
+     */
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     // --- Datos de la Cita ---
 
     /** Fecha y hora solicitada o confirmada para la cita. */
@@ -0,0 +1,47 @@
+package com.sgp.appointment.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marca de envío de un recordatorio de cita (uno por cita, anticipación y fecha de la cita).
+ * Cada nodo tiene su propia rueda de tiempo en memoria: antes de enviar, el recordatorio se reclama
+ * con un INSERT ... ON CONFLICT DO NOTHING, y solo el nodo que inserta la fila lo envía.
+ * La fecha de la cita forma parte de la clave para que una cita reprogramada vuelva a recibir recordatorios.
+ */
+@Entity
+@Table(name = "appointment_reminder_claims", uniqueConstraints = {
+        @UniqueConstraint(name = "uc_appointment_reminder_claim",
+                columnNames = {"appointment_id", "hours_before", "appointment_datetime"})
+}, indexes = {
+        @Index(name = "idx_appointment_reminder_claims_datetime", columnList = "appointment_datetime")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AppointmentReminderClaim {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "appointment_id", nullable = false)
+    private Long appointmentId;
+
+    @Column(name = "hours_before", nullable = false)
+    private int hoursBefore;
+
+    @Column(name = "appointment_datetime", nullable = false)
+    private LocalDateTime appointmentDateTime;
+
+    @Column(name = "reminder_sent_at", nullable = false)
+    private LocalDateTime reminderSentAt;
+}
@@ -0,0 +1,40 @@
+package com.sgp.appointment.model;
+
+import com.sgp.common.enums.AppointmentStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Contador materializado de citas activas por parroquia y estado.
+ * Se mantiene de forma incremental desde AppointmentServiceImpl (en la misma transacción que la cita)
+ * y se reconcilia periódicamente contra la tabla appointments.
+ */
+@Entity
+@Table(name = "appointment_status_counters", uniqueConstraints = {
+        @UniqueConstraint(name = "uc_appointment_counter_parish_status", columnNames = {"parish_id", "status"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AppointmentStatusCounter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "parish_id", nullable = false)
+    private Long parishId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private AppointmentStatus status;
+
+    @Column(name = "appointment_count", nullable = false)
+    private long appointmentCount;
+}
@@ -0,0 +1,29 @@
+package com.sgp.appointment.reminder;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Recordatorio programado en la rueda de tiempo.
+ * Guarda la fecha de la cita con la que se programó para descartar recordatorios obsoletos
+ * (la cita fue reprogramada o cambió de estado) al momento de dispararlo.
+ */
+@Value
+public class AppointmentReminder {
+
+    Long appointmentId;
+    LocalDateTime appointmentDateTime;
+    int hoursBefore;
+
+    /** Clave única del recordatorio dentro de la rueda: una por cita y anticipación. */
+    @Value
+    public static class Key {
+        Long appointmentId;
+        int hoursBefore;
+    }
+
+    public Key key() {
+        return new Key(appointmentId, hoursBefore);
+    }
+}
@@ -0,0 +1,223 @@
+package com.sgp.appointment.reminder;
+
+import com.sgp.appointment.model.Appointment;
+import com.sgp.appointment.repository.AppointmentReminderClaimRepository;
+import com.sgp.appointment.repository.AppointmentRepository;
+import com.sgp.common.enums.AppointmentStatus;
+import com.sgp.common.queue.MailProducer;
+import com.sgp.user.model.User;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Programa y dispara los recordatorios por email de las citas CONFIRMADAS
+ * (por defecto 48 y 2 horas antes) usando una rueda de tiempo jerárquica en memoria.
+ *
+ * - La rueda se carga por ventanas con una consulta de rango indexada (status, appointment_datetime).
+ * - AppointmentServiceImpl notifica cada cambio de cita para actualizarla de forma incremental.
+ * - Cada minuto se avanzan los ticks y los recordatorios vencidos se encolan por lotes en RabbitMQ.
+ * - Cada nodo tiene su propia rueda: cada recordatorio se reclama en la base de datos
+ *   (appointment_reminder_claims) antes de enviarse, de modo que solo un nodo lo envía.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AppointmentReminderScheduler {
+
+    private static final long TICK_MILLIS = 60_000L; // 1 minuto
+    private static final int[] WHEEL_SIZES = {60, 24, 64}; // minutos -> horas -> días (horizonte de 64 días)
+    private static final int BATCH_SIZE = 100;
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentReminderClaimRepository claimRepository;
+    private final MailProducer mailProducer;
+
+    @Value("${app.appointments.reminders.offsets-hours:48,2}")
+    private List<Integer> offsetsHours;
+
+    @Value("${app.appointments.reminders.horizon-hours:168}")
+    private long horizonHours;
+
+    private final HierarchicalTimingWheel<AppointmentReminder.Key, AppointmentReminder> wheel =
+            new HierarchicalTimingWheel<>(TICK_MILLIS, WHEEL_SIZES, System.currentTimeMillis());
+
+    // Límite superior (exclusivo) de las fechas de cita ya cargadas en la rueda.
+    private LocalDateTime loadedUntil;
+
+    // --- CARGA POR VENTANAS ---
+
+    /**
+     * Extiende la ventana cargada hasta ahora + horizonte. Solo consulta el tramo nuevo,
+     * por lo que cada ejecución lee únicamente las citas que entran en la ventana.
+     * Se ejecuta al arrancar y luego cada hora.
+     */
+    @Scheduled(fixedDelay = 3600000)
+    @Transactional(readOnly = true)
+    public synchronized void refreshWindow() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime from = loadedUntil != null ? loadedUntil : now;
+        LocalDateTime to = now.plusHours(Math.min(horizonHours, wheel.getSpanMillis() / 3600000L - 1));
+        if (!from.isBefore(to)) {
+            return;
+        }
+
+        List<Appointment> upcoming = appointmentRepository.findAllByStatusAndDateTimeRange(AppointmentStatus.CONFIRMED, from, to);
+        upcoming.forEach(appointment -> scheduleReminders(appointment.getId(), appointment.getAppointmentDateTime()));
+        loadedUntil = to;
+
+        log.info("Ventana de recordatorios extendida hasta {}. Citas cargadas: {}. Recordatorios pendientes: {}",
+                to, upcoming.size(), wheel.size());
+    }
+
+    // --- ACTUALIZACIÓN INCREMENTAL ---
+
+    /**
+     * Reprograma los recordatorios de una cita tras crearla, modificarla o cambiar su estado.
+     * Si hay una transacción activa, el cambio se aplica después del commit.
+     */
+    public void onAppointmentChanged(Appointment appointment) {
+        Long id = appointment.getId();
+        LocalDateTime dateTime = appointment.getAppointmentDateTime();
+        boolean schedulable = appointment.isActive() && appointment.getStatus() == AppointmentStatus.CONFIRMED;
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyChange(id, dateTime, schedulable);
+                }
+            });
+        } else {
+            applyChange(id, dateTime, schedulable);
+        }
+    }
+
+    private synchronized void applyChange(Long appointmentId, LocalDateTime dateTime, boolean schedulable) {
+        cancelReminders(appointmentId);
+        // Las citas fuera de la ventana cargada se recogerán en la siguiente extensión.
+        if (schedulable && loadedUntil != null && dateTime.isBefore(loadedUntil)) {
+            scheduleReminders(appointmentId, dateTime);
+        }
+    }
+
+    private void scheduleReminders(Long appointmentId, LocalDateTime dateTime) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Integer hoursBefore : offsetsHours) {
+            LocalDateTime fireAt = dateTime.minusHours(hoursBefore);
+            AppointmentReminder reminder = new AppointmentReminder(appointmentId, dateTime, hoursBefore);
+            if (fireAt.isBefore(now)) {
+                wheel.cancel(reminder.key()); // El momento del recordatorio ya pasó: no se envía tarde.
+                continue;
+            }
+            wheel.schedule(reminder.key(), reminder, toEpochMillis(fireAt));
+        }
+    }
+
+    private void cancelReminders(Long appointmentId) {
+        offsetsHours.forEach(hoursBefore -> wheel.cancel(new AppointmentReminder.Key(appointmentId, hoursBefore)));
+    }
+
+    // --- DISPARO ---
+
+    /**
+     * Avanza la rueda y encola los recordatorios vencidos, cargando las citas por lotes.
+     * Los correos se encolan después del commit, una vez confirmados los reclamos.
+     */
+    @Scheduled(fixedDelay = TICK_MILLIS)
+    @Transactional
+    public void fireDueReminders() {
+        List<AppointmentReminder> due = wheel.advance(System.currentTimeMillis());
+        if (due.isEmpty()) {
+            return;
+        }
+
+        List<Runnable> mails = new ArrayList<>();
+        for (int start = 0; start < due.size(); start += BATCH_SIZE) {
+            List<AppointmentReminder> batch = due.subList(start, Math.min(start + BATCH_SIZE, due.size()));
+            claimBatch(batch, mails);
+        }
+        log.info("Recordatorios de citas vencidos: {}. Reclamados por este nodo: {}", due.size(), mails.size());
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                mails.forEach(Runnable::run);
+            }
+        });
+    }
+
+    private void claimBatch(List<AppointmentReminder> batch, List<Runnable> mails) {
+        List<Long> ids = batch.stream().map(AppointmentReminder::getAppointmentId).distinct().toList();
+        Map<Long, Appointment> appointments = appointmentRepository.findAllWithRecipientByIdIn(ids).stream()
+                .collect(Collectors.toMap(Appointment::getId, Function.identity()));
+
+        for (AppointmentReminder reminder : batch) {
+            Appointment appointment = appointments.get(reminder.getAppointmentId());
+
+            // Descarta recordatorios obsoletos (cita inactiva, ya no confirmada o reprogramada).
+            if (appointment == null
+                    || appointment.getStatus() != AppointmentStatus.CONFIRMED
+                    || !appointment.getAppointmentDateTime().equals(reminder.getAppointmentDateTime())) {
+                continue;
+            }
+
+            User user = appointment.getPerson().getUser();
+            if (user == null) {
+                log.debug("La persona de la cita {} no tiene usuario asociado; se omite el recordatorio.", appointment.getId());
+                continue;
+            }
+
+            // Otro nodo ya lo reclamó (cada nodo programa los mismos recordatorios en su rueda).
+            if (claimRepository.claim(reminder.getAppointmentId(), reminder.getHoursBefore(),
+                    reminder.getAppointmentDateTime()) == 0) {
+                continue;
+            }
+
+            Map<String, Object> model = new HashMap<>();
+            model.put("firstName", appointment.getPerson().getFirstName());
+            model.put("subject", appointment.getSubject());
+            model.put("appointmentDateTime", appointment.getAppointmentDateTime().format(DATE_TIME_FORMAT));
+            model.put("parishName", appointment.getParish().getName());
+            model.put("hoursBefore", reminder.getHoursBefore());
+
+            String email = user.getEmail();
+            mails.add(() -> mailProducer.sendMailMessage(
+                    email,
+                    "Recordatorio de Cita Parroquial",
+                    "email/appointment-reminder-template",
+                    model
+            ));
+        }
+    }
+
+    /**
+     * Elimina a diario las marcas de envío de citas ya pasadas.
+     */
+    @Scheduled(cron = "0 30 4 * * *")
+    @Transactional
+    public void purgeOldClaims() {
+        int deleted = claimRepository.deleteAllByAppointmentDateTimeBefore(LocalDateTime.now().minusDays(1));
+        log.info("Marcas de recordatorios de citas pasadas eliminadas: {}", deleted);
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
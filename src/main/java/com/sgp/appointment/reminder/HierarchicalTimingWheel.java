@@ -0,0 +1,166 @@
+package com.sgp.appointment.reminder;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rueda de tiempo jerárquica (Hierarchical Timing Wheel) en memoria.
+ * Permite programar, cancelar y disparar tareas en O(1) amortizado, sin recorrer
+ * todas las tareas pendientes en cada tick.
+ *
+ * Cada nivel tiene {@code wheelSizes[i]} ranuras; la ranura del nivel 0 dura {@code tickMillis}
+ * y la de cada nivel superior dura una vuelta completa del nivel inferior. Las tareas de niveles
+ * superiores "caen" (cascade) hacia niveles inferiores a medida que se acerca su vencimiento.
+ *
+ * Una tarea puede dispararse hasta un tick antes de su vencimiento exacto.
+ * La clase es thread-safe (métodos sincronizados).
+ *
+ * @param <K> Clave única de la tarea (permite reprogramar/cancelar).
+ * @param <T> Carga útil devuelta cuando la tarea vence.
+ */
+public class HierarchicalTimingWheel<K, T> {
+
+    private final long tickMillis;
+    private final int[] wheelSizes;
+    private final long[] intervals; // Duración de una ranura en cada nivel
+    private final List<List<ArrayDeque<Entry<K, T>>>> levels;
+    private final Map<K, Entry<K, T>> entriesByKey = new HashMap<>();
+
+    private long currentTime; // Siempre alineado a tickMillis
+
+    public HierarchicalTimingWheel(long tickMillis, int[] wheelSizes, long startMillis) {
+        if (tickMillis <= 0 || wheelSizes.length == 0) {
+            throw new IllegalArgumentException("La rueda de tiempo requiere un tick positivo y al menos un nivel.");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSizes = wheelSizes.clone();
+        this.intervals = new long[wheelSizes.length];
+        this.levels = new ArrayList<>(wheelSizes.length);
+
+        long interval = tickMillis;
+        for (int level = 0; level < wheelSizes.length; level++) {
+            intervals[level] = interval;
+            List<ArrayDeque<Entry<K, T>>> buckets = new ArrayList<>(wheelSizes[level]);
+            for (int slot = 0; slot < wheelSizes[level]; slot++) {
+                buckets.add(new ArrayDeque<>());
+            }
+            levels.add(buckets);
+            interval = Math.multiplyExact(interval, wheelSizes[level]);
+        }
+        this.currentTime = startMillis - (startMillis % tickMillis);
+    }
+
+    /**
+     * Horizonte máximo (en milisegundos desde el tiempo actual) que la rueda puede almacenar.
+     */
+    public long getSpanMillis() {
+        int top = wheelSizes.length - 1;
+        return intervals[top] * wheelSizes[top];
+    }
+
+    public synchronized int size() {
+        return entriesByKey.size();
+    }
+
+    /**
+     * Programa (o reprograma) una tarea. Si la clave ya existía, la tarea anterior se cancela.
+     *
+     * @return true si la tarea quedó programada; false si su vencimiento excede el horizonte de la rueda.
+     */
+    public synchronized boolean schedule(K key, T payload, long deadlineMillis) {
+        cancel(key);
+        if (deadlineMillis - currentTime >= getSpanMillis()) {
+            return false;
+        }
+        Entry<K, T> entry = new Entry<>(key, payload, deadlineMillis);
+        entriesByKey.put(key, entry);
+        place(entry, null);
+        return true;
+    }
+
+    /**
+     * Cancela una tarea programada. La entrada se descarta de forma perezosa al vaciar su ranura.
+     */
+    public synchronized boolean cancel(K key) {
+        Entry<K, T> entry = entriesByKey.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        entry.cancelled = true;
+        return true;
+    }
+
+    /**
+     * Avanza la rueda hasta {@code nowMillis} y devuelve las cargas útiles de las tareas vencidas,
+     * en orden de tick.
+     */
+    public synchronized List<T> advance(long nowMillis) {
+        List<T> expired = new ArrayList<>();
+        while (currentTime + tickMillis <= nowMillis) {
+            currentTime += tickMillis;
+
+            // Primero los niveles superiores, para que sus tareas caigan en ranuras que se procesan en este mismo tick.
+            for (int level = wheelSizes.length - 1; level >= 0; level--) {
+                if (currentTime % intervals[level] != 0) {
+                    continue;
+                }
+                ArrayDeque<Entry<K, T>> bucket = bucketFor(level, currentTime);
+                if (bucket.isEmpty()) {
+                    continue;
+                }
+                List<Entry<K, T>> drained = new ArrayList<>(bucket);
+                bucket.clear();
+                for (Entry<K, T> entry : drained) {
+                    if (!entry.cancelled) {
+                        place(entry, expired);
+                    }
+                }
+            }
+        }
+        return expired;
+    }
+
+    // Ubica la entrada en el nivel más bajo que la contenga, o la marca como vencida.
+    private void place(Entry<K, T> entry, List<T> expired) {
+        if (entry.deadline < currentTime + tickMillis) {
+            if (expired != null) {
+                entriesByKey.remove(entry.key);
+                expired.add(entry.payload);
+            } else {
+                // Vencida al momento de programarla: se dispara en el siguiente tick.
+                bucketFor(0, currentTime + tickMillis).add(entry);
+            }
+            return;
+        }
+        for (int level = 0; level < wheelSizes.length; level++) {
+            long levelTime = currentTime - (currentTime % intervals[level]);
+            if (entry.deadline < levelTime + intervals[level] * wheelSizes[level]) {
+                bucketFor(level, entry.deadline).add(entry);
+                return;
+            }
+        }
+        // Nunca debería ocurrir: schedule() valida el horizonte.
+        throw new IllegalStateException("Vencimiento fuera del horizonte de la rueda de tiempo.");
+    }
+
+    private ArrayDeque<Entry<K, T>> bucketFor(int level, long time) {
+        int slot = (int) ((time / intervals[level]) % wheelSizes[level]);
+        return levels.get(level).get(slot);
+    }
+
+    private static final class Entry<K, T> {
+        private final K key;
+        private final T payload;
+        private final long deadline;
+        private boolean cancelled;
+
+        private Entry(K key, T payload, long deadline) {
+            this.key = key;
+            this.payload = payload;
+            this.deadline = deadline;
+        }
+    }
+}
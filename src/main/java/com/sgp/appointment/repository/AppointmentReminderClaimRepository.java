@@ -0,0 +1,34 @@
+package com.sgp.appointment.repository;
+
+import com.sgp.appointment.model.AppointmentReminderClaim;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface AppointmentReminderClaimRepository extends JpaRepository<AppointmentReminderClaim, Long> {
+
+    /**
+     * Reclama atómicamente el envío de un recordatorio. Devuelve 1 si este nodo lo reclamó
+     * y 0 si otro nodo ya lo había enviado (o lo está enviando en una transacción concurrente).
+     */
+    @Modifying
+    @Query(value = "INSERT INTO appointment_reminder_claims (appointment_id, hours_before, appointment_datetime, reminder_sent_at) " +
+            "VALUES (:appointmentId, :hoursBefore, :appointmentDateTime, now()) " +
+            "ON CONFLICT (appointment_id, hours_before, appointment_datetime) DO NOTHING",
+            nativeQuery = true)
+    int claim(@Param("appointmentId") Long appointmentId,
+              @Param("hoursBefore") int hoursBefore,
+              @Param("appointmentDateTime") LocalDateTime appointmentDateTime);
+
+    /**
+     * Elimina las marcas de citas ya pasadas (sus recordatorios no pueden volver a dispararse).
+     */
+    @Modifying
+    @Query("DELETE FROM AppointmentReminderClaim c WHERE c.appointmentDateTime < :before")
+    int deleteAllByAppointmentDateTimeBefore(@Param("before") LocalDateTime before);
+}
@@ -1,13 +1,26 @@
 package com.sgp.appointment.repository;
 
+import com.sgp.appointment.calendar.CalendarEntry;
+import com.sgp.appointment.calendar.CalendarFeedState;
+import com.sgp.appointment.dto.MyAppointmentResponse;
 import com.sgp.appointment.model.Appointment;
 import com.sgp.common.enums.AppointmentStatus;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
@@ -20,6 +33,17 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
      */
     List<Appointment> findAllByPersonId(Long personId);
 
+    /**
+     * Página de "mis citas" en una sola consulta: proyecta directamente al DTO con los joins necesarios,
+     * sin cargar entidades ni disparar cargas perezosas.
+     */
+    @Query(value = "SELECT new com.sgp.appointment.dto.MyAppointmentResponse(a.id, a.appointmentDateTime, a.subject, " +
+            "a.status, a.notes, pa.id, pa.name, s.id, s.type, a.version) " +
+            "FROM Appointment a JOIN a.parish pa LEFT JOIN a.sacrament s " +
+            "WHERE a.person.id = :personId AND a.isActive = true",
+            countQuery = "SELECT COUNT(a) FROM Appointment a WHERE a.person.id = :personId AND a.isActive = true")
+    Page<MyAppointmentResponse> findMyAppointments(@Param("personId") Long personId, Pageable pageable);
+
     /**
      * Busca todas las citas por un estado específico, aplicando paginación y ordenamiento.
      * Utilizado para el filtrado en el panel de gestión.
@@ -46,4 +70,46 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
      */
     Page<Appointment> findAll(Pageable pageable);
 
-}
\ No newline at end of file
+    /**
+     * Busca las citas de un estado cuya fecha cae en el rango [from, to).
+     * Respaldado por el índice (status, appointment_datetime); usado para cargar la rueda de recordatorios.
+     */
+    @Query("SELECT a FROM Appointment a WHERE a.status = :status " +
+            "AND a.appointmentDateTime >= :from AND a.appointmentDateTime < :to")
+    List<Appointment> findAllByStatusAndDateTimeRange(@Param("status") AppointmentStatus status,
+                                                      @Param("from") LocalDateTime from,
+                                                      @Param("to") LocalDateTime to);
+
+    /**
+     * Carga un lote de citas junto con su persona, usuario y parroquia en una sola consulta.
+     * Usado al disparar recordatorios para evitar N+1.
+     */
+    @Query("SELECT a FROM Appointment a JOIN FETCH a.person p LEFT JOIN FETCH p.user JOIN FETCH a.parish " +
+            "WHERE a.id IN :ids")
+    List<Appointment> findAllWithRecipientByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Estado del feed iCalendar de una parroquia: última modificación y número de citas.
+     * Es una sola agregación indexada; permite responder 304 sin leer las citas.
+     */
+    @Query("SELECT new com.sgp.appointment.calendar.CalendarFeedState(MAX(a.updatedAt), COUNT(a)) " +
+            "FROM Appointment a WHERE a.parish.id = :parishId")
+    CalendarFeedState findCalendarFeedState(@Param("parishId") Long parishId);
+
+    /**
+     * Recorre con un cursor (fetch size acotado) las citas de una parroquia desde una fecha,
+     * proyectando solo las columnas del feed. Debe consumirse dentro de una transacción y cerrarse.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "200"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.sgp.appointment.calendar.CalendarEntry(a.id, a.version, a.subject, a.notes, a.status, " +
+            "a.appointmentDateTime, a.updatedAt, p.firstName, p.lastName) " +
+            "FROM Appointment a JOIN a.person p " +
+            "WHERE a.parish.id = :parishId AND a.appointmentDateTime >= :from AND a.status IN :statuses " +
+            "ORDER BY a.appointmentDateTime")
+    Stream<CalendarEntry> streamCalendarEntries(@Param("parishId") Long parishId,
+                                                @Param("from") LocalDateTime from,
+                                                @Param("statuses") Collection<AppointmentStatus> statuses);
+}
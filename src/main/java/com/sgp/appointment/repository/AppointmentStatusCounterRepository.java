@@ -0,0 +1,74 @@
+package com.sgp.appointment.repository;
+
+import com.sgp.appointment.model.AppointmentStatusCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AppointmentStatusCounterRepository extends JpaRepository<AppointmentStatusCounter, Long> {
+
+    /**
+     * Suma (o resta) atómicamente un delta al contador de una parroquia y estado, creándolo si no existe.
+     * El UPSERT evita la carrera "leer-modificar-escribir" entre peticiones concurrentes.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO appointment_status_counters (parish_id, status, appointment_count) " +
+            "VALUES (:parishId, :status, :delta) " +
+            "ON CONFLICT (parish_id, status) DO UPDATE " +
+            "SET appointment_count = appointment_status_counters.appointment_count + EXCLUDED.appointment_count",
+            nativeQuery = true)
+    void increment(@Param("parishId") Long parishId, @Param("status") String status, @Param("delta") long delta);
+
+    /**
+     * Bloqueo consultivo compartido que toma cada transacción antes de mover los contadores.
+     * Varias transacciones lo comparten; solo la reconciliación (bloqueo exclusivo) las excluye.
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock_shared(hashtext('appointment_status_counters'))", nativeQuery = true)
+    Integer lockForIncrement();
+
+    /**
+     * Bloqueo consultivo exclusivo de la reconciliación: espera a que terminen las transacciones
+     * que ya movieron contadores y detiene las nuevas hasta el commit.
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(hashtext('appointment_status_counters'))", nativeQuery = true)
+    Integer lockForReconcile();
+
+    /**
+     * Contadores de una parroquia (como máximo una fila por estado).
+     */
+    List<AppointmentStatusCounter> findAllByParishId(Long parishId);
+
+    /**
+     * Totales por estado sumando todas las parroquias. Cada fila es [AppointmentStatus, Long].
+     */
+    @Query("SELECT c.status, SUM(c.appointmentCount) FROM AppointmentStatusCounter c GROUP BY c.status")
+    List<Object[]> sumAllByStatus();
+
+    // --- Reconciliación ---
+
+    /**
+     * Pone a cero los contadores que ya no tienen citas activas asociadas.
+     */
+    @Modifying
+    @Query(value = "UPDATE appointment_status_counters c SET appointment_count = 0 " +
+            "WHERE c.appointment_count <> 0 AND NOT EXISTS (SELECT 1 FROM appointments a " +
+            "WHERE a.is_active = true AND a.parish_id = c.parish_id AND a.status = c.status)",
+            nativeQuery = true)
+    int resetOrphanCounters();
+
+    /**
+     * Recalcula los contadores a partir de la tabla appointments (un solo GROUP BY).
+     */
+    @Modifying
+    @Query(value = "INSERT INTO appointment_status_counters (parish_id, status, appointment_count) " +
+            "SELECT a.parish_id, a.status, COUNT(*) FROM appointments a WHERE a.is_active = true " +
+            "GROUP BY a.parish_id, a.status " +
+            "ON CONFLICT (parish_id, status) DO UPDATE SET appointment_count = EXCLUDED.appointment_count",
+            nativeQuery = true)
+    int recomputeFromAppointments();
+}
@@ -2,10 +2,10 @@ package com.sgp.appointment.service;
 
 import com.sgp.appointment.dto.AppointmentRequest;
 import com.sgp.appointment.dto.AppointmentResponse;
+import com.sgp.appointment.dto.MyAppointmentResponse;
 import com.sgp.common.enums.AppointmentStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -37,9 +37,12 @@ public interface AppointmentService {
     Page<AppointmentResponse> findAllAppointments(AppointmentStatus status, Pageable pageable);
 
 
-    // --- READ (My Appointments) ---
-    @Transactional(readOnly = true)
-    List<AppointmentResponse> getMyAppointments();
+    /**
+     * Obtiene una página de las citas de la persona del usuario autenticado (cacheada por persona).
+     * @param pageable Objeto de paginación y ordenamiento.
+     * @return Una Page con los DTOs de "mis citas".
+     */
+    Page<MyAppointmentResponse> getMyAppointments(Pageable pageable);
 
     /**
      * Obtiene todas las citas de una persona específica.
@@ -52,17 +55,19 @@ public interface AppointmentService {
      * Actualiza el estado de una cita.
      * @param id ID de la cita a actualizar.
      * @param newStatus El nuevo estado de la cita.
+     * @param ifMatch ETag esperado (cabecera If-Match); null para una actualización incondicional.
      * @return DTO de la cita actualizada.
      */
-    AppointmentResponse updateAppointmentStatus(Long id, AppointmentStatus newStatus);
+    AppointmentResponse updateAppointmentStatus(Long id, AppointmentStatus newStatus, String ifMatch);
 
     /**
      * Actualiza completamente una cita (fecha, sujeto, notas).
      * @param id ID de la cita.
      * @param request DTO con los datos a actualizar.
+     * @param ifMatch ETag esperado (cabecera If-Match); null para una actualización incondicional.
      * @return DTO de la cita actualizada.
      */
-    AppointmentResponse updateAppointment(Long id, AppointmentRequest request);
+    AppointmentResponse updateAppointment(Long id, AppointmentRequest request, String ifMatch);
 
     /**
      * Realiza una eliminación lógica (desactiva) de una cita.
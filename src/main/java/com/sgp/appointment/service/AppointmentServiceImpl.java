@@ -2,14 +2,20 @@ package com.sgp.appointment.service;
 
 import com.sgp.appointment.dto.AppointmentRequest;
 import com.sgp.appointment.dto.AppointmentResponse;
+import com.sgp.appointment.dto.MyAppointmentResponse;
+import com.sgp.appointment.event.AppointmentChangeEvent;
+import com.sgp.appointment.event.AppointmentEventPublisher;
 import com.sgp.appointment.model.Appointment;
+import com.sgp.appointment.reminder.AppointmentReminderScheduler;
 import com.sgp.appointment.repository.AppointmentRepository;
+import com.sgp.common.cache.PersonPageCache;
 import com.sgp.common.enums.AppointmentStatus;
 import com.sgp.common.exception.InvalidStateTransitionException;
 import com.sgp.common.exception.ResourceConflictException;
 import com.sgp.common.exception.ResourceNotAuthorizedException; // Nueva importación
 import com.sgp.common.exception.ResourceNotFoundException;
 import com.sgp.common.service.SecurityContextService;
+import com.sgp.common.util.ETagUtil;
 import com.sgp.parish.model.Parish;
 import com.sgp.parish.repository.ParishRepository;
 import com.sgp.person.model.Person;
@@ -36,6 +42,10 @@ public class AppointmentServiceImpl implements AppointmentService {
     private final SacramentRepository sacramentRepository;
     private final AppointmentMapper appointmentMapper;
     private final SecurityContextService securityContextService; // ⭐ NUEVA INYECCIÓN ⭐
+    private final AppointmentReminderScheduler appointmentReminderScheduler;
+    private final AppointmentStatsService appointmentStatsService;
+    private final AppointmentEventPublisher appointmentEventPublisher;
+    private final PersonPageCache personPageCache;
 
 
     private static final String RESOURCE_APPOINTMENT = "Cita/Agendamiento";
@@ -109,6 +119,10 @@ public class AppointmentServiceImpl implements AppointmentService {
 
         // 4. Guardar y Responder
         Appointment savedAppointment = appointmentRepository.save(appointment);
+        appointmentStatsService.recordTransition(null, null, parish.getId(), savedAppointment.getStatus());
+        appointmentReminderScheduler.onAppointmentChanged(savedAppointment);
+        appointmentEventPublisher.publish(AppointmentChangeEvent.ChangeType.CREATED, savedAppointment, null);
+        personPageCache.invalidate(PersonPageCache.AREA_APPOINTMENTS, person.getId());
         return appointmentMapper.toResponse(savedAppointment);
     }
 
@@ -148,13 +162,13 @@ public class AppointmentServiceImpl implements AppointmentService {
     }
 
     // --- READ (My Appointments) ---
+    // Una sola consulta con proyección; la página se cachea por persona y se invalida cuando cambian sus citas.
     @Transactional(readOnly = true)
     @Override
-    public List<AppointmentResponse> getMyAppointments() {
-        Person currentUserPerson = securityContextService.findPersonForCurrentUser(); // ⭐ USANDO EL SERVICIO ⭐
-        return appointmentRepository.findAllByPersonId(currentUserPerson.getId()).stream()
-                .map(appointmentMapper::toResponse)
-                .collect(Collectors.toList());
+    public Page<MyAppointmentResponse> getMyAppointments(Pageable pageable) {
+        Long personId = securityContextService.findPersonIdForCurrentUser();
+        return personPageCache.getPage(PersonPageCache.AREA_APPOINTMENTS, personId, pageable, MyAppointmentResponse.class,
+                () -> appointmentRepository.findMyAppointments(personId, pageable));
     }
 
     // --- READ (By Person ID) ---
@@ -170,11 +184,14 @@ public class AppointmentServiceImpl implements AppointmentService {
     // --- UPDATE Full ---
     @Override
     @Transactional
-    public AppointmentResponse updateAppointment(Long id, AppointmentRequest request) {
+    public AppointmentResponse updateAppointment(Long id, AppointmentRequest request, String ifMatch) {
         Appointment existingAppointment = findAppointmentById(id);
 
         validateAppointmentOwnership(existingAppointment);
 
+        // Concurrencia optimista: rechazar si el cliente editó una versión obsoleta.
+        ETagUtil.checkIfMatch(ifMatch, ETagUtil.of(existingAppointment.getVersion()), RESOURCE_APPOINTMENT, id);
+
         // ⭐ AJUSTE DE SEGURIDAD 3: Solo permitir actualizar si es gestor O es el dueño Y el estado es PENDING ⭐
         // Restricción de estado y rol
         // Regla de Negocio Adicional: Si el USER intenta actualizar, debe ser PENDING.
@@ -191,6 +208,9 @@ public class AppointmentServiceImpl implements AppointmentService {
             }
         }
 
+        Long previousParishId = existingAppointment.getParish().getId();
+        Long previousPersonId = existingAppointment.getPerson().getId();
+
         // 1. Buscar y validar entidades relacionadas para posible cambio
         Person person = findPersonById(request.getPersonId());
         Parish parish = findParishById(request.getParishId());
@@ -213,8 +233,13 @@ public class AppointmentServiceImpl implements AppointmentService {
             existingAppointment.setSacrament(sacrament);
         }
 
-        // 4. Guardar y Responder
-        Appointment updatedAppointment = appointmentRepository.save(existingAppointment);
+        // 4. Guardar y Responder (flush para devolver la versión incrementada)
+        Appointment updatedAppointment = appointmentRepository.saveAndFlush(existingAppointment);
+        appointmentStatsService.recordTransition(previousParishId, updatedAppointment.getStatus(),
+                parish.getId(), updatedAppointment.getStatus());
+        appointmentReminderScheduler.onAppointmentChanged(updatedAppointment);
+        appointmentEventPublisher.publish(AppointmentChangeEvent.ChangeType.UPDATED, updatedAppointment, null);
+        personPageCache.invalidate(PersonPageCache.AREA_APPOINTMENTS, previousPersonId, person.getId());
         return appointmentMapper.toResponse(updatedAppointment);
     }
 
@@ -252,15 +277,22 @@ public class AppointmentServiceImpl implements AppointmentService {
         }
 
         //simplemente sse marca como inactivo
+        AppointmentStatus previousStatus = appointment.getStatus();
         appointment.setActive(false);
         appointmentRepository.save(appointment);
+        // Las citas inactivas dejan de contar en el panel.
+        appointmentStatsService.recordTransition(appointment.getParish().getId(), previousStatus, null, null);
+        appointmentReminderScheduler.onAppointmentChanged(appointment);
+        appointmentEventPublisher.publish(AppointmentChangeEvent.ChangeType.DELETED, appointment, null);
+        personPageCache.invalidate(PersonPageCache.AREA_APPOINTMENTS, appointment.getPerson().getId());
     }
 
     // --- UPDATE Status ---
     @Override
     @Transactional
-    public AppointmentResponse updateAppointmentStatus(Long id, AppointmentStatus newStatus) {
+    public AppointmentResponse updateAppointmentStatus(Long id, AppointmentStatus newStatus, String ifMatch) {
         Appointment existingAppointment = findAppointmentById(id);
+        ETagUtil.checkIfMatch(ifMatch, ETagUtil.of(existingAppointment.getVersion()), RESOURCE_APPOINTMENT, id);
         AppointmentStatus currentStatus = existingAppointment.getStatus();
 
         if (currentStatus == newStatus) {
@@ -277,7 +309,16 @@ public class AppointmentServiceImpl implements AppointmentService {
         }
 
         existingAppointment.setStatus(newStatus);
-        Appointment updatedAppointment = appointmentRepository.save(existingAppointment);
+        Appointment updatedAppointment = appointmentRepository.saveAndFlush(existingAppointment);
+        Long parishId = updatedAppointment.getParish().getId();
+        appointmentStatsService.recordTransition(parishId, currentStatus, parishId, newStatus);
+
+        // Los recordatorios solo aplican a citas CONFIRMED; cualquier otro estado los cancela.
+        appointmentReminderScheduler.onAppointmentChanged(updatedAppointment);
+
+        // Notifica en tiempo real al panel de gestión (SSE vía Redis pub/sub).
+        appointmentEventPublisher.publish(AppointmentChangeEvent.ChangeType.STATUS_CHANGED, updatedAppointment, currentStatus);
+        personPageCache.invalidate(PersonPageCache.AREA_APPOINTMENTS, updatedAppointment.getPerson().getId());
 
         // TODO: Enviar notificación
 
@@ -0,0 +1,26 @@
+package com.sgp.appointment.service;
+
+import com.sgp.appointment.dto.AppointmentStatusCountsResponse;
+import com.sgp.common.enums.AppointmentStatus;
+
+public interface AppointmentStatsService {
+
+    /**
+     * Registra el movimiento de una cita entre (parroquia, estado). Cualquiera de los dos extremos
+     * puede ser null: origen null al crear, destino null al eliminar lógicamente.
+     * Debe llamarse dentro de la transacción que modifica la cita.
+     */
+    void recordTransition(Long fromParishId, AppointmentStatus fromStatus, Long toParishId, AppointmentStatus toStatus);
+
+    /**
+     * Obtiene los contadores por estado de una parroquia, o de todas si parishId es null (solo ADMIN;
+     * GESTOR y COORDINATOR quedan limitados a su propia parroquia).
+     * Lee la tabla de contadores materializados: tiempo constante sin importar el tamaño de appointments.
+     */
+    AppointmentStatusCountsResponse getStatusCounts(Long parishId);
+
+    /**
+     * Recalcula todos los contadores a partir de la tabla de citas.
+     */
+    void reconcile();
+}
@@ -0,0 +1,105 @@
+package com.sgp.appointment.service;
+
+import com.sgp.appointment.dto.AppointmentStatusCountsResponse;
+import com.sgp.appointment.model.AppointmentStatusCounter;
+import com.sgp.appointment.repository.AppointmentStatusCounterRepository;
+import com.sgp.common.enums.AppointmentStatus;
+import com.sgp.common.service.SecurityContextService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Mantiene los contadores materializados de citas por parroquia y estado.
+ * Las actualizaciones son UPSERTs atómicos en la misma transacción que la cita,
+ * y un job nocturno los reconcilia contra la tabla appointments por si hubo desvíos.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AppointmentStatsServiceImpl implements AppointmentStatsService {
+
+    private final AppointmentStatusCounterRepository counterRepository;
+    private final SecurityContextService securityContextService;
+
+    // --- ACTUALIZACIÓN INCREMENTAL ---
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTransition(Long fromParishId, AppointmentStatus fromStatus, Long toParishId, AppointmentStatus toStatus) {
+        boolean hasFrom = fromParishId != null && fromStatus != null;
+        boolean hasTo = toParishId != null && toStatus != null;
+
+        // Sin cambio efectivo de (parroquia, estado): no se toca la tabla.
+        if (hasFrom && hasTo && fromParishId.equals(toParishId) && fromStatus == toStatus) {
+            return;
+        }
+        // Excluye la reconciliación mientras esta transacción no termine (ver reconcile()).
+        counterRepository.lockForIncrement();
+        if (hasFrom) {
+            counterRepository.increment(fromParishId, fromStatus.name(), -1);
+        }
+        if (hasTo) {
+            counterRepository.increment(toParishId, toStatus.name(), 1);
+        }
+    }
+
+    // --- LECTURA (Panel de gestión) ---
+
+    @Override
+    @Transactional(readOnly = true)
+    public AppointmentStatusCountsResponse getStatusCounts(Long requestedParishId) {
+        // GESTOR y COORDINATOR solo ven su parroquia; ADMIN cualquiera o el total.
+        Long parishId = securityContextService.resolveParishScope(requestedParishId);
+
+        Map<AppointmentStatus, Long> counts = new EnumMap<>(AppointmentStatus.class);
+        for (AppointmentStatus status : AppointmentStatus.values()) {
+            counts.put(status, 0L);
+        }
+
+        if (parishId != null) {
+            for (AppointmentStatusCounter counter : counterRepository.findAllByParishId(parishId)) {
+                counts.put(counter.getStatus(), counter.getAppointmentCount());
+            }
+        } else {
+            for (Object[] row : counterRepository.sumAllByStatus()) {
+                counts.put((AppointmentStatus) row[0], ((Number) row[1]).longValue());
+            }
+        }
+
+        long total = counts.values().stream().mapToLong(Long::longValue).sum();
+        return AppointmentStatusCountsResponse.builder()
+                .parishId(parishId)
+                .counts(counts)
+                .total(total)
+                .build();
+    }
+
+    // --- RECONCILIACIÓN ---
+
+    /**
+     * Recalcula los contadores desde cero. Se ejecuta cada noche (por defecto a las 03:00)
+     * para corregir cualquier desvío, p. ej. cambios hechos directamente en la base de datos.
+     * También se ejecuta una vez poco después del arranque para poblar la tabla en el primer despliegue.
+     *
+     * El bloqueo exclusivo espera a que confirmen las transacciones que ya movieron un contador
+     * y retiene las siguientes; el recálculo va en sentencias posteriores al bloqueo, por lo que
+     * su snapshot incluye todo lo confirmado y no pisa incrementos concurrentes.
+     */
+    @Override
+    @Scheduled(initialDelay = 30000)
+    @Scheduled(cron = "${app.appointments.counters.reconcile-cron:0 0 3 * * *}")
+    @Transactional
+    public void reconcile() {
+        counterRepository.lockForReconcile();
+        int reset = counterRepository.resetOrphanCounters();
+        int recomputed = counterRepository.recomputeFromAppointments();
+        log.info("Contadores de citas reconciliados. Filas recalculadas: {}. Filas puestas a cero: {}", recomputed, reset);
+    }
+}
@@ -15,8 +15,8 @@ import com.sgp.security.service.LoginAttemptService;
 import com.sgp.security.service.OtpAttemptService;
 import com.sgp.user.model.Role;
 import com.sgp.user.model.User;
-import com.sgp.user.repository.RoleRepository;
 import com.sgp.user.repository.UserRepository;
+import com.sgp.user.service.RoleRegistry;
 import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -48,7 +48,7 @@ public class AuthServiceImpl implements AuthService {
     private String frontendMagicLogin;
 
     private final UserRepository userRepository;
-    private final RoleRepository roleRepository;
+    private final RoleRegistry roleRegistry;
     private final PasswordEncoder passwordEncoder;
     private final TokenService tokenService;
     private final VerificationTokenRepository verificationTokenRepository;
@@ -173,8 +173,7 @@ public class AuthServiceImpl implements AuthService {
     }
 
     private User createUserBase(RegisterRequest request) {
-        Role userRole = roleRepository.findByName(RoleName.USER)
-                .orElseThrow(() -> new ResourceNotFoundException("Rol", "nombre", RoleName.USER));
+        Role userRole = roleRegistry.get(RoleName.USER);
 
         User newUser = new User();
         newUser.setEmail(request.getEmail());
@@ -0,0 +1,158 @@
+package com.sgp.common.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Base de los índices en memoria que se cargan completos desde la base de datos y luego se mantienen
+ * con cambios incrementales aplicados después del commit.
+ *
+ * - Se carga al arrancar (o en la primera consulta, si llega antes) y se reconstruye bajo demanda.
+ * - Las reconstrucciones se serializan entre sí; los cambios que llegan mientras una está en curso
+ *   se aplican al índice actual y se vuelven a aplicar sobre el nuevo antes de publicarlo.
+ * - Con {@link #broadcastVia} los cambios confirmados en un nodo se aplican también en los demás
+ *   (el tipo de cambio debe ser serializable con Jackson).
+ *
+ * @param <T> Estructura del índice.
+ * @param <C> Cambio incremental.
+ */
+@Slf4j
+public abstract class AfterCommitIndex<T, C> {
+
+    // null hasta la primera carga.
+    private volatile T index;
+    // Cambios recibidos durante una reconstrucción en curso (null si no hay ninguna).
+    private List<C> pendingDuringRebuild;
+    // Serializa las reconstrucciones (programada y carga bajo demanda).
+    private final Object rebuildLock = new Object();
+    // Difusión a los demás nodos (null: solo este nodo).
+    private IndexChangeBroadcaster broadcaster;
+    private String channel;
+
+    /** Nombre del índice para los mensajes de log, p. ej. "Índice de nombres". */
+    protected abstract String indexName();
+
+    /** Lee el índice completo desde la base de datos. */
+    protected abstract T load();
+
+    /** Aplica un cambio a la estructura (incluida la sincronización que necesite frente a las lecturas). */
+    protected abstract void applyChange(T target, C change);
+
+    /** Resumen del contenido para el log de carga, p. ej. "120 personas, 300 palabras". */
+    protected abstract String describe(T loaded);
+
+    // --- LECTURA ---
+
+    /** Índice actual, o null si aún no se ha cargado. */
+    protected final T current() {
+        return index;
+    }
+
+    /** Índice actual; si aún no se ha cargado, se carga de forma síncrona (una sola vez). */
+    protected final T loaded() {
+        T current = index;
+        if (current == null) {
+            synchronized (rebuildLock) {
+                if (index == null) {
+                    doRebuild();
+                }
+            }
+            current = index;
+        }
+        return current;
+    }
+
+    // --- ACTUALIZACIÓN INCREMENTAL ---
+
+    /**
+     * Suscribe el índice a los cambios de los demás nodos y publica en el canal los de este.
+     * Se invoca una vez, al inicializar la subclase.
+     */
+    protected final void broadcastVia(IndexChangeBroadcaster broadcaster, String channel, Class<C> changeType) {
+        this.broadcaster = broadcaster;
+        this.channel = channel;
+        broadcaster.subscribe(channel, changeType, this::apply);
+    }
+
+    /**
+     * Aplica el cambio después del commit de la transacción actual (o de inmediato si no hay ninguna)
+     * y lo publica para los demás nodos.
+     */
+    protected final void afterCommit(C change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    committed(change);
+                }
+            });
+        } else {
+            committed(change);
+        }
+    }
+
+    private void committed(C change) {
+        apply(change);
+        if (broadcaster != null) {
+            broadcaster.publish(channel, change);
+        }
+    }
+
+    /** Aplica el cambio al índice actual y, si hay una reconstrucción en curso, lo guarda para el índice nuevo. */
+    protected final synchronized void apply(C change) {
+        T current = index;
+        if (current != null) {
+            applyChange(current, change);
+        }
+        if (pendingDuringRebuild != null) {
+            pendingDuringRebuild.add(change);
+        }
+    }
+
+    // --- CARGA COMPLETA ---
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        rebuild();
+    }
+
+    /**
+     * Reconstruye el índice y lo publica de golpe. Las subclases la sobrescriben para programarla (@Scheduled).
+     */
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            doRebuild();
+        }
+    }
+
+    private void doRebuild() {
+        synchronized (this) {
+            pendingDuringRebuild = new ArrayList<>();
+        }
+
+        long start = System.currentTimeMillis();
+        T rebuilt;
+        try {
+            rebuilt = load();
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pendingDuringRebuild = null;
+            }
+            log.error("{}: no se pudo cargar.", indexName(), e);
+            throw e;
+        }
+
+        synchronized (this) {
+            pendingDuringRebuild.forEach(change -> applyChange(rebuilt, change));
+            pendingDuringRebuild = null;
+            index = rebuilt;
+        }
+        log.info("{} cargado: {} en {} ms.", indexName(), describe(rebuilt), System.currentTimeMillis() - start);
+    }
+}
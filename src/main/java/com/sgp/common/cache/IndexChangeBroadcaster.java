@@ -0,0 +1,69 @@
+package com.sgp.common.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Difunde los cambios incrementales de los índices en memoria al resto de nodos por Redis pub/sub,
+ * igual que AppointmentEventPublisher con los eventos de citas.
+ *
+ * Cada mensaje lleva el identificador del nodo que lo publicó: ese nodo ya aplicó el cambio tras su
+ * commit y lo ignora al recibirlo. Pub/sub no garantiza la entrega (p. ej. un nodo desconectado un
+ * momento), así que la reconstrucción programada de cada índice sigue siendo la red de seguridad.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IndexChangeBroadcaster {
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /** Mensaje del canal: nodo de origen y cambio serializado. */
+    private record Envelope(String origin, JsonNode change) {
+    }
+
+    /** Publica el cambio para los demás nodos. Un fallo de Redis no afecta a la operación ya confirmada. */
+    public void publish(String channel, Object change) {
+        try {
+            stringRedisTemplate.convertAndSend(channel,
+                    objectMapper.writeValueAsString(new Envelope(nodeId, objectMapper.valueToTree(change))));
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            log.error("No se pudo serializar el cambio de índice para el canal {}", channel, e);
+        } catch (RuntimeException e) {
+            log.warn("No se pudo publicar el cambio de índice en el canal {}: {}", channel, e.getMessage());
+        }
+    }
+
+    /** Entrega al handler los cambios publicados en el canal por los demás nodos. */
+    public <C> void subscribe(String channel, Class<C> changeType, Consumer<C> handler) {
+        listenerContainer.addMessageListener((message, pattern) -> {
+            C change;
+            try {
+                Envelope envelope = objectMapper.readValue(message.getBody(), Envelope.class);
+                if (nodeId.equals(envelope.origin())) {
+                    return;
+                }
+                change = objectMapper.treeToValue(envelope.change(), changeType);
+            } catch (IOException e) {
+                log.warn("Cambio de índice inválido recibido en el canal {}: {}", channel, e.getMessage());
+                return;
+            }
+            handler.accept(change);
+        }, new ChannelTopic(channel));
+    }
+}
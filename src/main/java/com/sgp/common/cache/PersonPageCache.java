@@ -0,0 +1,160 @@
+package com.sgp.common.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Caché en Redis de las páginas de "mis registros" (citas, sacramentos) de cada persona.
+ *
+ * Cada persona y área tiene un contador de generación que forma parte de la clave de las páginas:
+ * invalidar es un INCR atómico (válido en todos los nodos) y las páginas antiguas expiran solas por TTL.
+ * Si Redis falla, se consulta directamente la base de datos.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PersonPageCache {
+
+    public static final String AREA_APPOINTMENTS = "appointments";
+    public static final String AREA_SACRAMENTS = "sacraments";
+
+    private static final String KEY_PREFIX = "sgp:me:";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.cache.my-records.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${app.cache.person-of-user.ttl-seconds:3600}")
+    private long personOfUserTtlSeconds;
+
+    // --- RESOLUCIÓN DE PERSONA ---
+
+    /**
+     * Devuelve el ID de la persona vinculada a un usuario, evitando la consulta en cada petición.
+     */
+    public Long getPersonIdForUser(Long userId, Supplier<Long> loader) {
+        String key = KEY_PREFIX + "person-of-user:" + userId;
+        try {
+            String cached = stringRedisTemplate.opsForValue().get(key);
+            if (cached != null) {
+                return Long.valueOf(cached);
+            }
+        } catch (RuntimeException e) {
+            log.warn("No se pudo leer la caché de persona del usuario {}: {}", userId, e.getMessage());
+            return loader.get();
+        }
+
+        Long personId = loader.get();
+        try {
+            stringRedisTemplate.opsForValue().set(key, String.valueOf(personId), Duration.ofSeconds(personOfUserTtlSeconds));
+        } catch (RuntimeException e) {
+            log.warn("No se pudo guardar la caché de persona del usuario {}: {}", userId, e.getMessage());
+        }
+        return personId;
+    }
+
+    /**
+     * Olvida la persona vinculada a un usuario (p. ej. si se reasigna el usuario a otra persona).
+     */
+    public void evictPersonOfUser(Long userId) {
+        runAfterCommit(() -> stringRedisTemplate.delete(KEY_PREFIX + "person-of-user:" + userId));
+    }
+
+    // --- PÁGINAS ---
+
+    /**
+     * Devuelve la página cacheada o la carga con el loader y la guarda.
+     */
+    public <T> Page<T> getPage(String area, Long personId, Pageable pageable, Class<T> type, Supplier<Page<T>> loader) {
+        String pageKey;
+        try {
+            String generation = stringRedisTemplate.opsForValue().get(generationKey(area, personId));
+            pageKey = pageKey(area, personId, generation != null ? generation : "0", pageable);
+
+            String cached = stringRedisTemplate.opsForValue().get(pageKey);
+            if (cached != null) {
+                JsonNode node = objectMapper.readTree(cached);
+                List<T> content = objectMapper.convertValue(node.get("content"),
+                        objectMapper.getTypeFactory().constructCollectionType(List.class, type));
+                return new PageImpl<>(content, pageable, node.get("totalElements").asLong());
+            }
+        } catch (Exception e) {
+            log.warn("No se pudo leer la caché '{}' de la persona {}: {}", area, personId, e.getMessage());
+            return loader.get();
+        }
+
+        Page<T> page = loader.get();
+        try {
+            Map<String, Object> value = new LinkedHashMap<>();
+            value.put("content", page.getContent());
+            value.put("totalElements", page.getTotalElements());
+            stringRedisTemplate.opsForValue().set(pageKey, objectMapper.writeValueAsString(value), Duration.ofSeconds(ttlSeconds));
+        } catch (Exception e) {
+            log.warn("No se pudo guardar la caché '{}' de la persona {}: {}", area, personId, e.getMessage());
+        }
+        return page;
+    }
+
+    /**
+     * Invalida todas las páginas cacheadas de las personas indicadas en un área.
+     * Si hay una transacción activa se aplica tras el commit, para que una lectura concurrente
+     * no vuelva a cachear datos anteriores al cambio.
+     */
+    public void invalidate(String area, Long... personIds) {
+        runAfterCommit(() -> {
+            for (Long personId : personIds) {
+                if (personId != null) {
+                    stringRedisTemplate.opsForValue().increment(generationKey(area, personId));
+                }
+            }
+        });
+    }
+
+    private void runAfterCommit(Runnable action) {
+        Runnable safeAction = () -> {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                log.warn("No se pudo invalidar la caché de registros personales: {}", e.getMessage());
+            }
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    safeAction.run();
+                }
+            });
+        } else {
+            safeAction.run();
+        }
+    }
+
+    private static String generationKey(String area, Long personId) {
+        return KEY_PREFIX + area + ":" + personId + ":gen";
+    }
+
+    private static String pageKey(String area, Long personId, String generation, Pageable pageable) {
+        return KEY_PREFIX + area + ":" + personId + ":" + generation + ":"
+                + pageable.getPageNumber() + ":" + pageable.getPageSize() + ":" + pageable.getSort();
+    }
+}
@@ -18,6 +18,7 @@ import com.sgp.user.model.Role;
 import com.sgp.user.model.User;
 import com.sgp.user.repository.RoleRepository;
 import com.sgp.user.repository.UserRepository;
+import com.sgp.user.service.RoleRegistry;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -26,7 +27,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.Arrays;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -40,6 +40,7 @@ public class InitialSetupRunner {
     @Transactional
     public CommandLineRunner initDemoData(
             RoleRepository roleRepository,
+            RoleRegistry roleRegistry,
             UserRepository userRepository,
             PersonRepository personRepository,
             ParishRepository parishRepository,
@@ -51,32 +52,36 @@ public class InitialSetupRunner {
 
         return args -> {
             // 1. Inicializar Roles
-            initializeRoles(roleRepository);
+            initializeRoles(roleRepository, roleRegistry);
 
             // 2. Crear Parroquia de prueba
             Parish demoParish = createDemoParish(parishRepository);
 
             // 3. Crear el Usuario ADMIN y su Persona
             // ⭐ CAPTURAR DIRECTAMENTE LA PERSONA DEL ADMIN ⭐
-            Person adminPerson = createAdminUser(userRepository, roleRepository, personRepository, passwordEncoder, demoParish);
+            Person adminPerson = createAdminUser(userRepository, roleRegistry, personRepository, passwordEncoder, demoParish);
 
             // 4. Crear el resto de datos de prueba
             // ⭐ Pasamos adminPerson para que pueda ser el Ministro Oficiante ⭐
-            createDemoUsersAndData(userRepository, roleRepository, personRepository, appointmentRepository, sacramentRepository, sacramentDetailRepository, passwordEncoder, demoParish, adminPerson);
+            createDemoUsersAndData(userRepository, roleRegistry, personRepository, appointmentRepository, sacramentRepository, sacramentDetailRepository, passwordEncoder, demoParish, adminPerson);
         };
     }
     // ----------------------------------------------------------------------------------
 // LÓGICA DE ROLES (Mantenida)
 // ----------------------------------------------------------------------------------
-    private void initializeRoles(RoleRepository roleRepository) {
-        Set<RoleName> allRoleNames = Arrays.stream(RoleName.values()).collect(Collectors.toSet());
-        for (RoleName roleName : allRoleNames) {
-            if (roleRepository.findByName(roleName).isEmpty()) {
+    private void initializeRoles(RoleRepository roleRepository, RoleRegistry roleRegistry) {
+        // Una sola lectura de la tabla para saber qué roles faltan
+        Set<RoleName> existingRoleNames = roleRepository.findAll().stream()
+                .map(Role::getName)
+                .collect(Collectors.toSet());
+        for (RoleName roleName : RoleName.values()) {
+            if (!existingRoleNames.contains(roleName)) {
                 Role role = new Role();
                 role.setName(roleName);
                 roleRepository.save(role);
             }
         }
+        roleRegistry.refresh();
         System.out.println("✅ Roles inicializados.");
     }
 
@@ -103,14 +108,14 @@ public class InitialSetupRunner {
     // ----------------------------------------------------------------------------------
     private Person createAdminUser( // ⭐ CAMBIAR EL TIPO DE RETORNO A Person ⭐
                                     UserRepository userRepository,
-                                    RoleRepository roleRepository,
+                                    RoleRegistry roleRegistry,
                                     PersonRepository personRepository,
                                     PasswordEncoder passwordEncoder,
                                     Parish parish) {
 
         return personRepository.findByIdentificationTypeAndIdentificationNumber("CC", "000316") // Buscamos por ID de Persona
                 .orElseGet(() -> {
-                    Role adminRole = roleRepository.findByName(RoleName.ADMIN).get();
+                    Role adminRole = roleRegistry.get(RoleName.ADMIN);
 
                     User adminUser = User.builder()
                             .email(ADMIN_EMAIL)
@@ -145,7 +150,7 @@ public class InitialSetupRunner {
 
     private void createDemoUsersAndData(
             UserRepository userRepository,
-            RoleRepository roleRepository,
+            RoleRegistry roleRegistry,
             PersonRepository personRepository,
             AppointmentRepository appointmentRepository,
             SacramentRepository sacramentRepository,
@@ -160,8 +165,8 @@ public class InitialSetupRunner {
             return;
         }
 
-        Role userRole = roleRepository.findByName(RoleName.USER).get();
-        Role coordinatorRole = roleRepository.findByName(RoleName.COORDINATOR).get();
+        Role userRole = roleRegistry.get(RoleName.USER);
+        Role coordinatorRole = roleRegistry.get(RoleName.COORDINATOR);
 
         // --- 1. PERSONAS DE ROL CANÓNICO Y ADMINISTRATIVO ---
 
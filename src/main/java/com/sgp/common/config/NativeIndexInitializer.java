@@ -0,0 +1,66 @@
+package com.sgp.common.config;
+
+import com.sgp.common.service.ClusterLockService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Crea los índices que @Index de JPA no puede expresar (clases de operadores de PostgreSQL).
+ * ddl-auto=update crea las tablas y los índices normales; estos se crean al arrancar, en un solo nodo,
+ * con CREATE INDEX CONCURRENTLY IF NOT EXISTS para no bloquear las escrituras ni repetir el trabajo.
+ * Si un CONCURRENTLY anterior falló, PostgreSQL deja el índice marcado como inválido (pg_index.indisvalid)
+ * y IF NOT EXISTS lo daría por creado: antes de crear cada índice se elimina cualquier resto inválido.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NativeIndexInitializer {
+
+    private static final List<NativeIndex> INDEXES = List.of(
+            // Búsqueda de sacramentos por nombre del receptor: LIKE 'prefijo%' sobre los nombres normalizados.
+            // text_pattern_ops permite usar el índice con LIKE sea cual sea el collation de la base de datos.
+            new NativeIndex("idx_persons_last_name_norm_prefix", "persons (last_name_norm text_pattern_ops)"),
+            new NativeIndex("idx_persons_first_name_norm_prefix", "persons (first_name_norm text_pattern_ops)")
+    );
+
+    private static final String INVALID_INDEX_SQL = """
+            SELECT COUNT(*) FROM pg_index i
+            JOIN pg_class c ON c.oid = i.indexrelid
+            WHERE c.relname = ? AND c.relnamespace = current_schema()::regnamespace AND NOT i.indisvalid
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ClusterLockService clusterLockService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexes() {
+        clusterLockService.runExclusively("native-index-initializer", () -> {
+            for (NativeIndex index : INDEXES) {
+                try {
+                    dropIfInvalid(index.name());
+                    jdbcTemplate.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + index.name() + " ON " + index.definition());
+                } catch (DataAccessException e) {
+                    log.warn("No se pudo crear el índice {}: {}", index.name(), e.getMessage());
+                }
+            }
+        });
+    }
+
+    private void dropIfInvalid(String name) {
+        Integer invalid = jdbcTemplate.queryForObject(INVALID_INDEX_SQL, Integer.class, name);
+        if (invalid != null && invalid > 0) {
+            log.warn("El índice {} quedó inválido tras una creación fallida; se elimina y se vuelve a crear", name);
+            jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + name);
+        }
+    }
+
+    private record NativeIndex(String name, String definition) {
+    }
+}
@@ -6,6 +6,7 @@ import jakarta.validation.ConstraintViolationException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.InternalAuthenticationServiceException;
@@ -472,6 +473,37 @@ public class GlobalExceptionHandler {
     }
 
 
+    // 27: Escritura concurrente con If-Match obsoleto (ResourceVersionConflictException) -> HTTP 409 ⭐
+    @ExceptionHandler(ResourceVersionConflictException.class)
+    public ResponseEntity<ErrorResponse> handleResourceVersionConflictException(
+            ResourceVersionConflictException ex, HttpServletRequest request) {
+
+        ErrorResponse response = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.CONFLICT.value())
+                .error("Concurrent Modification")
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .build();
+
+        return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+    }
+
+    // 28: Conflicto detectado por @Version al hacer flush (dos escrituras simultáneas) -> HTTP 409 ⭐
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailureException(
+            ObjectOptimisticLockingFailureException ex, HttpServletRequest request) {
+
+        ErrorResponse response = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.CONFLICT.value())
+                .error("Concurrent Modification")
+                .message("El registro fue modificado por otro usuario al mismo tiempo. Recargue el registro e intente nuevamente.")
+                .path(request.getRequestURI())
+                .build();
+
+        return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+    }
 
     // 2x. Manejo genérico (Fallback) -> HTTP 500
     @ExceptionHandler(Exception.class)
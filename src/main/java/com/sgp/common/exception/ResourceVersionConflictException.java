@@ -0,0 +1,18 @@
+package com.sgp.common.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Excepción para una escritura concurrente detectada por bloqueo optimista:
+ * la versión enviada por el cliente (If-Match / ETag) ya no coincide con la almacenada.
+ */
+@ResponseStatus(HttpStatus.CONFLICT) // Mapea a HTTP 409
+public class ResourceVersionConflictException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ResourceVersionConflictException(String resourceName, Object id) {
+        super(String.format("%s con id '%s' fue modificado por otro usuario. Recargue el registro e intente nuevamente.", resourceName, id));
+    }
+}
@@ -0,0 +1,74 @@
+package com.sgp.common.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Ejecuta tareas de mantenimiento en un solo nodo usando un bloqueo consultivo de sesión de PostgreSQL.
+ * El bloqueo se toma con pg_try_advisory_lock en una conexión dedicada que se conserva mientras dura la tarea:
+ * si otro nodo ya la está ejecutando, este la omite en lugar de esperar ({@link #runExclusively}) o espera
+ * a que termine ({@link #runWhenAvailable}).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ClusterLockService {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Ejecuta la tarea si este nodo obtiene el bloqueo con ese nombre.
+     * @return true si la tarea se ejecutó, false si otro nodo tenía el bloqueo.
+     */
+    public boolean runExclusively(String lockName, Runnable task) {
+        Boolean executed = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            if (!advisoryLock(connection, "SELECT pg_try_advisory_lock(hashtext(?))", lockName)) {
+                log.debug("La tarea '{}' ya se está ejecutando en otro nodo; se omite.", lockName);
+                return false;
+            }
+            try {
+                task.run();
+                return true;
+            } finally {
+                advisoryLock(connection, "SELECT pg_advisory_unlock(hashtext(?))", lockName);
+            }
+        });
+        return Boolean.TRUE.equals(executed);
+    }
+
+    /**
+     * Ejecuta la tarea con el bloqueo con ese nombre, esperando si otro nodo lo tiene. Para las tareas
+     * cuyo resultado necesita este nodo antes de continuar (p. ej. poblar una columna al arrancar).
+     */
+    public void runWhenAvailable(String lockName, Runnable task) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("SELECT pg_advisory_lock(hashtext(?))")) {
+                statement.setString(1, lockName);
+                statement.execute();
+            }
+            try {
+                task.run();
+            } finally {
+                advisoryLock(connection, "SELECT pg_advisory_unlock(hashtext(?))", lockName);
+            }
+            return null;
+        });
+    }
+
+    private static boolean advisoryLock(Connection connection, String sql, String lockName) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, lockName);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+}
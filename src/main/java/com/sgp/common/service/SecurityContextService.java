@@ -1,6 +1,8 @@
 package com.sgp.common.service;
 
+import com.sgp.common.cache.PersonPageCache;
 import com.sgp.common.enums.RoleName;
+import com.sgp.common.exception.ResourceNotAuthorizedException;
 import com.sgp.common.exception.ResourceNotFoundException;
 import com.sgp.common.util.SecurityUtil;
 import com.sgp.person.model.Person;
@@ -17,6 +19,7 @@ import java.util.Set;
 public class SecurityContextService {
 
     private final PersonRepository personRepository;
+    private final PersonPageCache personPageCache;
 
     private static final Set<String> MANAGEMENT_ROLES = Set.of("ADMIN", "GESTOR", "COORDINATOR");
 
@@ -34,6 +37,18 @@ public class SecurityContextService {
                 .orElseThrow(() -> new ResourceNotFoundException("Persona", "Usuario ID", userId));
     }
 
+    /**
+     * Obtiene solo el ID de la Persona del usuario logueado. Se cachea en Redis, por lo que
+     * las consultas "mis registros" no necesitan ir a la base de datos para resolverlo.
+     * @throws ResourceNotFoundException si el usuario no está asociado a una Persona.
+     */
+    public Long findPersonIdForCurrentUser() {
+        Long userId = SecurityUtil.getCurrentUserId();
+
+        return personPageCache.getPersonIdForUser(userId, () -> personRepository.findIdByUserId(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Persona", "Usuario ID", userId)));
+    }
+
     /**
      * Verifica si el usuario logueado tiene un rol de gestión (ADMIN, GESTOR, COORDINATOR).
      * @return true si tiene rol de gestión, false en caso contrario.
@@ -45,6 +60,30 @@ public class SecurityContextService {
                 .anyMatch(MANAGEMENT_ROLES::contains);
     }
 
+    /**
+     * Resuelve la parroquia sobre la que puede consultar el usuario logueado.
+     * ADMIN puede indicar cualquiera (o null para todas); GESTOR y COORDINATOR solo la suya,
+     * que se devuelve aunque no la indiquen.
+     * @param requestedParishId Parroquia pedida en la petición (puede ser null).
+     * @return La parroquia a usar como filtro (null solo para ADMIN sin parroquia indicada).
+     * @throws ResourceNotAuthorizedException si pide otra parroquia o no tiene parroquia asignada.
+     */
+    public Long resolveParishScope(Long requestedParishId) {
+        if (hasRole(RoleName.ADMIN)) {
+            return requestedParishId;
+        }
+
+        Person person = findPersonForCurrentUser();
+        if (person.getParish() == null) {
+            throw new ResourceNotAuthorizedException("Tu usuario no tiene una parroquia asignada.");
+        }
+        Long ownParishId = person.getParish().getId();
+        if (requestedParishId != null && !requestedParishId.equals(ownParishId)) {
+            throw new ResourceNotAuthorizedException("Solo puedes acceder a los datos de tu propia parroquia.");
+        }
+        return ownParishId;
+    }
+
     /**
      * Verifica si el usuario logueado tiene un rol específico.
      * @param roleName El nombre del rol a verificar.
@@ -0,0 +1,34 @@
+package com.sgp.common.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * Lectura en streaming de consultas grandes (cargas de índices en memoria, exportaciones, precargas),
+ * sin materializar el resultado completo en el driver.
+ */
+@Service
+@RequiredArgsConstructor
+public class StreamingQueryService {
+
+    private final DataSource dataSource;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * Ejecuta la consulta y entrega las filas al handler a medida que llegan, de fetchSize en fetchSize.
+     */
+    public void query(String sql, int fetchSize, RowCallbackHandler handler, Object... args) {
+        // Cursor en servidor: PostgreSQL solo respeta el fetch size dentro de una transacción.
+        JdbcTemplate streaming = new JdbcTemplate(dataSource);
+        streaming.setFetchSize(fetchSize);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> streaming.query(sql, handler, args));
+    }
+}
@@ -0,0 +1,57 @@
+package com.sgp.common.util;
+
+import com.sgp.common.exception.ResourceVersionConflictException;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Utilidad para construir ETags a partir de las versiones (@Version) de las entidades
+ * y validar la cabecera If-Match de las actualizaciones condicionales.
+ */
+public class ETagUtil {
+
+    private ETagUtil() {
+    }
+
+    /**
+     * Construye un ETag fuerte a partir de una o más versiones (ej. "3" o "3.1").
+     */
+    public static String of(Object... versions) {
+        return "\"" + Arrays.stream(versions)
+                .map(v -> Objects.toString(v, "0"))
+                .collect(Collectors.joining(".")) + "\"";
+    }
+
+    /**
+     * Valida la cabecera If-Match contra el ETag actual del recurso.
+     * Si la cabecera no se envía (o es "*"), la actualización es incondicional.
+     *
+     * @throws ResourceVersionConflictException si ningún ETag enviado coincide con el actual.
+     */
+    public static void checkIfMatch(String ifMatch, String currentETag, String resourceName, Object id) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return;
+        }
+        String current = normalize(currentETag);
+        boolean matches = Arrays.stream(ifMatch.split(","))
+                .map(ETagUtil::normalize)
+                .anyMatch(current::equals);
+        if (!matches) {
+            throw new ResourceVersionConflictException(resourceName, id);
+        }
+    }
+
+    // Elimina el prefijo débil (W/) y las comillas para comparar solo el valor.
+    private static String normalize(String eTag) {
+        String value = eTag.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,177 @@
+package com.sgp.common.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PushbackReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lee un archivo de importación registro a registro (nunca carga el archivo completo).
+ * Lo comparten las importaciones de personas y de sacramentos.
+ *
+ * - CSV: la primera fila es la cabecera; admite campos entre comillas (con comas, saltos de línea y "" escapadas).
+ * - JSONL: un objeto JSON por línea.
+ */
+public class ImportFileReader implements Closeable {
+
+    public enum Format { CSV, JSONL }
+
+    /** Registro leído: línea inicial, valores por columna o el error de lectura. */
+    public record ImportRecord(long line, Map<String, String> values, String error) { }
+
+    private static final TypeReference<Map<String, Object>> JSON_OBJECT = new TypeReference<>() { };
+
+    private final Format format;
+    private final ObjectMapper objectMapper;
+    private final PushbackReader csvReader;
+    private final BufferedReader lineReader;
+
+    private List<String> header;
+    private long currentLine = 1;
+
+    public ImportFileReader(InputStream input, Format format, ObjectMapper objectMapper) {
+        this.format = format;
+        this.objectMapper = objectMapper;
+        InputStreamReader reader = new InputStreamReader(input, StandardCharsets.UTF_8);
+        if (format == Format.CSV) {
+            this.csvReader = new PushbackReader(new BufferedReader(reader), 1);
+            this.lineReader = null;
+        } else {
+            this.csvReader = null;
+            this.lineReader = new BufferedReader(reader);
+        }
+    }
+
+    /**
+     * Devuelve el siguiente registro, o null al final del archivo.
+     */
+    public ImportRecord next() throws IOException {
+        return format == Format.CSV ? nextCsv() : nextJson();
+    }
+
+    // --- JSON LINES ---
+
+    private ImportRecord nextJson() throws IOException {
+        String line;
+        while ((line = lineReader.readLine()) != null) {
+            long lineNumber = currentLine++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                Map<String, Object> raw = objectMapper.readValue(line, JSON_OBJECT);
+                Map<String, String> values = new HashMap<>();
+                raw.forEach((key, value) -> values.put(key, value != null ? value.toString() : null));
+                return new ImportRecord(lineNumber, values, null);
+            } catch (JsonProcessingException e) {
+                return new ImportRecord(lineNumber, null, "JSON inválido: " + e.getOriginalMessage());
+            }
+        }
+        return null;
+    }
+
+    // --- CSV ---
+
+    private ImportRecord nextCsv() throws IOException {
+        if (header == null) {
+            List<String> headerFields = readCsvFields();
+            if (headerFields == null) {
+                return null;
+            }
+            header = new ArrayList<>();
+            for (String field : headerFields) {
+                header.add(field.replace("\uFEFF", "").trim()); // Quita el BOM de Excel si existe
+            }
+        }
+
+        while (true) {
+            long lineNumber = currentLine;
+            List<String> fields = readCsvFields();
+            if (fields == null) {
+                return null;
+            }
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                continue; // Línea vacía
+            }
+            if (fields.size() != header.size()) {
+                return new ImportRecord(lineNumber, null,
+                        String.format("Se esperaban %d columnas y se encontraron %d.", header.size(), fields.size()));
+            }
+            Map<String, String> values = new LinkedHashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                values.put(header.get(i), fields.get(i));
+            }
+            return new ImportRecord(lineNumber, values, null);
+        }
+    }
+
+    // Lee los campos de un registro CSV (RFC 4180). Devuelve null en fin de archivo.
+    private List<String> readCsvFields() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean inQuotes = false;
+        boolean readAny = false;
+
+        int c;
+        while ((c = csvReader.read()) != -1) {
+            readAny = true;
+            if (inQuotes) {
+                if (c == '"') {
+                    int next = csvReader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        inQuotes = false;
+                        if (next != -1) {
+                            csvReader.unread(next);
+                        }
+                    }
+                } else {
+                    if (c == '\n') {
+                        currentLine++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                inQuotes = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                currentLine++;
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+
+        if (!readAny) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (csvReader != null) {
+            csvReader.close();
+        }
+        if (lineReader != null) {
+            lineReader.close();
+        }
+    }
+}
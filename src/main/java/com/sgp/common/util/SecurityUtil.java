@@ -51,4 +51,16 @@ public class SecurityUtil {
         throw new ResourceNotAuthorizedException("Principal de seguridad no reconocido o inválido. Esperaba la entidad User.");
     }
 
+    /**
+     * Valor de las columnas de auditoría (created_by / updated_by) para las escrituras JDBC que no pasan por JPA.
+     * @return String con el ID del usuario autenticado, o null si no hay sesión (p. ej. tareas programadas).
+     */
+    public static String getCurrentAuditor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated() && authentication.getPrincipal() instanceof User user) {
+            return String.valueOf(user.getId());
+        }
+        return null;
+    }
+
 }
\ No newline at end of file
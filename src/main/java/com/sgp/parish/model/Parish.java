@@ -32,6 +32,14 @@ public class Parish extends Auditable {
     @Column(nullable = true, length = 20)
     private String city;
 
+    /**
+     * Token secreto del feed iCalendar de la agenda parroquial (null = feed deshabilitado).
+     * Va en la URL porque las apps de calendario no pueden enviar el JWT.
+     */
+    @ToString.Exclude
+    @Column(name = "calendar_feed_token", nullable = true, unique = true, length = 64)
+    private String calendarFeedToken;
+
     // Opcional: Relaciones futuras
     // @OneToMany(mappedBy = "parish", cascade = CascadeType.ALL)
     // private Set<SacramentEnrollment> sacramentEnrollments;
@@ -4,12 +4,15 @@ import com.sgp.parish.dto.ParishRequest;
 import com.sgp.parish.dto.ParishResponse;
 import com.sgp.parish.model.Parish;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 
 @Mapper(componentModel = "spring")
 public interface ParishMapper {
 
     // Mapea de Request DTO a Entidad (para crear)
+    // El token del feed iCalendar solo se genera desde AppointmentCalendarService.
+    @Mapping(target = "calendarFeedToken", ignore = true)
     Parish toEntity(ParishRequest request);
 
     // Mapea de Entidad a Response DTO (para retornar)
@@ -17,5 +20,6 @@ public interface ParishMapper {
 
     // Mapea y actualiza una Entidad existente desde el Request DTO (para actualizar)
     // El 'target' es la entidad que será modificada.
+    @Mapping(target = "calendarFeedToken", ignore = true)
     void updateEntityFromRequest(ParishRequest request, @MappingTarget Parish parish);
 }
@@ -1,7 +1,9 @@
 package com.sgp.person.controller;
 
+import com.sgp.person.dto.PersonAutocompleteResult;
 import com.sgp.person.dto.PersonRequest;
 import com.sgp.person.dto.PersonResponse;
+import com.sgp.person.dto.PersonSearchResult;
 import com.sgp.person.service.PersonService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -53,6 +55,37 @@ public class PersonController {
         return ResponseEntity.ok(responsePage);
     }
 
+    // ⭐ BÚSQUEDA POR NOMBRE ⭐
+    /**
+     * GET /api/v1/people/search?q=maria gonzalez&parishId=1&limit=20
+     * Busca personas por nombre y/o apellidos (sin tildes, por prefijo y tolerando errores de escritura).
+     */
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'GESTOR', 'COORDINATOR')")
+    @GetMapping("/search")
+    public ResponseEntity<List<PersonSearchResult>> searchPeople(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) Long parishId,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        return ResponseEntity.ok(personService.searchPeople(query, parishId, limit));
+    }
+
+    // ⭐ AUTOCOMPLETADO (selección de personas en los formularios de sacramentos) ⭐
+    /**
+     * GET /api/v1/people/autocomplete?prefix=gonz&parishId=1&limit=10
+     * Sugiere personas cuyo nombre o apellidos empiezan por el prefijo. No valida la parroquia:
+     * una parroquia inexistente simplemente no tiene sugerencias.
+     */
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'GESTOR', 'COORDINATOR')")
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<PersonAutocompleteResult>> autocompletePeople(
+            @RequestParam String prefix,
+            @RequestParam(required = false) Long parishId,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return ResponseEntity.ok(personService.autocompletePeople(prefix, parishId, limit));
+    }
+
     // Obtener Persona por ID: ADMIN, GESTOR, COORDINATOR
     @PreAuthorize("hasAnyAuthority('ADMIN', 'GESTOR', 'COORDINATOR')")
     @GetMapping("/{id}")
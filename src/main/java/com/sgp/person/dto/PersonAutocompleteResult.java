@@ -0,0 +1,19 @@
+package com.sgp.person.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * Sugerencia del autocompletado de personas (formularios de sacramentos).
+ * La fecha de nacimiento ayuda a distinguir homónimos.
+ */
+@Value
+@Builder
+public class PersonAutocompleteResult {
+    Long personId;
+    String fullName;
+    LocalDate birthDate;
+    Long parishId;
+}
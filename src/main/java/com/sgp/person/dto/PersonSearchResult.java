@@ -0,0 +1,16 @@
+package com.sgp.person.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Resultado de la búsqueda de personas por nombre, ordenado por relevancia (score).
+ */
+@Value
+@Builder
+public class PersonSearchResult {
+    Long personId;
+    String fullName;
+    Long parishId;
+    double score;
+}
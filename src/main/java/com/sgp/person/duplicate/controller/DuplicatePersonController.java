@@ -0,0 +1,43 @@
+package com.sgp.person.duplicate.controller;
+
+import com.sgp.person.duplicate.dto.DuplicateReportResponse;
+import com.sgp.person.duplicate.service.DuplicatePersonService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/people/duplicates")
+@RequiredArgsConstructor
+public class DuplicatePersonController {
+
+    private final DuplicatePersonService duplicatePersonService;
+
+    // 1. LANZAR ANÁLISIS DE DUPLICADOS: Solo ADMIN (recorre todas las personas)
+    /**
+     * POST /api/v1/people/duplicates/scan
+     * Responde 202 de inmediato; el resultado se consulta con GET /api/v1/people/duplicates.
+     */
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @PostMapping("/scan")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public void startScan() {
+        duplicatePersonService.startScan();
+    }
+
+    // 2. CONSULTAR GRUPOS DE POSIBLES DUPLICADOS: ADMIN o GESTOR
+    /**
+     * GET /api/v1/people/duplicates?parishId=1&minScore=0.9&limit=100
+     */
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'GESTOR')")
+    @GetMapping
+    public ResponseEntity<DuplicateReportResponse> getReport(
+            @RequestParam(required = false) Long parishId,
+            @RequestParam(required = false) Double minScore,
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        return ResponseEntity.ok(duplicatePersonService.getReport(parishId, minScore, limit));
+    }
+}
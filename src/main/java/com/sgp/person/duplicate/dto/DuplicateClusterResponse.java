@@ -0,0 +1,18 @@
+package com.sgp.person.duplicate.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Grupo de personas que probablemente son la misma.
+ * score es la puntuación (0 a 1) de la pareja más parecida del grupo.
+ */
+@Value
+@Builder
+public class DuplicateClusterResponse {
+    double score;
+    int pairs;
+    List<DuplicatePersonResponse> people;
+}
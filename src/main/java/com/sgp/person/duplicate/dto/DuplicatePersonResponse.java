@@ -0,0 +1,20 @@
+package com.sgp.person.duplicate.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * Persona dentro de un grupo de posibles duplicados.
+ */
+@Value
+@Builder
+public class DuplicatePersonResponse {
+    Long personId;
+    String fullName;
+    LocalDate birthDate;
+    Long parishId;
+    String identificationType;
+    String identificationNumber;
+}
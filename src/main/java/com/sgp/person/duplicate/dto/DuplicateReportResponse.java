@@ -0,0 +1,24 @@
+package com.sgp.person.duplicate.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Resultado del último análisis de duplicados (generatedAt es null si aún no se ha ejecutado ninguno).
+ */
+@Value
+@Builder
+public class DuplicateReportResponse {
+    boolean running;
+    LocalDateTime generatedAt;
+    Long durationMillis;
+    Integer peopleScanned;
+    Integer blocks;
+    Integer skippedBlocks;
+    Long comparisons;
+    int totalClusters;
+    List<DuplicateClusterResponse> clusters;
+}
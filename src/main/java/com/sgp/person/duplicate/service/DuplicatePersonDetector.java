@@ -0,0 +1,380 @@
+package com.sgp.person.duplicate.service;
+
+import com.sgp.common.service.StreamingQueryService;
+import com.sgp.person.search.PersonNameNormalizer;
+import com.sgp.person.search.PersonPhoneticCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Motor de detección de personas duplicadas (por lotes, sobre todas las personas activas).
+ *
+ * 1. Bloqueo: cada persona recibe claves de bloque (código fonético de nombre y primer apellido
+ *    combinados con el año de nacimiento, o con la parroquia). Solo se comparan las parejas
+ *    dentro de un mismo bloque, en lugar de las n² parejas posibles.
+ * 2. Comparación: los bloques se reparten en un ForkJoinPool; cada pareja se puntúa por similitud
+ *    del nombre (Jaro-Winkler), fecha de nacimiento e identificación.
+ * 3. Agrupación: las parejas por encima del umbral se unen en grupos (union-find).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DuplicatePersonDetector {
+
+    private static final int BLOCKS_PER_TASK = 64;
+    private static final double MIN_NAME_SIMILARITY = 0.8;
+
+    private final StreamingQueryService streamingQueryService;
+
+    @Value("${app.people.duplicates.fetch-size:10000}")
+    private int fetchSize;
+
+    @Value("${app.people.duplicates.max-block-size:500}")
+    private int maxBlockSize;
+
+    @Value("${app.people.duplicates.parallelism:0}")
+    private int parallelism;
+
+    /** Persona tal como se compara (nombre ya normalizado y con las palabras ordenadas). */
+    public record Candidate(long personId, long parishId, String firstName, String lastName, String comparableName,
+                            LocalDate birthDate, String identificationType, String identificationNumber) {
+
+        public String fullName() {
+            return (firstName + " " + lastName).trim();
+        }
+    }
+
+    /** Grupo de posibles duplicados: puntuación de la mejor pareja y número de parejas que lo forman. */
+    public record Cluster(List<Candidate> people, double score, int pairs) {
+    }
+
+    /** Resultado de un análisis completo. */
+    public record Report(LocalDateTime generatedAt, long durationMillis, int peopleScanned, int blocks,
+                         int skippedBlocks, long comparisons, List<Cluster> clusters) {
+    }
+
+    private record ScoredPair(int first, int second, double score) {
+    }
+
+    /**
+     * Ejecuta el análisis completo. Solo se informan las parejas con puntuación mayor o igual que minScore.
+     */
+    public Report detect(double minScore) {
+        long start = System.currentTimeMillis();
+        List<Candidate> people = loadCandidates();
+
+        // 1. Bloques (los de un solo elemento no generan parejas y los enormes se descartan).
+        Map<String, List<Integer>> blocksByKey = new HashMap<>();
+        for (int i = 0; i < people.size(); i++) {
+            for (String key : blockingKeys(people.get(i))) {
+                blocksByKey.computeIfAbsent(key, k -> new ArrayList<>(2)).add(i);
+            }
+        }
+        List<int[]> blocks = new ArrayList<>();
+        int skipped = 0;
+        long comparisons = 0;
+        for (Map.Entry<String, List<Integer>> block : blocksByKey.entrySet()) {
+            int size = block.getValue().size();
+            if (size < 2) {
+                continue;
+            }
+            if (size > maxBlockSize) {
+                skipped++;
+                log.warn("Bloque de duplicados '{}' descartado por tamaño ({} personas).", block.getKey(), size);
+                continue;
+            }
+            blocks.add(block.getValue().stream().mapToInt(Integer::intValue).toArray());
+            comparisons += (long) size * (size - 1) / 2;
+        }
+        blocksByKey.clear();
+
+        // 2. Comparación en paralelo (fork/join sobre la lista de bloques).
+        ForkJoinPool pool = parallelism > 0 ? new ForkJoinPool(parallelism) : new ForkJoinPool();
+        List<ScoredPair> pairs;
+        try {
+            pairs = pool.invoke(new CompareBlocksTask(people, blocks, 0, blocks.size(), minScore));
+        } finally {
+            pool.shutdown();
+        }
+
+        // 3. Grupos por union-find. Una pareja puede aparecer en varios bloques: se cuenta una vez.
+        int[] parent = new int[people.size()];
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+        }
+        Set<Long> seenPairs = new HashSet<>();
+        List<ScoredPair> uniquePairs = new ArrayList<>();
+        for (ScoredPair pair : pairs) {
+            if (seenPairs.add((long) pair.first() * people.size() + pair.second())) {
+                uniquePairs.add(pair);
+                parent[find(parent, pair.first())] = find(parent, pair.second());
+            }
+        }
+        Map<Integer, List<Integer>> members = new HashMap<>();
+        Map<Integer, double[]> stats = new HashMap<>(); // raíz -> [mejor puntuación, parejas]
+        for (ScoredPair pair : uniquePairs) {
+            double[] clusterStats = stats.computeIfAbsent(find(parent, pair.first()), r -> new double[2]);
+            clusterStats[0] = Math.max(clusterStats[0], pair.score());
+            clusterStats[1]++;
+        }
+        for (Integer root : stats.keySet()) {
+            members.put(root, new ArrayList<>());
+        }
+        for (int i = 0; i < people.size(); i++) {
+            List<Integer> cluster = members.get(find(parent, i));
+            if (cluster != null) {
+                cluster.add(i);
+            }
+        }
+
+        List<Cluster> clusters = new ArrayList<>(members.size());
+        members.forEach((root, ordinals) -> clusters.add(new Cluster(
+                ordinals.stream().map(people::get).toList(),
+                Math.round(stats.get(root)[0] * 1000) / 1000.0,
+                (int) stats.get(root)[1])));
+        clusters.sort(Comparator.comparingDouble(Cluster::score).reversed()
+                .thenComparing(Comparator.comparingInt((Cluster c) -> c.people().size()).reversed()));
+
+        long duration = System.currentTimeMillis() - start;
+        log.info("Análisis de duplicados: {} personas, {} bloques ({} descartados), {} comparaciones, {} grupos en {} ms.",
+                people.size(), blocks.size(), skipped, comparisons, clusters.size(), duration);
+        return new Report(LocalDateTime.now(), duration, people.size(), blocks.size(), skipped, comparisons,
+                Collections.unmodifiableList(clusters));
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    // --- CARGA ---
+
+    private List<Candidate> loadCandidates() {
+        List<Candidate> people = new ArrayList<>();
+        streamingQueryService.query(
+                "SELECT id, parish_id, first_name, last_name, birth_date, identification_type, identification_number " +
+                        "FROM persons WHERE is_active = true",
+                fetchSize,
+                rs -> {
+                    String firstName = rs.getString(3);
+                    String lastName = rs.getString(4);
+                    Date birthDate = rs.getDate(5);
+                    people.add(new Candidate(rs.getLong(1), rs.getLong(2), firstName, lastName,
+                            String.join(" ", PersonNameNormalizer.tokens(firstName + " " + lastName).stream().sorted().toList()),
+                            birthDate != null ? birthDate.toLocalDate() : null,
+                            blankToNull(rs.getString(6)), blankToNull(rs.getString(7))));
+                });
+        return people;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim().toUpperCase();
+    }
+
+    // --- BLOQUEO ---
+
+    /**
+     * Claves de bloque: códigos fonéticos del primer nombre y del primer apellido (ordenados, para tolerar
+     * nombre y apellido intercambiados) junto con el año de nacimiento y, por separado, con la parroquia
+     * (para las personas sin fecha de nacimiento o con el año mal escrito).
+     */
+    private static List<String> blockingKeys(Candidate person) {
+        List<String> firstNames = PersonNameNormalizer.tokens(person.firstName());
+        List<String> lastNames = PersonNameNormalizer.tokens(person.lastName());
+        if (firstNames.isEmpty() && lastNames.isEmpty()) {
+            return List.of();
+        }
+        String first = firstNames.isEmpty() ? "" : PersonPhoneticCode.encode(firstNames.get(0));
+        String last = lastNames.isEmpty() ? "" : PersonPhoneticCode.encode(lastNames.get(0));
+        String names = first.compareTo(last) <= 0 ? first + "|" + last : last + "|" + first;
+
+        List<String> keys = new ArrayList<>(2);
+        if (person.birthDate() != null) {
+            keys.add("Y:" + names + "|" + person.birthDate().getYear());
+        }
+        keys.add("P:" + names + "|" + person.parishId());
+        return keys;
+    }
+
+    // --- COMPARACIÓN ---
+
+    private static final class CompareBlocksTask extends RecursiveTask<List<ScoredPair>> {
+        private final List<Candidate> people;
+        private final List<int[]> blocks;
+        private final int from;
+        private final int to;
+        private final double minScore;
+
+        CompareBlocksTask(List<Candidate> people, List<int[]> blocks, int from, int to, double minScore) {
+            this.people = people;
+            this.blocks = blocks;
+            this.from = from;
+            this.to = to;
+            this.minScore = minScore;
+        }
+
+        @Override
+        protected List<ScoredPair> compute() {
+            if (to - from > BLOCKS_PER_TASK) {
+                int mid = (from + to) >>> 1;
+                CompareBlocksTask left = new CompareBlocksTask(people, blocks, from, mid, minScore);
+                left.fork();
+                List<ScoredPair> right = new CompareBlocksTask(people, blocks, mid, to, minScore).compute();
+                List<ScoredPair> result = left.join();
+                result.addAll(right);
+                return result;
+            }
+            List<ScoredPair> result = new ArrayList<>();
+            for (int b = from; b < to; b++) {
+                int[] block = blocks.get(b);
+                for (int i = 0; i < block.length; i++) {
+                    for (int j = i + 1; j < block.length; j++) {
+                        int first = Math.min(block[i], block[j]);
+                        int second = Math.max(block[i], block[j]);
+                        double score = score(people.get(first), people.get(second));
+                        if (score >= minScore) {
+                            result.add(new ScoredPair(first, second, score));
+                        }
+                    }
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Puntuación de 0 a 1 de que dos personas sean la misma: 65% nombre y 35% fecha de nacimiento.
+     * Dos identificaciones del mismo tipo y claramente distintas descartan la pareja; si difieren
+     * en un solo carácter se consideran un error de escritura y suben la puntuación.
+     */
+    static double score(Candidate a, Candidate b) {
+        boolean identificationTypo = false;
+        if (a.identificationNumber() != null && b.identificationNumber() != null
+                && a.identificationType() != null && a.identificationType().equals(b.identificationType())) {
+            if (editDistanceAtMostOne(a.identificationNumber(), b.identificationNumber())) {
+                identificationTypo = true;
+            } else {
+                return 0;
+            }
+        }
+
+        double name = jaroWinkler(a.comparableName(), b.comparableName());
+        if (name < MIN_NAME_SIMILARITY) {
+            return 0;
+        }
+
+        double birth;
+        if (a.birthDate() == null || b.birthDate() == null) {
+            birth = 0.6; // Desconocida: ni suma ni descarta.
+        } else if (a.birthDate().equals(b.birthDate())) {
+            birth = 1;
+        } else if (a.birthDate().getYear() == b.birthDate().getYear()
+                && (a.birthDate().getMonthValue() == b.birthDate().getDayOfMonth()
+                && a.birthDate().getDayOfMonth() == b.birthDate().getMonthValue()
+                || a.birthDate().getMonthValue() == b.birthDate().getMonthValue()
+                || a.birthDate().getDayOfMonth() == b.birthDate().getDayOfMonth())) {
+            birth = 0.7; // Día y mes intercambiados o un solo campo distinto.
+        } else {
+            birth = 0;
+        }
+
+        double score = 0.65 * name + 0.35 * birth;
+        return identificationTypo ? 0.5 + 0.5 * score : score;
+    }
+
+    private static boolean editDistanceAtMostOne(String a, String b) {
+        if (Math.abs(a.length() - b.length()) > 1) {
+            return false;
+        }
+        int i = 0;
+        int j = 0;
+        int edits = 0;
+        while (i < a.length() && j < b.length()) {
+            if (a.charAt(i) == b.charAt(j)) {
+                i++;
+                j++;
+                continue;
+            }
+            if (++edits > 1) {
+                return false;
+            }
+            if (a.length() > b.length()) {
+                i++;
+            } else if (a.length() < b.length()) {
+                j++;
+            } else {
+                i++;
+                j++;
+            }
+        }
+        return edits + (a.length() - i) + (b.length() - j) <= 1;
+    }
+
+    /** Similitud de Jaro-Winkler (0 a 1). */
+    static double jaroWinkler(String a, String b) {
+        if (a.equals(b)) {
+            return 1;
+        }
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0;
+        }
+        int window = Math.max(0, Math.max(a.length(), b.length()) / 2 - 1);
+        boolean[] matchedA = new boolean[a.length()];
+        boolean[] matchedB = new boolean[b.length()];
+        int matches = 0;
+        for (int i = 0; i < a.length(); i++) {
+            int start = Math.max(0, i - window);
+            int end = Math.min(b.length(), i + window + 1);
+            for (int j = start; j < end; j++) {
+                if (!matchedB[j] && a.charAt(i) == b.charAt(j)) {
+                    matchedA[i] = true;
+                    matchedB[j] = true;
+                    matches++;
+                    break;
+                }
+            }
+        }
+        if (matches == 0) {
+            return 0;
+        }
+        int transpositions = 0;
+        for (int i = 0, j = 0; i < a.length(); i++) {
+            if (!matchedA[i]) {
+                continue;
+            }
+            while (!matchedB[j]) {
+                j++;
+            }
+            if (a.charAt(i) != b.charAt(j)) {
+                transpositions++;
+            }
+            j++;
+        }
+        double m = matches;
+        double jaro = (m / a.length() + m / b.length() + (m - transpositions / 2.0) / m) / 3;
+        int prefix = 0;
+        while (prefix < Math.min(4, Math.min(a.length(), b.length())) && a.charAt(prefix) == b.charAt(prefix)) {
+            prefix++;
+        }
+        return jaro + prefix * 0.1 * (1 - jaro);
+    }
+}
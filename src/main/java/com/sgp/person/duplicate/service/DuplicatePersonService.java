@@ -0,0 +1,20 @@
+package com.sgp.person.duplicate.service;
+
+import com.sgp.person.duplicate.dto.DuplicateReportResponse;
+
+public interface DuplicatePersonService {
+
+    /**
+     * Lanza un análisis completo de duplicados en segundo plano.
+     * @throws com.sgp.common.exception.ResourceValidException si ya hay uno en curso.
+     */
+    void startScan();
+
+    /**
+     * Grupos de posibles duplicados del último análisis, de mayor a menor puntuación.
+     * @param parishId ID opcional de la Parroquia: grupos con al menos una persona de esa parroquia.
+     * @param minScore Puntuación mínima opcional del grupo.
+     * @param limit Máximo de grupos devueltos.
+     */
+    DuplicateReportResponse getReport(Long parishId, Double minScore, int limit);
+}
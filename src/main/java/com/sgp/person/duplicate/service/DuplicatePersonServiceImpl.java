@@ -0,0 +1,176 @@
+package com.sgp.person.duplicate.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sgp.common.exception.ResourceNotFoundException;
+import com.sgp.common.exception.ResourceValidException;
+import com.sgp.common.service.ClusterLockService;
+import com.sgp.parish.repository.ParishRepository;
+import com.sgp.person.duplicate.dto.DuplicateClusterResponse;
+import com.sgp.person.duplicate.dto.DuplicatePersonResponse;
+import com.sgp.person.duplicate.dto.DuplicateReportResponse;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Lanza el análisis de duplicados y sirve su último resultado.
+ *
+ * El análisis se ejecuta en un solo nodo a la vez (bloqueo consultivo) y el informe se guarda en Redis,
+ * de modo que cualquier nodo puede responder la consulta, también después de reiniciarse.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DuplicatePersonServiceImpl implements DuplicatePersonService {
+
+    private static final String RESOURCE_PARISH = "Parroquia";
+    private static final int MAX_CLUSTERS = 1000;
+    private static final String LOCK_NAME = "duplicate-person-scan";
+    private static final String REPORT_KEY = "sgp:people:duplicates:report";
+    private static final String RUNNING_KEY = "sgp:people:duplicates:running";
+    // Si un nodo cae a mitad del análisis, la marca de "en curso" caduca sola.
+    private static final Duration RUNNING_TTL = Duration.ofHours(2);
+
+    private final DuplicatePersonDetector detector;
+    private final ParishRepository parishRepository;
+    private final ClusterLockService clusterLockService;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.people.duplicates.min-score:0.85}")
+    private double minScore;
+
+    // Análisis en curso en este nodo (el bloqueo consultivo evita que otro nodo lance uno a la vez).
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    // Hilo propio: el análisis hace JDBC bloqueante durante minutos y no debe ocupar el ForkJoinPool común.
+    private final ExecutorService scanExecutor = Executors.newSingleThreadExecutor(task -> new Thread(task, "duplicate-scan"));
+
+    @PreDestroy
+    void shutdownExecutor() {
+        scanExecutor.shutdownNow();
+    }
+
+    @Override
+    public void startScan() {
+        if (isRunning() || !running.compareAndSet(false, true)) {
+            throw new ResourceValidException("Ya hay un análisis de duplicados en curso.");
+        }
+        // El análisis tarda minutos: se ejecuta fuera del hilo de la petición.
+        scanExecutor.execute(this::runScan);
+    }
+
+    // Análisis semanal, los domingos a las 5:00 (se omite si ya hay uno en curso en cualquier nodo).
+    // Se encola en el mismo hilo que el análisis manual para no ocupar el planificador durante minutos.
+    @Scheduled(cron = "${app.people.duplicates.scan-cron:0 0 5 * * SUN}")
+    public void scheduledScan() {
+        if (running.compareAndSet(false, true)) {
+            scanExecutor.execute(this::runScan);
+        }
+    }
+
+    private void runScan() {
+        try {
+            clusterLockService.runExclusively(LOCK_NAME, () -> {
+                stringRedisTemplate.opsForValue().set(RUNNING_KEY, "1", RUNNING_TTL);
+                try {
+                    saveReport(detector.detect(minScore));
+                } finally {
+                    stringRedisTemplate.delete(RUNNING_KEY);
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("Error en el análisis de personas duplicadas.", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void saveReport(DuplicatePersonDetector.Report report) {
+        try {
+            stringRedisTemplate.opsForValue().set(REPORT_KEY, objectMapper.writeValueAsString(report));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el informe de duplicados.", e);
+        }
+    }
+
+    private DuplicatePersonDetector.Report loadReport() {
+        String json = stringRedisTemplate.opsForValue().get(REPORT_KEY);
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, DuplicatePersonDetector.Report.class);
+        } catch (JsonProcessingException e) {
+            // Informe de una versión anterior con otro formato: se trata como inexistente hasta el próximo análisis.
+            log.warn("No se pudo leer el informe de duplicados guardado: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean isRunning() {
+        return running.get() || Boolean.TRUE.equals(stringRedisTemplate.hasKey(RUNNING_KEY));
+    }
+
+    @Override
+    public DuplicateReportResponse getReport(Long parishId, Double minScore, int limit) {
+        if (parishId != null && !parishRepository.existsById(parishId)) {
+            throw new ResourceNotFoundException(RESOURCE_PARISH, "id", parishId);
+        }
+        DuplicatePersonDetector.Report report = loadReport();
+        boolean scanning = isRunning();
+        if (report == null) {
+            return DuplicateReportResponse.builder()
+                    .running(scanning)
+                    .clusters(List.of())
+                    .build();
+        }
+
+        List<DuplicatePersonDetector.Cluster> matching = report.clusters().stream()
+                .filter(cluster -> minScore == null || cluster.score() >= minScore)
+                .filter(cluster -> parishId == null || cluster.people().stream().anyMatch(p -> p.parishId() == parishId))
+                .toList();
+
+        return DuplicateReportResponse.builder()
+                .running(scanning)
+                .generatedAt(report.generatedAt())
+                .durationMillis(report.durationMillis())
+                .peopleScanned(report.peopleScanned())
+                .blocks(report.blocks())
+                .skippedBlocks(report.skippedBlocks())
+                .comparisons(report.comparisons())
+                .totalClusters(matching.size())
+                .clusters(matching.stream()
+                        .limit(Math.max(1, Math.min(limit, MAX_CLUSTERS)))
+                        .map(DuplicatePersonServiceImpl::toResponse)
+                        .toList())
+                .build();
+    }
+
+    private static DuplicateClusterResponse toResponse(DuplicatePersonDetector.Cluster cluster) {
+        return DuplicateClusterResponse.builder()
+                .score(cluster.score())
+                .pairs(cluster.pairs())
+                .people(cluster.people().stream()
+                        .map(person -> DuplicatePersonResponse.builder()
+                                .personId(person.personId())
+                                .fullName(person.fullName())
+                                .birthDate(person.birthDate())
+                                .parishId(person.parishId())
+                                .identificationType(person.identificationType())
+                                .identificationNumber(person.identificationNumber())
+                                .build())
+                        .toList())
+                .build();
+    }
+}
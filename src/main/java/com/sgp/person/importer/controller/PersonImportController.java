@@ -0,0 +1,62 @@
+package com.sgp.person.importer.controller;
+
+import com.sgp.common.exception.ResourceValidException;
+import com.sgp.common.util.ImportFileReader;
+import com.sgp.common.util.SecurityUtil;
+import com.sgp.person.importer.service.PersonImportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/api/v1/people/import")
+@RequiredArgsConstructor
+public class PersonImportController {
+
+    private final PersonImportService personImportService;
+
+    /**
+     * POST /api/v1/people/import?parishId=1 (multipart, campo "file")
+     * Importa en bloque los feligreses de una parroquia desde CSV o JSON lines.
+     * La respuesta es application/x-ndjson: una línea por fila rechazada, una de progreso por lote
+     * y un resumen final, que se envían mientras avanza la importación.
+     */
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'GESTOR')")
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<StreamingResponseBody> importPeople(@RequestParam("file") MultipartFile file,
+                                                              @RequestParam(required = false) Long parishId,
+                                                              @RequestParam(required = false) ImportFileReader.Format format) {
+        // Se valida antes de empezar a transmitir: una vez enviadas las cabeceras ya no se puede responder un error.
+        personImportService.validateParish(parishId);
+        ImportFileReader.Format resolvedFormat = format != null ? format : detectFormat(file.getOriginalFilename());
+        // El cuerpo se escribe en otro hilo: el usuario se toma aquí, con la petición aún en curso.
+        String auditor = SecurityUtil.getCurrentAuditor();
+
+        StreamingResponseBody body = output -> {
+            try (InputStream input = file.getInputStream()) {
+                personImportService.importPeople(input, resolvedFormat, parishId, auditor, output);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    private ImportFileReader.Format detectFormat(String filename) {
+        String name = filename != null ? filename.toLowerCase(Locale.ROOT) : "";
+        if (name.endsWith(".csv")) {
+            return ImportFileReader.Format.CSV;
+        }
+        if (name.endsWith(".jsonl") || name.endsWith(".ndjson")) {
+            return ImportFileReader.Format.JSONL;
+        }
+        throw new ResourceValidException("No se pudo determinar el formato del archivo. Use .csv, .jsonl o el parámetro 'format'.");
+    }
+}
@@ -0,0 +1,29 @@
+package com.sgp.person.importer.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Evento de la respuesta en streaming (una línea JSON por evento):
+ * - "error": una fila rechazada (line, identification, message).
+ * - "progress": totales acumulados tras cada lote.
+ * - "summary": totales finales (último evento).
+ */
+@Value
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PersonImportEvent {
+
+    public static final String ERROR = "error";
+    public static final String PROGRESS = "progress";
+    public static final String SUMMARY = "summary";
+
+    String event;
+    Long line;
+    String identification;
+    String message;
+    Long processedRows;
+    Long importedRows;
+    Long failedRows;
+}
@@ -0,0 +1,29 @@
+package com.sgp.person.importer.dto;
+
+import com.sgp.common.enums.Gender;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * Fila ya interpretada de la importación masiva de personas.
+ */
+@Data
+public class PersonImportRow {
+
+    private long line;
+    private String firstName;
+    private String lastName;
+    private LocalDate birthDate;
+    private Gender gender;
+    private String phoneNumber;
+    private String address;
+    private String identificationType;
+    private String identificationNumber;
+    private Long parishId;
+
+    /** Clave de unicidad (misma regla que uc_person_identification): tipo + número. */
+    public String identificationKey() {
+        return identificationType + "|" + identificationNumber;
+    }
+}
@@ -0,0 +1,26 @@
+package com.sgp.person.importer.service;
+
+import com.sgp.common.util.ImportFileReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface PersonImportService {
+
+    /**
+     * Valida la parroquia por defecto antes de empezar a transmitir la respuesta.
+     */
+    void validateParish(Long defaultParishId);
+
+    /**
+     * Importa personas (CSV o JSON lines) en streaming y por lotes. Cada lote se guarda en su propia
+     * transacción con un batch JDBC. Escribe en output una línea JSON por fila rechazada, una de progreso
+     * por lote y un resumen final (ver PersonImportEvent).
+     *
+     * @param defaultParishId Parroquia de las filas sin columna parishName (opcional si todas la traen).
+     * @param auditor         Valor de created_by / updated_by de las personas creadas (ver SecurityUtil.getCurrentAuditor).
+     */
+    void importPeople(InputStream input, ImportFileReader.Format format, Long defaultParishId, String auditor,
+                      OutputStream output) throws IOException;
+}
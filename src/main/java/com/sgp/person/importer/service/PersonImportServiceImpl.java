@@ -0,0 +1,264 @@
+package com.sgp.person.importer.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sgp.common.enums.Gender;
+import com.sgp.common.exception.ResourceNotFoundException;
+import com.sgp.common.util.ImportFileReader;
+import com.sgp.parish.repository.ParishRepository;
+import com.sgp.person.importer.dto.PersonImportEvent;
+import com.sgp.person.importer.dto.PersonImportRow;
+import com.sgp.person.search.PersonAutocompleteIndex;
+import com.sgp.person.search.PersonNameIndex;
+import com.sgp.person.search.PersonNameNormalizer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Importación masiva de personas (alta de una parroquia nueva).
+ *
+ * Antes de leer el archivo se precargan las identificaciones existentes (conjunto en memoria) y las
+ * parroquias por nombre, así que cada fila se valida sin consultas. Las filas válidas se insertan en
+ * lotes con un batch JDBC por transacción; si un lote falla, se reintenta fila a fila para informar
+ * solo las filas que no se pueden guardar. Los errores y el progreso se transmiten al cliente
+ * a medida que se procesan.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PersonImportServiceImpl implements PersonImportService {
+
+    private static final String RESOURCE_PARISH = "Parroquia";
+
+    private final PersonImportWriter importWriter;
+    private final ParishRepository parishRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+    private final PersonNameIndex personNameIndex;
+    private final PersonAutocompleteIndex personAutocompleteIndex;
+
+    @Value("${app.people.import.batch-size:1000}")
+    private int batchSize;
+
+    /** Estado de una importación en curso. */
+    private final class ImportRun {
+        final Long defaultParishId;
+        final String auditor;
+        final Set<String> identifications;
+        final Map<String, Long> parishesByName;
+        final JsonGenerator generator;
+        final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        long processed;
+        long imported;
+        long failed;
+
+        ImportRun(Long defaultParishId, String auditor, Set<String> identifications, Map<String, Long> parishesByName,
+                  JsonGenerator generator) {
+            this.defaultParishId = defaultParishId;
+            this.auditor = auditor;
+            this.identifications = identifications;
+            this.parishesByName = parishesByName;
+            this.generator = generator;
+        }
+
+        void error(long line, String identification, String message) throws IOException {
+            failed++;
+            write(PersonImportEvent.builder().event(PersonImportEvent.ERROR)
+                    .line(line).identification(identification).message(message).build());
+        }
+
+        void totals(String event) throws IOException {
+            write(PersonImportEvent.builder().event(event)
+                    .processedRows(processed).importedRows(imported).failedRows(failed).build());
+            generator.flush();
+        }
+
+        private void write(PersonImportEvent event) throws IOException {
+            generator.writeObject(event);
+            generator.writeRaw('\n');
+        }
+    }
+
+    @Override
+    public void validateParish(Long defaultParishId) {
+        if (defaultParishId != null && !parishRepository.existsById(defaultParishId)) {
+            throw new ResourceNotFoundException(RESOURCE_PARISH, "ID", defaultParishId);
+        }
+    }
+
+    @Override
+    public void importPeople(InputStream input, ImportFileReader.Format format, Long defaultParishId, String auditor,
+                             OutputStream output) throws IOException {
+        long start = System.currentTimeMillis();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+             ImportFileReader reader = new ImportFileReader(input, format, objectMapper)) {
+            generator.setRootValueSeparator(null);
+            ImportRun run = new ImportRun(defaultParishId, auditor, importWriter.loadExistingIdentifications(),
+                    importWriter.loadParishIdsByName(), generator);
+
+            List<PersonImportRow> batch = new ArrayList<>(batchSize);
+            ImportFileReader.ImportRecord record;
+            while ((record = reader.next()) != null) {
+                run.processed++;
+                if (record.error() != null) {
+                    run.error(record.line(), null, record.error());
+                    continue;
+                }
+                PersonImportRow row;
+                try {
+                    row = toRow(record, run);
+                } catch (IllegalArgumentException e) {
+                    run.error(record.line(), null, e.getMessage());
+                    continue;
+                }
+                // Duplicada dentro del archivo o ya registrada: un solo lookup en el conjunto precargado.
+                if (!run.identifications.add(row.identificationKey())) {
+                    run.error(row.getLine(), row.identificationKey().replace("|", " "),
+                            "Ya existe una persona con esta identificación.");
+                    continue;
+                }
+                batch.add(row);
+                if (batch.size() >= batchSize) {
+                    processBatch(batch, run);
+                    batch.clear();
+                }
+            }
+            processBatch(batch, run);
+            run.totals(PersonImportEvent.SUMMARY);
+
+            log.info("Importación de personas: {} filas, {} importadas, {} con error en {} ms.",
+                    run.processed, run.imported, run.failed, System.currentTimeMillis() - start);
+        }
+    }
+
+    private void processBatch(List<PersonImportRow> batch, ImportRun run) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            run.imported += save(batch, run);
+        } catch (RuntimeException batchError) {
+            // El lote se revierte entero (p. ej. una identificación registrada en paralelo por otro usuario):
+            // se reintenta fila a fila, cada una en su transacción, para rechazar solo las que fallan.
+            log.warn("Error al guardar un lote de la importación de personas, se reintenta fila a fila: {}",
+                    NestedExceptionUtils.getMostSpecificCause(batchError).getMessage());
+            for (PersonImportRow row : batch) {
+                try {
+                    run.imported += save(List.of(row), run);
+                } catch (DuplicateKeyException e) {
+                    run.error(row.getLine(), row.identificationKey().replace("|", " "),
+                            "Ya existe una persona con esta identificación.");
+                } catch (RuntimeException e) {
+                    run.identifications.remove(row.identificationKey());
+                    run.error(row.getLine(), row.identificationKey().replace("|", " "),
+                            "Error al guardar la fila: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                }
+            }
+        }
+        run.totals(PersonImportEvent.PROGRESS);
+    }
+
+    // Inserta las filas en una transacción y registra las personas en los índices tras el commit.
+    private int save(List<PersonImportRow> rows, ImportRun run) {
+        List<Long> ids = run.transactionTemplate.execute(status -> {
+            List<Long> inserted = importWriter.insertPersons(rows, run.auditor);
+            for (int i = 0; i < rows.size(); i++) {
+                PersonImportRow row = rows.get(i);
+                personNameIndex.onPersonSaved(inserted.get(i), row.getParishId(), row.getFirstName(), row.getLastName());
+                personAutocompleteIndex.onPersonSaved(inserted.get(i), row.getParishId(), row.getFirstName(),
+                        row.getLastName(), row.getBirthDate());
+            }
+            return inserted;
+        });
+        return ids.size();
+    }
+
+    // --- INTERPRETACIÓN DE FILAS ---
+
+    // Columnas: firstName, lastName, identificationType, identificationNumber (obligatorias),
+    // birthDate, gender, phoneNumber, address y parishName (opcionales).
+    private PersonImportRow toRow(ImportFileReader.ImportRecord record, ImportRun run) {
+        Map<String, String> values = record.values();
+        PersonImportRow row = new PersonImportRow();
+        row.setLine(record.line());
+        row.setFirstName(required(values, "firstName", 100));
+        row.setLastName(required(values, "lastName", 100));
+        row.setIdentificationType(required(values, "identificationType", 50));
+        row.setIdentificationNumber(required(values, "identificationNumber", 50));
+        row.setPhoneNumber(optional(values, "phoneNumber", 20));
+        row.setAddress(optional(values, "address", 100));
+
+        String birthDate = optional(values, "birthDate", 10);
+        if (birthDate != null) {
+            try {
+                row.setBirthDate(LocalDate.parse(birthDate));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Fecha inválida en 'birthDate' (formato esperado yyyy-MM-dd): " + birthDate);
+            }
+            if (row.getBirthDate().isAfter(LocalDate.now())) {
+                throw new IllegalArgumentException("La fecha de nacimiento no puede ser futura.");
+            }
+        }
+
+        String gender = optional(values, "gender", 10);
+        if (gender != null) {
+            try {
+                row.setGender(Gender.valueOf(gender.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Género desconocido: " + gender);
+            }
+        }
+
+        String parishName = optional(values, "parishName", 255);
+        if (parishName != null) {
+            Long parishId = run.parishesByName.get(PersonNameNormalizer.normalize(parishName));
+            if (parishId == null) {
+                throw new IllegalArgumentException("No existe la parroquia '" + parishName + "'.");
+            }
+            row.setParishId(parishId);
+        } else if (run.defaultParishId != null) {
+            row.setParishId(run.defaultParishId);
+        } else {
+            throw new IllegalArgumentException("La columna 'parishName' es obligatoria si no se indica parishId.");
+        }
+        return row;
+    }
+
+    private static String optional(Map<String, String> values, String column, int maxLength) {
+        String value = values.get(column);
+        if (value == null) {
+            return null;
+        }
+        value = value.trim();
+        if (value.length() > maxLength) {
+            throw new IllegalArgumentException("La columna '" + column + "' no debe exceder los " + maxLength + " caracteres.");
+        }
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String required(Map<String, String> values, String column, int maxLength) {
+        String value = optional(values, column, maxLength);
+        if (value == null) {
+            throw new IllegalArgumentException("La columna '" + column + "' es obligatoria.");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,99 @@
+package com.sgp.person.importer.service;
+
+import com.sgp.common.service.StreamingQueryService;
+import com.sgp.person.importer.dto.PersonImportRow;
+import com.sgp.person.search.PersonNameNormalizer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Acceso JDBC de la importación de personas: precarga de identificaciones y parroquias, e INSERT en batch.
+ */
+@Component
+@RequiredArgsConstructor
+public class PersonImportWriter {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final StreamingQueryService streamingQueryService;
+
+    @Value("${app.people.import.fetch-size:10000}")
+    private int fetchSize;
+
+    /**
+     * Identificaciones ya registradas (incluidas las de personas desactivadas: la restricción
+     * uc_person_identification las cubre igual). Se leen en streaming una sola vez por importación.
+     */
+    public Set<String> loadExistingIdentifications() {
+        Set<String> keys = new HashSet<>();
+        streamingQueryService.query(
+                "SELECT identification_type, identification_number FROM persons " +
+                        "WHERE identification_type IS NOT NULL AND identification_number IS NOT NULL",
+                fetchSize,
+                rs -> {
+                    keys.add(rs.getString(1) + "|" + rs.getString(2));
+                });
+        return keys;
+    }
+
+    /** Parroquias por nombre normalizado (sin tildes ni mayúsculas). */
+    public Map<String, Long> loadParishIdsByName() {
+        Map<String, Long> parishes = new HashMap<>();
+        jdbcTemplate.getJdbcTemplate().query("SELECT id, name FROM parishes WHERE is_active = true", rs -> {
+            parishes.put(PersonNameNormalizer.normalize(rs.getString(2)), rs.getLong(1));
+        });
+        return parishes;
+    }
+
+    /**
+     * Inserta las personas y devuelve sus IDs en el orden de las filas.
+     * @param auditor Valor de created_by / updated_by (null si no hay usuario).
+     */
+    public List<Long> insertPersons(List<PersonImportRow> rows, String auditor) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        SqlParameterSource[] batch = rows.stream()
+                .map(row -> new MapSqlParameterSource()
+                        .addValue("firstName", row.getFirstName())
+                        .addValue("lastName", row.getLastName())
+                        .addValue("firstNameNorm", PersonNameNormalizer.normalize(row.getFirstName()))
+                        .addValue("lastNameNorm", PersonNameNormalizer.normalize(row.getLastName()))
+                        .addValue("birthDate", row.getBirthDate())
+                        .addValue("gender", row.getGender() != null ? row.getGender().name() : null)
+                        .addValue("phoneNumber", row.getPhoneNumber())
+                        .addValue("address", row.getAddress())
+                        .addValue("identificationType", row.getIdentificationType())
+                        .addValue("identificationNumber", row.getIdentificationNumber())
+                        .addValue("parishId", row.getParishId())
+                        .addValue("now", now)
+                        .addValue("auditor", auditor))
+                .toArray(SqlParameterSource[]::new);
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate("INSERT INTO persons (first_name, last_name, first_name_norm, last_name_norm, birth_date, " +
+                        "gender, phone_number, address, identification_type, identification_number, parish_id, is_active, " +
+                        "created_at, updated_at, created_by, updated_by) " +
+                        "VALUES (:firstName, :lastName, :firstNameNorm, :lastNameNorm, :birthDate, :gender, :phoneNumber, " +
+                        ":address, :identificationType, :identificationNumber, :parishId, true, :now, :now, :auditor, :auditor)",
+                batch, keyHolder, new String[]{"id"});
+
+        return keyHolder.getKeyList().stream()
+                .map(keys -> ((Number) keys.get("id")).longValue())
+                .toList();
+    }
+}
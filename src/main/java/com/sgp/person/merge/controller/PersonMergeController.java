@@ -0,0 +1,29 @@
+package com.sgp.person.merge.controller;
+
+import com.sgp.person.merge.dto.PersonMergeRequest;
+import com.sgp.person.merge.dto.PersonMergeResponse;
+import com.sgp.person.merge.service.PersonMergeService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/people/merge")
+@RequiredArgsConstructor
+public class PersonMergeController {
+
+    private final PersonMergeService personMergeService;
+
+    // FUSIONAR PERSONAS DUPLICADAS: Solo ADMIN (operación crítica, no se deshace automáticamente)
+    /**
+     * POST /api/v1/people/merge
+     * Body: { "survivorId": 10, "mergedIds": [25, 31] }
+     */
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @PostMapping
+    public ResponseEntity<PersonMergeResponse> mergePeople(@Valid @RequestBody PersonMergeRequest request) {
+        return ResponseEntity.ok(personMergeService.mergePeople(request));
+    }
+}
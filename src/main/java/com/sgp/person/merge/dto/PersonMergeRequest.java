@@ -0,0 +1,23 @@
+package com.sgp.person.merge.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Fusión de personas duplicadas: todas las referencias de mergedIds pasan a survivorId
+ * y las personas fusionadas quedan desactivadas.
+ */
+@Data
+public class PersonMergeRequest {
+
+    @NotNull(message = "El ID de la persona que se conserva es obligatorio.")
+    private Long survivorId;
+
+    @NotEmpty(message = "Debe indicar al menos una persona a fusionar.")
+    @Size(max = 50, message = "No se pueden fusionar más de 50 personas a la vez.")
+    private List<@NotNull Long> mergedIds;
+}
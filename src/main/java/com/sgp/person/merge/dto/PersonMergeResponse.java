@@ -0,0 +1,20 @@
+package com.sgp.person.merge.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Resultado de la fusión: filas reasignadas por tabla.
+ */
+@Value
+@Builder
+public class PersonMergeResponse {
+    Long survivorId;
+    List<Long> mergedIds;
+    int sacramentsUpdated;
+    int sacramentDetailsUpdated;
+    int appointmentsUpdated;
+    boolean userTransferred;
+}
@@ -0,0 +1,13 @@
+package com.sgp.person.merge.service;
+
+import com.sgp.person.merge.dto.PersonMergeRequest;
+import com.sgp.person.merge.dto.PersonMergeResponse;
+
+public interface PersonMergeService {
+
+    /**
+     * Fusiona personas duplicadas en una sola transacción: reasigna sacramentos (receptor y los seis
+     * papeles del detalle), citas y usuario a la persona superviviente y desactiva las fusionadas.
+     */
+    PersonMergeResponse mergePeople(PersonMergeRequest request);
+}
@@ -0,0 +1,135 @@
+package com.sgp.person.merge.service;
+
+import com.sgp.common.cache.PersonPageCache;
+import com.sgp.common.exception.ResourceNotFoundException;
+import com.sgp.common.exception.ResourceValidException;
+import com.sgp.common.util.SecurityUtil;
+import com.sgp.person.merge.dto.PersonMergeRequest;
+import com.sgp.person.merge.dto.PersonMergeResponse;
+import com.sgp.person.search.PersonAutocompleteIndex;
+import com.sgp.person.search.PersonNameIndex;
+import com.sgp.sacrament.relationship.service.SacramentRelationshipIndex;
+import com.sgp.sacrament.service.SacramentEligibilityService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PersonMergeServiceImpl implements PersonMergeService {
+
+    private static final String RESOURCE_PERSON = "Persona";
+
+    // Un solo UPDATE para los seis papeles del detalle: cada columna se reasigna solo si apunta a una fusionada.
+    private static final String UPDATE_DETAILS_SQL =
+            "UPDATE sacrament_details SET " +
+                    "officiant_minister_id = CASE WHEN officiant_minister_id IN (:mergedIds) THEN :survivorId ELSE officiant_minister_id END, " +
+                    "godfather_1_id = CASE WHEN godfather_1_id IN (:mergedIds) THEN :survivorId ELSE godfather_1_id END, " +
+                    "godfather_2_id = CASE WHEN godfather_2_id IN (:mergedIds) THEN :survivorId ELSE godfather_2_id END, " +
+                    "spouse_id = CASE WHEN spouse_id IN (:mergedIds) THEN :survivorId ELSE spouse_id END, " +
+                    "witness_1_id = CASE WHEN witness_1_id IN (:mergedIds) THEN :survivorId ELSE witness_1_id END, " +
+                    "witness_2_id = CASE WHEN witness_2_id IN (:mergedIds) THEN :survivorId ELSE witness_2_id END, " +
+                    "version = version + 1, updated_at = :now, updated_by = :auditor " +
+                    "WHERE officiant_minister_id IN (:mergedIds) OR godfather_1_id IN (:mergedIds) " +
+                    "OR godfather_2_id IN (:mergedIds) OR spouse_id IN (:mergedIds) " +
+                    "OR witness_1_id IN (:mergedIds) OR witness_2_id IN (:mergedIds)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final SacramentEligibilityService eligibilityService;
+    private final SacramentRelationshipIndex relationshipIndex;
+    private final PersonNameIndex personNameIndex;
+    private final PersonAutocompleteIndex personAutocompleteIndex;
+    private final PersonPageCache personPageCache;
+
+    @Override
+    @Transactional
+    public PersonMergeResponse mergePeople(PersonMergeRequest request) {
+        Long survivorId = request.getSurvivorId();
+        List<Long> mergedIds = new ArrayList<>(new LinkedHashSet<>(request.getMergedIds()));
+        if (mergedIds.contains(survivorId)) {
+            throw new ResourceValidException("La persona que se conserva no puede estar entre las personas a fusionar.");
+        }
+        List<Long> allIds = new ArrayList<>(mergedIds);
+        allIds.add(survivorId);
+
+        // 1. Bloquear las filas (en orden de ID, para no cruzarse con otra fusión) y validar que existen y están activas.
+        Map<Long, Long> userByPerson = new HashMap<>();
+        jdbcTemplate.query("SELECT id, user_id FROM persons WHERE id IN (:ids) AND is_active = true ORDER BY id FOR UPDATE",
+                new MapSqlParameterSource("ids", allIds),
+                rs -> {
+                    long userId = rs.getLong(2);
+                    userByPerson.put(rs.getLong(1), rs.wasNull() ? null : userId);
+                });
+        for (Long id : allIds) {
+            if (!userByPerson.containsKey(id)) {
+                throw new ResourceNotFoundException(RESOURCE_PERSON, "id", id);
+            }
+        }
+
+        // 2. Usuario del sistema: se conserva el de la superviviente o se traspasa el único de las fusionadas.
+        List<Long> userIds = allIds.stream().map(userByPerson::get).filter(Objects::nonNull).distinct().toList();
+        if (userIds.size() > 1) {
+            throw new ResourceValidException("Las personas a fusionar tienen usuarios del sistema distintos; desvincule uno antes de fusionar.");
+        }
+        Long transferredUserId = userByPerson.get(survivorId) == null && !userIds.isEmpty() ? userIds.get(0) : null;
+
+        // 3. Reasignar referencias con UPDATEs por conjunto (la auditoría la pone JPA solo en sus propias escrituras).
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("survivorId", survivorId)
+                .addValue("mergedIds", mergedIds)
+                .addValue("now", Timestamp.valueOf(LocalDateTime.now()))
+                .addValue("auditor", SecurityUtil.getCurrentAuditor());
+
+        int sacraments = jdbcTemplate.update("UPDATE sacraments SET person_id = :survivorId, version = version + 1, " +
+                "updated_at = :now, updated_by = :auditor WHERE person_id IN (:mergedIds)", params);
+        int details = jdbcTemplate.update(UPDATE_DETAILS_SQL, params);
+        int appointments = jdbcTemplate.update("UPDATE appointments SET person_id = :survivorId, version = version + 1, " +
+                "updated_at = :now, updated_by = :auditor WHERE person_id IN (:mergedIds)", params);
+
+        // 4. Desactivar las fusionadas (liberando su usuario antes de asignarlo: user_id es único).
+        jdbcTemplate.update("UPDATE persons SET is_active = false, deleted_at = :now, updated_at = :now, updated_by = :auditor, " +
+                "user_id = NULL, sacrament_mask = 0 WHERE id IN (:mergedIds)", params);
+        if (transferredUserId != null) {
+            jdbcTemplate.update("UPDATE persons SET user_id = :userId, updated_at = :now, updated_by = :auditor " +
+                            "WHERE id = :survivorId",
+                    params.addValue("userId", transferredUserId));
+            personPageCache.evictPersonOfUser(transferredUserId);
+        }
+
+        // 5. Estado derivado: máscara de sacramentos, índices en memoria y cachés (después del commit).
+        eligibilityService.recompute(List.of(survivorId));
+        relationshipIndex.onPersonsMerged(mergedIds, survivorId);
+        mergedIds.forEach(id -> {
+            personNameIndex.onPersonRemoved(id);
+            personAutocompleteIndex.onPersonRemoved(id);
+        });
+        Long[] affected = allIds.toArray(new Long[0]);
+        personPageCache.invalidate(PersonPageCache.AREA_SACRAMENTS, affected);
+        personPageCache.invalidate(PersonPageCache.AREA_APPOINTMENTS, affected);
+
+        log.info("Personas {} fusionadas en {}: {} sacramentos, {} detalles y {} citas reasignados.",
+                mergedIds, survivorId, sacraments, details, appointments);
+
+        return PersonMergeResponse.builder()
+                .survivorId(survivorId)
+                .mergedIds(mergedIds)
+                .sacramentsUpdated(sacraments)
+                .sacramentDetailsUpdated(details)
+                .appointmentsUpdated(appointments)
+                .userTransferred(transferredUserId != null)
+                .build();
+    }
+}
@@ -3,6 +3,7 @@ package com.sgp.person.model;
 import com.sgp.common.enums.Gender;
 import com.sgp.common.model.Auditable;
 import com.sgp.parish.model.Parish;
+import com.sgp.person.search.PersonNameNormalizer;
 import com.sgp.user.model.User;
 import jakarta.persistence.*;
 import lombok.*;
@@ -12,6 +13,10 @@ import java.time.LocalDate;
 @Entity
 @Table(name = "persons", uniqueConstraints = {
         @UniqueConstraint(name = "uc_person_identification", columnNames = {"identification_type", "identification_number"})
+}, indexes = {
+        // Listado por parroquia ordenado por apellido/nombre: is_active al final permite un recorrido solo de índice.
+        @Index(name = "idx_persons_parish_name_norm", columnList = "parish_id, last_name_norm, first_name_norm, id, is_active"),
+        @Index(name = "idx_persons_name_norm", columnList = "last_name_norm, first_name_norm, id, is_active")
 })
 @Getter
 @Setter
@@ -31,6 +36,14 @@ public class Person extends Auditable {
     @Column(name = "last_name", nullable = false)
     private String lastName;
 
+    // --- Nombre normalizado (minúsculas y sin tildes) para ordenar y buscar ---
+    // Lo calcula normalizeNames() en cada escritura; las inserciones por JDBC lo calculan igual.
+    @Column(name = "first_name_norm")
+    private String firstNameNorm;
+
+    @Column(name = "last_name_norm")
+    private String lastNameNorm;
+
     @Column(name = "birth_date")
     private LocalDate birthDate;
 
@@ -65,6 +78,20 @@ public class Person extends Auditable {
     @JoinColumn(name = "user_id", unique = true, nullable = true) // 'user_id' será la FK
     private User user;
 
+    // --- Estado Sacramental Precalculado ---
+    // Máscara de bits de los sacramentos activos recibidos (SacramentType.bit()); MATRIMONY también
+    // cuenta para el cónyuge. La mantiene SacramentEligibilityService con SQL: JPA nunca la escribe.
+    @Column(name = "sacrament_mask", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "integer default 0")
+    private int sacramentMask;
+
+
+    @PrePersist
+    @PreUpdate
+    void normalizeNames() {
+        this.firstNameNorm = PersonNameNormalizer.normalize(this.firstName);
+        this.lastNameNorm = PersonNameNormalizer.normalize(this.lastName);
+    }
 
     // ⭐ MÉTODO CALCULADO PARA OBTENER EL NOMBRE COMPLETO ⭐
     @Transient // Indica a JPA que este campo no debe ser persistido en la DB
@@ -5,7 +5,10 @@ import com.sgp.user.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -52,13 +55,50 @@ public interface PersonRepository extends JpaRepository<Person, Long> {
      */
     Page<Person> findByParish_Id(Long parishId, Pageable pageable);
 
+    /**
+     * Página de IDs de una parroquia. Ordenada por (lastNameNorm, firstNameNorm, id) se resuelve
+     * con un recorrido solo de índice sobre idx_persons_parish_name_norm.
+     */
+    @Query("SELECT p.id FROM Person p WHERE p.parish.id = :parishId")
+    Page<Long> findIdsByParishId(@Param("parishId") Long parishId, Pageable pageable);
+
+    /**
+     * Página de IDs de todas las personas (índice idx_persons_name_norm con el orden por nombre).
+     */
+    @Query("SELECT p.id FROM Person p")
+    Page<Long> findAllIds(Pageable pageable);
+
+    /**
+     * Carga las personas de una página de IDs con su parroquia (una consulta).
+     */
+    @Query("SELECT p FROM Person p LEFT JOIN FETCH p.parish WHERE p.id IN :ids")
+    List<Person> findAllWithParishByIdIn(@Param("ids") Collection<Long> ids);
+
     /**
      * Busca una Persona por el ID del Usuario asociado.
      */
     Optional<Person> findByUser_Id(Long userId); // ⭐ NUEVO MÉTODO DE BÚSQUEDA ⭐
 
+    /**
+     * Obtiene solo el ID de la Persona vinculada a un usuario (sin cargar la entidad).
+     */
+    @Query("SELECT p.id FROM Person p WHERE p.user.id = :userId")
+    Optional<Long> findIdByUserId(@Param("userId") Long userId);
+
     // ⭐ MÉTODO CRÍTICO para obtener la persona del usuario logueado ⭐
     Optional<Person> findByUser(User user);
 
+    /**
+     * Nombres de un conjunto de personas en una sola consulta. Cada fila es [Long id, String nombre completo].
+     */
+    @Query("SELECT p.id, CONCAT(p.firstName, ' ', p.lastName) FROM Person p WHERE p.id IN :ids")
+    List<Object[]> findFullNamesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Máscaras de sacramentos recibidos de un conjunto de personas. Cada fila es [Long id, Integer máscara].
+     */
+    @Query("SELECT p.id, p.sacramentMask FROM Person p WHERE p.id IN :ids")
+    List<Object[]> findSacramentMasksByIdIn(@Param("ids") Collection<Long> ids);
+
 
 }
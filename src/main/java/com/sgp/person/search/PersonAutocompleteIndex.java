@@ -0,0 +1,318 @@
+package com.sgp.person.search;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.sgp.common.cache.AfterCommitIndex;
+import com.sgp.common.cache.IndexChangeBroadcaster;
+import com.sgp.common.service.StreamingQueryService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Índice en memoria para el autocompletado de personas en los formularios de sacramentos.
+ *
+ * - Cada persona activa aparece dos veces en un arreglo ordenado de claves normalizadas:
+ *   "nombre apellidos" y "apellidos nombre", de modo que se puede empezar a escribir por cualquiera.
+ *   Una búsqueda por prefijo es una búsqueda binaria más la lectura de los K siguientes.
+ * - Además del arreglo global se guarda uno por parroquia, para acotar sin recorrer otras parroquias.
+ *   Las personas sin parroquia (personal y ministros) tienen su propio arreglo, que se consulta junto
+ *   con el de cualquier parroquia.
+ * - Los cambios posteriores a la carga van a una capa incremental (mapa ordenado + IDs ocultos)
+ *   que se fusiona en cada consulta; cuando crece demasiado, se reconstruye el arreglo.
+ *   Los cambios confirmados en otros nodos llegan por Redis y se aplican igual.
+ */
+@Component
+@RequiredArgsConstructor
+public class PersonAutocompleteIndex extends AfterCommitIndex<PersonAutocompleteIndex.State, PersonAutocompleteIndex.Change> {
+
+    public static final String CHANNEL = "sgp:index:person-autocomplete";
+
+    // Clave de byParish para las personas sin parroquia.
+    private static final long NO_PARISH = 0;
+
+    private final StreamingQueryService streamingQueryService;
+    private final IndexChangeBroadcaster broadcaster;
+
+    @Value("${app.people.autocomplete.fetch-size:10000}")
+    private int fetchSize;
+
+    @Value("${app.people.autocomplete.compact-threshold:20000}")
+    private int compactThreshold;
+
+    /** Persona sugerida (parishId null si no pertenece a ninguna parroquia). */
+    public record Entry(long personId, Long parishId, String fullName, LocalDate birthDate) {
+    }
+
+    /** Cambio incremental del índice (se difunde a los demás nodos como JSON). */
+    @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "kind")
+    @JsonSubTypes({
+            @JsonSubTypes.Type(value = Change.PersonSaved.class, name = "saved"),
+            @JsonSubTypes.Type(value = Change.PersonRemoved.class, name = "removed")
+    })
+    public sealed interface Change {
+        record PersonSaved(long personId, Long parishId, String firstName, String lastName,
+                           LocalDate birthDate) implements Change {
+        }
+
+        record PersonRemoved(long personId) implements Change {
+        }
+    }
+
+    /** Claves ordenadas con su persona (arreglos paralelos). */
+    private record SortedKeys(String[] keys, Entry[] entries) {
+
+        static SortedKeys of(List<String> keys, List<Entry> entries) {
+            Integer[] order = new Integer[keys.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparing(keys::get));
+            String[] sortedKeys = new String[order.length];
+            Entry[] sortedEntries = new Entry[order.length];
+            for (int i = 0; i < order.length; i++) {
+                sortedKeys[i] = keys.get(order[i]);
+                sortedEntries[i] = entries.get(order[i]);
+            }
+            return new SortedKeys(sortedKeys, sortedEntries);
+        }
+
+        /** Primera posición cuya clave es mayor o igual que el prefijo. */
+        int lowerBound(String prefix) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid].compareTo(prefix) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    /** Arreglos inmutables de la última carga más la capa incremental. */
+    static final class State {
+        final SortedKeys all;
+        final Map<Long, SortedKeys> byParish;
+        // Altas y cambios posteriores a la carga. Clave: "clave normalizada \0 personId".
+        final NavigableMap<String, Entry> added = new ConcurrentSkipListMap<>();
+        final Map<Long, List<String>> addedKeys = new ConcurrentHashMap<>();
+        // Personas cambiadas o dadas de baja: sus entradas de los arreglos ya no valen.
+        final Set<Long> hidden = ConcurrentHashMap.newKeySet();
+
+        State(SortedKeys all, Map<Long, SortedKeys> byParish) {
+            this.all = all;
+            this.byParish = byParish;
+        }
+
+        void put(Entry entry, String firstName, String lastName) {
+            remove(entry.personId());
+            List<String> keys = new ArrayList<>(2);
+            for (String key : keysOf(firstName, lastName)) {
+                String overlayKey = key + '\0' + entry.personId();
+                added.put(overlayKey, entry);
+                keys.add(overlayKey);
+            }
+            addedKeys.put(entry.personId(), keys);
+        }
+
+        void remove(long personId) {
+            hidden.add(personId);
+            List<String> keys = addedKeys.remove(personId);
+            if (keys != null) {
+                keys.forEach(added::remove);
+            }
+        }
+    }
+
+    private static List<String> keysOf(String firstName, String lastName) {
+        String first = PersonNameNormalizer.normalize(firstName);
+        String last = PersonNameNormalizer.normalize(lastName);
+        String firstLast = (first + " " + last).trim();
+        String lastFirst = (last + " " + first).trim();
+        return firstLast.equals(lastFirst) ? List.of(firstLast) : List.of(firstLast, lastFirst);
+    }
+
+    // --- CONSULTA ---
+
+    /**
+     * Sugerencias cuyo nombre ("nombre apellidos" o "apellidos nombre") empieza por el prefijo,
+     * en orden alfabético.
+     *
+     * @param parishId Parroquia a la que restringir las sugerencias (null para todas).
+     */
+    public List<Entry> suggest(String prefix, Long parishId, int limit) {
+        String normalized = PersonNameNormalizer.normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        State current = loaded();
+
+        // 1. Arreglo ordenado (global o de la parroquia): búsqueda binaria y lectura secuencial.
+        List<String> keys = new ArrayList<>(limit * 2);
+        List<Entry> entries = new ArrayList<>(limit * 2);
+        Set<Long> seen = new HashSet<>();
+        collect(current, parishId == null ? current.all : current.byParish.get(parishId), normalized, limit,
+                keys, entries, seen);
+        // Acotado a una parroquia: también las personas sin parroquia (p. ej. el ministro que oficia).
+        int fromShared = parishId == null ? 0
+                : collect(current, current.byParish.get(NO_PARISH), normalized, limit, keys, entries, seen);
+
+        // 2. Capa incremental (pocas entradas): mismas reglas.
+        int fromOverlay = 0;
+        for (Map.Entry<String, Entry> added : current.added.tailMap(normalized).entrySet()) {
+            if (!added.getKey().startsWith(normalized) || fromOverlay >= limit) {
+                break;
+            }
+            Entry entry = added.getValue();
+            if ((parishId == null || entry.parishId() == null || parishId.equals(entry.parishId()))
+                    && seen.add(entry.personId())) {
+                keys.add(added.getKey().substring(0, added.getKey().indexOf('\0')));
+                entries.add(entry);
+                fromOverlay++;
+            }
+        }
+        if (fromShared == 0 && fromOverlay == 0) {
+            return entries;
+        }
+
+        // 3. Fusión en orden alfabético.
+        Integer[] order = new Integer[entries.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing(keys::get));
+        List<Entry> merged = new ArrayList<>(limit);
+        for (int i = 0; i < order.length && merged.size() < limit; i++) {
+            merged.add(entries.get(order[i]));
+        }
+        return merged;
+    }
+
+    // Añade hasta limit entradas visibles del arreglo que empiezan por el prefijo; devuelve cuántas añadió.
+    private static int collect(State current, SortedKeys slice, String prefix, int limit,
+                               List<String> keys, List<Entry> entries, Set<Long> seen) {
+        if (slice == null) {
+            return 0;
+        }
+        int collected = 0;
+        for (int i = slice.lowerBound(prefix); i < slice.keys().length && collected < limit; i++) {
+            if (!slice.keys()[i].startsWith(prefix)) {
+                break;
+            }
+            Entry entry = slice.entries()[i];
+            if (!current.hidden.contains(entry.personId()) && seen.add(entry.personId())) {
+                keys.add(slice.keys()[i]);
+                entries.add(entry);
+                collected++;
+            }
+        }
+        return collected;
+    }
+
+    // --- ACTUALIZACIÓN INCREMENTAL (después del commit) ---
+
+    @PostConstruct
+    void registerBroadcast() {
+        broadcastVia(broadcaster, CHANNEL, Change.class);
+    }
+
+    /** Registra (o reemplaza) a una persona activa (parishId null si no tiene parroquia). */
+    public void onPersonSaved(long personId, Long parishId, String firstName, String lastName, LocalDate birthDate) {
+        afterCommit(new Change.PersonSaved(personId, parishId, firstName, lastName, birthDate));
+    }
+
+    /** Quita a una persona desactivada (o fusionada con otra). */
+    public void onPersonRemoved(long personId) {
+        afterCommit(new Change.PersonRemoved(personId));
+    }
+
+    @Override
+    protected void applyChange(State target, Change change) {
+        if (change instanceof Change.PersonSaved saved) {
+            Entry entry = new Entry(saved.personId(), saved.parishId(),
+                    (saved.firstName() + " " + saved.lastName()).trim(), saved.birthDate());
+            target.put(entry, saved.firstName(), saved.lastName());
+        } else if (change instanceof Change.PersonRemoved removed) {
+            target.remove(removed.personId());
+        }
+    }
+
+    // --- CARGA COMPLETA ---
+
+    /** Compacta la capa incremental en los arreglos cuando supera el umbral. */
+    @Scheduled(fixedDelayString = "${app.people.autocomplete.compact-check-ms:300000}")
+    public void compactIfNeeded() {
+        State current = current();
+        if (current != null && current.hidden.size() + current.added.size() > compactThreshold) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Reconstruye los arreglos leyendo las personas activas en streaming y los publica de golpe.
+     */
+    @Override
+    @Scheduled(cron = "${app.people.autocomplete.rebuild-cron:0 40 4 * * *}")
+    public void rebuild() {
+        super.rebuild();
+    }
+
+    @Override
+    protected String indexName() {
+        return "Índice de autocompletado";
+    }
+
+    @Override
+    protected State load() {
+        List<String> keys = new ArrayList<>();
+        List<Entry> entries = new ArrayList<>();
+        Map<Long, List<String>> parishKeys = new HashMap<>();
+        Map<Long, List<Entry>> parishEntries = new HashMap<>();
+        streamingQueryService.query(
+                "SELECT id, parish_id, first_name, last_name, birth_date FROM persons WHERE is_active = true",
+                fetchSize,
+                rs -> {
+                    String firstName = rs.getString(3);
+                    String lastName = rs.getString(4);
+                    Date birthDate = rs.getDate(5);
+                    Entry entry = new Entry(rs.getLong(1), rs.getObject(2, Long.class), (firstName + " " + lastName).trim(),
+                            birthDate != null ? birthDate.toLocalDate() : null);
+                    for (String key : keysOf(firstName, lastName)) {
+                        keys.add(key);
+                        entries.add(entry);
+                        long parishKey = entry.parishId() != null ? entry.parishId() : NO_PARISH;
+                        parishKeys.computeIfAbsent(parishKey, p -> new ArrayList<>()).add(key);
+                        parishEntries.computeIfAbsent(parishKey, p -> new ArrayList<>()).add(entry);
+                    }
+                });
+
+        Map<Long, SortedKeys> byParish = new HashMap<>();
+        parishKeys.forEach((parishId, list) -> byParish.put(parishId, SortedKeys.of(list, parishEntries.get(parishId))));
+        return new State(SortedKeys.of(keys, entries), byParish);
+    }
+
+    @Override
+    protected String describe(State loaded) {
+        return loaded.all.keys().length + " claves";
+    }
+}
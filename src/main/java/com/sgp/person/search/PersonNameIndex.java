@@ -0,0 +1,394 @@
+package com.sgp.person.search;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.sgp.common.cache.AfterCommitIndex;
+import com.sgp.common.cache.IndexChangeBroadcaster;
+import com.sgp.common.service.StreamingQueryService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido en memoria de los nombres de las personas activas, para la búsqueda por nombre.
+ *
+ * - Los nombres se normalizan (minúsculas, sin tildes) y se separan en palabras; cada palabra apunta
+ *   a las personas que la contienen. Sobre el vocabulario se mantiene un índice de trigramas para
+ *   tolerar errores de escritura (distancia de edición 1 o 2).
+ * - Cada palabra de la consulta se expande a palabras del vocabulario (exacta, prefijo o aproximada);
+ *   se recorren solo las personas de la palabra más selectiva y se puntúan contra las demás.
+ * - Se carga al arrancar, se reconstruye cada noche (compactando las bajas) y se actualiza
+ *   de forma incremental después del commit de cada alta, cambio o baja de persona, en este nodo
+ *   y (por Redis) en los demás.
+ * - Las personas sin parroquia (personal y ministros creados desde la gestión de usuarios) aparecen
+ *   también en las búsquedas acotadas a una parroquia.
+ */
+@Component
+@RequiredArgsConstructor
+public class PersonNameIndex extends AfterCommitIndex<PersonNameIndex.Index, PersonNameIndex.Change> {
+
+    public static final String CHANNEL = "sgp:index:person-names";
+
+    private static final int MAX_PREFIX_EXPANSIONS = 256;
+    private static final double EXACT_SCORE = 1.0;
+    // Valor de parishIds para parish_id NULL.
+    private static final long NO_PARISH = 0;
+
+    private final StreamingQueryService streamingQueryService;
+    private final IndexChangeBroadcaster broadcaster;
+
+    @Value("${app.people.search.fetch-size:10000}")
+    private int fetchSize;
+
+    /** Resultado de la búsqueda (parishId null si la persona no pertenece a ninguna parroquia). */
+    public record Hit(long personId, Long parishId, String fullName, double score) {
+    }
+
+    /** Cambio incremental del índice (se difunde a los demás nodos como JSON). */
+    @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "kind")
+    @JsonSubTypes({
+            @JsonSubTypes.Type(value = Change.PersonSaved.class, name = "saved"),
+            @JsonSubTypes.Type(value = Change.PersonRemoved.class, name = "removed")
+    })
+    public sealed interface Change {
+        record PersonSaved(long personId, Long parishId, String firstName, String lastName) implements Change {
+        }
+
+        record PersonRemoved(long personId) implements Change {
+        }
+    }
+
+    /** Lista creciente de enteros (ordinales de documento) sin boxing. */
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+
+    /**
+     * Estructura del índice. Las personas se guardan en arreglos paralelos por ordinal; un cambio
+     * asigna un ordinal nuevo y marca el anterior como borrado (se compacta en la reconstrucción).
+     */
+    static final class Index {
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        long[] personIds = new long[1024];
+        long[] parishIds = new long[1024];
+        String[] names = new String[1024];
+        String[][] tokens = new String[1024][];
+        final BitSet alive = new BitSet();
+        int size;
+
+        final Map<Long, Integer> ordinalByPerson = new HashMap<>();
+        final NavigableMap<String, IntList> postings = new TreeMap<>();
+        final Map<String, List<String>> tokensByTrigram = new HashMap<>();
+
+        void put(long personId, long parishId, String firstName, String lastName) {
+            remove(personId);
+            String fullName = (firstName + " " + lastName).trim();
+            List<String> words = PersonNameNormalizer.tokens(fullName);
+            if (words.isEmpty()) {
+                return;
+            }
+            if (size == personIds.length) {
+                int capacity = size * 2;
+                personIds = Arrays.copyOf(personIds, capacity);
+                parishIds = Arrays.copyOf(parishIds, capacity);
+                names = Arrays.copyOf(names, capacity);
+                tokens = Arrays.copyOf(tokens, capacity);
+            }
+            int ordinal = size++;
+            personIds[ordinal] = personId;
+            parishIds[ordinal] = parishId;
+            names[ordinal] = fullName;
+            tokens[ordinal] = words.toArray(new String[0]);
+            alive.set(ordinal);
+            ordinalByPerson.put(personId, ordinal);
+
+            for (String word : words) {
+                postings.computeIfAbsent(word, w -> {
+                    for (String gram : trigrams(w)) {
+                        tokensByTrigram.computeIfAbsent(gram, g -> new ArrayList<>()).add(w);
+                    }
+                    return new IntList();
+                }).add(ordinal);
+            }
+        }
+
+        void remove(long personId) {
+            Integer ordinal = ordinalByPerson.remove(personId);
+            if (ordinal != null) {
+                alive.clear(ordinal);
+                names[ordinal] = null;
+                tokens[ordinal] = null;
+            }
+        }
+    }
+
+    // --- BÚSQUEDA ---
+
+    /**
+     * Busca personas por nombre y/o apellidos. Todas las palabras de la consulta deben coincidir
+     * (exacta, como prefijo o con un error de escritura); si ninguna persona las cumple todas,
+     * se devuelven las que cumplen más. Ordenado por puntuación.
+     *
+     * @param parishId Parroquia a la que restringir la búsqueda (null para todas).
+     */
+    public List<Hit> search(String query, Long parishId, int limit) {
+        List<String> queryTokens = PersonNameNormalizer.tokens(query);
+        if (queryTokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Index current = loaded();
+        current.lock.readLock().lock();
+        try {
+            // 1. Expandir cada palabra de la consulta a palabras del vocabulario con su puntuación.
+            List<Map<String, Double>> expansions = new ArrayList<>(queryTokens.size());
+            for (String token : queryTokens) {
+                expansions.add(expand(current, token));
+            }
+
+            // 2. La palabra más selectiva (menos personas) define los candidatos.
+            int driver = 0;
+            long driverSize = Long.MAX_VALUE;
+            for (int i = 0; i < expansions.size(); i++) {
+                long estimate = 0;
+                for (String word : expansions.get(i).keySet()) {
+                    estimate += current.postings.get(word).size;
+                }
+                if (estimate > 0 && estimate < driverSize) {
+                    driver = i;
+                    driverSize = estimate;
+                }
+            }
+            if (driverSize == Long.MAX_VALUE) {
+                return List.of();
+            }
+
+            // 3. Puntuar cada candidato contra todas las palabras y quedarse con los mejores (montículo de tamaño limit).
+            Comparator<ScoredDoc> ranking = Comparator.comparingInt(ScoredDoc::matched)
+                    .thenComparingDouble(ScoredDoc::score)
+                    .thenComparing(doc -> -current.names[doc.ordinal()].length());
+            PriorityQueue<ScoredDoc> top = new PriorityQueue<>(limit + 1, ranking);
+            BitSet visited = new BitSet();
+            for (String word : expansions.get(driver).keySet()) {
+                IntList list = current.postings.get(word);
+                for (int i = 0; i < list.size; i++) {
+                    int ordinal = list.values[i];
+                    if (!current.alive.get(ordinal) || visited.get(ordinal)
+                            || (parishId != null && current.parishIds[ordinal] != parishId
+                            && current.parishIds[ordinal] != NO_PARISH)) {
+                        continue;
+                    }
+                    visited.set(ordinal);
+                    ScoredDoc scored = score(current, ordinal, expansions);
+                    top.add(scored);
+                    if (top.size() > limit) {
+                        top.poll();
+                    }
+                }
+            }
+
+            List<ScoredDoc> ordered = new ArrayList<>(top);
+            ordered.sort(ranking.reversed());
+            int best = ordered.isEmpty() ? 0 : ordered.get(0).matched();
+            return ordered.stream()
+                    .filter(doc -> doc.matched() == best) // Solo las que cumplen el máximo de palabras
+                    .map(doc -> new Hit(current.personIds[doc.ordinal()],
+                            current.parishIds[doc.ordinal()] != NO_PARISH ? current.parishIds[doc.ordinal()] : null,
+                            current.names[doc.ordinal()], Math.round(doc.score() * 1000) / 1000.0))
+                    .toList();
+        } finally {
+            current.lock.readLock().unlock();
+        }
+    }
+
+    private record ScoredDoc(int ordinal, int matched, double score) {
+    }
+
+    private static ScoredDoc score(Index current, int ordinal, List<Map<String, Double>> expansions) {
+        int matched = 0;
+        double total = 0;
+        for (Map<String, Double> expansion : expansions) {
+            double best = 0;
+            for (String word : current.tokens[ordinal]) {
+                Double score = expansion.get(word);
+                if (score != null && score > best) {
+                    best = score;
+                }
+            }
+            if (best > 0) {
+                matched++;
+                total += best;
+            }
+        }
+        return new ScoredDoc(ordinal, matched, total);
+    }
+
+    /** Palabras del vocabulario que corresponden a una palabra de la consulta, con su puntuación. */
+    private static Map<String, Double> expand(Index current, String token) {
+        Map<String, Double> expansion = new LinkedHashMap<>();
+        if (current.postings.containsKey(token)) {
+            expansion.put(token, EXACT_SCORE);
+        }
+
+        // Prefijo: "gonz" -> "gonzalez", "gonzalo"...
+        int count = 0;
+        for (String word : current.postings.subMap(token, false, token + Character.MAX_VALUE, false).keySet()) {
+            if (++count > MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            expansion.putIfAbsent(word, 0.6 + 0.3 * token.length() / word.length());
+        }
+
+        // Aproximada (errores de escritura), solo con palabras de 3 letras o más.
+        if (token.length() >= 3) {
+            int maxDistance = token.length() <= 4 ? 1 : 2;
+            Map<String, Integer> shared = new HashMap<>();
+            for (String gram : trigrams(token)) {
+                List<String> words = current.tokensByTrigram.get(gram);
+                if (words != null) {
+                    words.forEach(word -> shared.merge(word, 1, Integer::sum));
+                }
+            }
+            for (String word : shared.keySet()) {
+                if (expansion.containsKey(word) || Math.abs(word.length() - token.length()) > maxDistance) {
+                    continue;
+                }
+                int distance = editDistance(token, word, maxDistance);
+                if (distance <= maxDistance) {
+                    expansion.put(word, distance == 1 ? 0.5 : 0.3);
+                }
+            }
+        }
+        return expansion;
+    }
+
+    private static List<String> trigrams(String word) {
+        String padded = "$" + word + "$";
+        List<String> grams = new ArrayList<>(padded.length());
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    /**
+     * Distancia de Damerau-Levenshtein (con transposiciones adyacentes), cortando en cuanto supera el máximo.
+     */
+    static int editDistance(String a, String b, int max) {
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()];
+    }
+
+    // --- ACTUALIZACIÓN INCREMENTAL (después del commit) ---
+
+    @PostConstruct
+    void registerBroadcast() {
+        broadcastVia(broadcaster, CHANNEL, Change.class);
+    }
+
+    /** Registra (o reemplaza) el nombre de una persona activa (parishId null si no tiene parroquia). */
+    public void onPersonSaved(long personId, Long parishId, String firstName, String lastName) {
+        afterCommit(new Change.PersonSaved(personId, parishId, firstName, lastName));
+    }
+
+    /** Quita a una persona desactivada (o fusionada con otra). */
+    public void onPersonRemoved(long personId) {
+        afterCommit(new Change.PersonRemoved(personId));
+    }
+
+    @Override
+    protected void applyChange(Index target, Change change) {
+        target.lock.writeLock().lock();
+        try {
+            if (change instanceof Change.PersonSaved saved) {
+                target.put(saved.personId(), saved.parishId() != null ? saved.parishId() : NO_PARISH,
+                        saved.firstName(), saved.lastName());
+            } else if (change instanceof Change.PersonRemoved removed) {
+                target.remove(removed.personId());
+            }
+        } finally {
+            target.lock.writeLock().unlock();
+        }
+    }
+
+    // --- CARGA COMPLETA ---
+
+    /**
+     * Reconstruye el índice leyendo las personas activas en streaming y lo publica de golpe.
+     */
+    @Override
+    @Scheduled(cron = "${app.people.search.rebuild-cron:0 30 4 * * *}")
+    public void rebuild() {
+        super.rebuild();
+    }
+
+    @Override
+    protected String indexName() {
+        return "Índice de nombres";
+    }
+
+    @Override
+    protected Index load() {
+        Index rebuilt = new Index();
+        streamingQueryService.query("SELECT id, parish_id, first_name, last_name FROM persons WHERE is_active = true",
+                fetchSize,
+                rs -> {
+                    rebuilt.put(rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getString(4));
+                });
+        return rebuilt;
+    }
+
+    @Override
+    protected String describe(Index loaded) {
+        return loaded.ordinalByPerson.size() + " personas, " + loaded.postings.size() + " palabras";
+    }
+}
@@ -0,0 +1,59 @@
+package com.sgp.person.search;
+
+import com.sgp.common.service.ClusterLockService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Rellena first_name_norm y last_name_norm de las personas anteriores a esas columnas.
+ * La normalización (quitar tildes) se hace en Java, igual que en las escrituras, para que
+ * el orden sea el mismo sin depender de extensiones de la base de datos (unaccent).
+ * Procesa por lotes en orden de ID (cada lote continúa tras el último ID del anterior, sin volver a recorrer
+ * las filas ya revisadas) y en un solo nodo; en arranques posteriores es una sola consulta vacía.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PersonNormalizedNameBackfill {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final String LOCK_NAME = "person-name-norm-backfill";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ClusterLockService clusterLockService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        clusterLockService.runExclusively(LOCK_NAME, this::backfillPending);
+    }
+
+    private void backfillPending() {
+        long updated = 0;
+        long lastId = 0;
+        while (true) {
+            List<Object[]> rows = jdbcTemplate.query(
+                    "SELECT id, first_name, last_name FROM persons " +
+                            "WHERE id > ? AND (first_name_norm IS NULL OR last_name_norm IS NULL) ORDER BY id LIMIT " + BATCH_SIZE,
+                    (rs, i) -> new Object[]{
+                            PersonNameNormalizer.normalize(rs.getString(2)),
+                            PersonNameNormalizer.normalize(rs.getString(3)),
+                            rs.getLong(1)},
+                    lastId);
+            if (rows.isEmpty()) {
+                break;
+            }
+            jdbcTemplate.batchUpdate("UPDATE persons SET first_name_norm = ?, last_name_norm = ? WHERE id = ?", rows);
+            updated += rows.size();
+            lastId = (Long) rows.get(rows.size() - 1)[2];
+        }
+        if (updated > 0) {
+            log.info("Nombres normalizados calculados para {} personas.", updated);
+        }
+    }
+}
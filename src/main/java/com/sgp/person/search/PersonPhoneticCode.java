@@ -0,0 +1,75 @@
+package com.sgp.person.search;
+
+/**
+ * Código fonético simplificado para nombres en español: agrupa las letras que suenan igual
+ * (b/v, c/k/q, c/s/z, g/j, ll/y...), ignora la h muda y las vocales salvo la inicial,
+ * y elimina las repeticiones. "González" y "Gonsales" dan el mismo código ("gnsls").
+ */
+public final class PersonPhoneticCode {
+
+    private static final int MAX_LENGTH = 6;
+
+    private PersonPhoneticCode() {
+    }
+
+    /** Código de una palabra (se normaliza antes); cadena vacía si no tiene letras. */
+    public static String encode(String word) {
+        String text = PersonNameNormalizer.normalize(word).replace(" ", "");
+        StringBuilder code = new StringBuilder(MAX_LENGTH);
+        char last = 0;
+        for (int i = 0; i < text.length() && code.length() < MAX_LENGTH; i++) {
+            char c = text.charAt(i);
+            char next = i + 1 < text.length() ? text.charAt(i + 1) : 0;
+            char mapped;
+            switch (c) {
+                case 'a', 'e', 'i', 'o', 'u' -> mapped = code.length() == 0 ? 'a' : 0;
+                case 'h' -> mapped = 0;
+                case 'b', 'v', 'w' -> mapped = 'b';
+                case 'c' -> {
+                    if (next == 'h') {
+                        mapped = 'x';
+                        i++;
+                    } else {
+                        mapped = next == 'e' || next == 'i' ? 's' : 'k';
+                    }
+                }
+                case 'q', 'k' -> {
+                    mapped = 'k';
+                    if (next == 'u') {
+                        i++;
+                    }
+                }
+                case 'z', 's' -> mapped = 's';
+                case 'g' -> {
+                    if (next == 'u' && i + 2 < text.length() && (text.charAt(i + 2) == 'e' || text.charAt(i + 2) == 'i')) {
+                        mapped = 'g';
+                        i++;
+                    } else {
+                        mapped = next == 'e' || next == 'i' ? 'j' : 'g';
+                    }
+                }
+                case 'j' -> mapped = 'j';
+                case 'l' -> {
+                    if (next == 'l') {
+                        mapped = 'y';
+                        i++;
+                    } else {
+                        mapped = 'l';
+                    }
+                }
+                case 'y' -> mapped = next == 0 || "aeiou".indexOf(next) < 0 ? (code.length() == 0 ? 'a' : 0) : 'y';
+                case 'x' -> mapped = 'x';
+                default -> mapped = Character.isLetter(c) ? c : 0;
+            }
+            if (mapped != 0 && mapped != last) {
+                code.append(mapped);
+            }
+            if (mapped != 0) {
+                last = mapped;
+            } else if (c != 'h') {
+                last = 0; // Las vocales separan consonantes iguales: "Sosa" -> "ss", "Rossi" -> "rs".
+            }
+        }
+        return code.toString();
+    }
+}
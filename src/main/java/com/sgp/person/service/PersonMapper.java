@@ -16,6 +16,11 @@ public interface PersonMapper {
     // Por defecto, una nueva persona está activa,
     // ⭐ CORRECCIÓN: ELIMINAR ESTA LÍNEA, el valor por defecto en Auditable se encargará.
     // @Mapping(target = "isActive", constant = "true")
+    // La máscara de sacramentos la mantiene SacramentEligibilityService, nunca el cliente.
+    @Mapping(target = "sacramentMask", ignore = true)
+    // Los nombres normalizados los calcula la entidad al guardar (@PrePersist/@PreUpdate).
+    @Mapping(target = "firstNameNorm", ignore = true)
+    @Mapping(target = "lastNameNorm", ignore = true)
     Person toEntity(PersonRequest request);
 
     // --- Mapeo Entity a Response (Lectura) ---
@@ -31,6 +36,9 @@ public interface PersonMapper {
     @Mapping(target = "createdBy", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "updatedBy", ignore = true)
+    @Mapping(target = "sacramentMask", ignore = true)
+    @Mapping(target = "firstNameNorm", ignore = true)
+    @Mapping(target = "lastNameNorm", ignore = true)
     void updateEntityFromRequest(PersonRequest request, @MappingTarget Person person);
 
 
@@ -1,7 +1,9 @@
 package com.sgp.person.service;
 
+import com.sgp.person.dto.PersonAutocompleteResult;
 import com.sgp.person.dto.PersonRequest;
 import com.sgp.person.dto.PersonResponse;
+import com.sgp.person.dto.PersonSearchResult;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -29,4 +31,20 @@ public interface PersonService {
      */
     Page<PersonResponse> findAllPeople(Long parishId, Pageable pageable);
 
-}
\ No newline at end of file
+    /**
+     * Busca personas activas por nombre y/o apellidos, sin distinguir tildes ni mayúsculas
+     * y tolerando errores de escritura. Ordenado por relevancia.
+     * @param query Texto a buscar (una o varias palabras, completas o iniciales).
+     * @param parishId ID opcional de la Parroquia para filtrar.
+     * @param limit Máximo de resultados.
+     */
+    List<PersonSearchResult> searchPeople(String query, Long parishId, int limit);
+
+    /**
+     * Sugerencias para el autocompletado: personas activas cuyo "nombre apellidos" o "apellidos nombre"
+     * empieza por el prefijo (sin distinguir tildes ni mayúsculas), en orden alfabético.
+     * @param parishId ID opcional de la Parroquia para acotar las sugerencias.
+     */
+    List<PersonAutocompleteResult> autocompletePeople(String prefix, Long parishId, int limit);
+
+}
@@ -2,19 +2,31 @@ package com.sgp.person.service;
 
 import com.sgp.common.exception.ResourceConflictException;
 import com.sgp.common.exception.ResourceNotFoundException;
+import com.sgp.common.exception.ResourceValidException;
 import com.sgp.parish.model.Parish;
 import com.sgp.parish.repository.ParishRepository;
+import com.sgp.person.dto.PersonAutocompleteResult;
 import com.sgp.person.dto.PersonRequest;
 import com.sgp.person.dto.PersonResponse;
 import com.sgp.person.model.Person;
+import com.sgp.person.dto.PersonSearchResult;
 import com.sgp.person.repository.PersonRepository;
+import com.sgp.person.search.PersonAutocompleteIndex;
+import com.sgp.person.search.PersonNameIndex;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,9 +36,17 @@ public class PersonServiceImpl implements PersonService {
     private final PersonRepository personRepository;
     private final ParishRepository parishRepository; // Necesario para buscar la Parroquia
     private final PersonMapper personMapper;
+    private final PersonNameIndex personNameIndex;
+    private final PersonAutocompleteIndex personAutocompleteIndex;
 
     private static final String RESOURCE_PERSON = "Persona";
     private static final String RESOURCE_PARISH = "Parroquia";
+    private static final int MAX_SEARCH_RESULTS = 100;
+    private static final int MAX_AUTOCOMPLETE_RESULTS = 25;
+    // Propiedades de orden que se traducen a las columnas normalizadas.
+    private static final Map<String, String> NAME_SORT_PROPERTIES = Map.of(
+            "lastName", "lastNameNorm",
+            "firstName", "firstNameNorm");
 
     @Override
     @Transactional
@@ -49,6 +69,7 @@ public class PersonServiceImpl implements PersonService {
 
         // 4. Guardar y responder
         Person savedPerson = personRepository.save(person);
+        indexPerson(savedPerson);
         return personMapper.toResponse(savedPerson);
     }
 
@@ -89,6 +110,9 @@ public class PersonServiceImpl implements PersonService {
         personMapper.updateEntityFromRequest(request, person);
 
         Person updatedPerson = personRepository.save(person);
+        if (updatedPerson.isActive()) {
+            indexPerson(updatedPerson);
+        }
         return personMapper.toResponse(updatedPerson);
     }
 
@@ -102,27 +126,111 @@ public class PersonServiceImpl implements PersonService {
         // Esto preserva el historial de sacramentos y documentos.
         person.setActive(false);
         personRepository.save(person);
+        personNameIndex.onPersonRemoved(id);
+        personAutocompleteIndex.onPersonRemoved(id);
+    }
+
+    // Actualiza los índices de búsqueda en memoria (se aplica después del commit).
+    private void indexPerson(Person person) {
+        Long parishId = person.getParish().getId();
+        personNameIndex.onPersonSaved(person.getId(), parishId, person.getFirstName(), person.getLastName());
+        personAutocompleteIndex.onPersonSaved(person.getId(), parishId, person.getFirstName(), person.getLastName(),
+                person.getBirthDate());
     }
     // ⭐ NUEVO/MODIFICADO: Implementación de Paginación y Filtrado Unificado ⭐
     @Override
     @Transactional(readOnly = true)
     public Page<PersonResponse> findAllPeople(Long parishId, Pageable pageable) {
-        Page<Person> personPage;
-
         // Si se proporciona un parishId, filtramos por parroquia
         if (parishId != null) {
             // Opcional: Validar la existencia de la parroquia antes de filtrar
             if (!parishRepository.existsById(parishId)) {
                 throw new ResourceNotFoundException(RESOURCE_PARISH, "id", parishId);
             }
-            personPage = personRepository.findByParish_Id(parishId, pageable);
-        } else {
-            // Si no hay filtro, buscamos todos paginados
-            personPage = personRepository.findAll(pageable);
         }
 
-        // Mapeamos Page<Person> a Page<PersonResponse>
-        return personPage.map(personMapper::toResponse);
+        // El orden por nombre usa las columnas normalizadas (sin tildes ni mayúsculas) y el ID como desempate estable.
+        Pageable normalized = normalizeNameSort(pageable);
+        if (!isIndexedNameSort(normalized.getSort())) {
+            Page<Person> personPage = parishId != null
+                    ? personRepository.findByParish_Id(parishId, normalized)
+                    : personRepository.findAll(normalized);
+            return personPage.map(personMapper::toResponse);
+        }
+
+        // Dos fases: la página de IDs sale del índice compuesto y luego se cargan solo esas filas.
+        Page<Long> idPage = parishId != null
+                ? personRepository.findIdsByParishId(parishId, normalized)
+                : personRepository.findAllIds(normalized);
+        Map<Long, Person> byId = personRepository.findAllWithParishByIdIn(idPage.getContent()).stream()
+                .collect(Collectors.toMap(Person::getId, Function.identity()));
+        // Una fila borrada entre las dos consultas no está en byId: se omite de la página.
+        List<PersonResponse> content = idPage.getContent().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(personMapper::toResponse)
+                .toList();
+        return new PageImpl<>(content, idPage.getPageable(), idPage.getTotalElements());
+    }
+
+    private static Pageable normalizeNameSort(Pageable pageable) {
+        if (pageable.getSort().isUnsorted()) {
+            return pageable;
+        }
+        List<Sort.Order> orders = new ArrayList<>();
+        boolean hasId = false;
+        for (Sort.Order order : pageable.getSort()) {
+            String property = NAME_SORT_PROPERTIES.getOrDefault(order.getProperty(), order.getProperty());
+            orders.add(order.withProperty(property));
+            hasId |= property.equals("id");
+            // Ordenar por apellido implica ordenar después por nombre, como en el índice.
+            if (property.equals("lastNameNorm") && pageable.getSort().stream().noneMatch(o -> o.getProperty().equals("firstName"))) {
+                orders.add(new Sort.Order(order.getDirection(), "firstNameNorm"));
+            }
+        }
+        if (!hasId) {
+            // El desempate sigue la dirección del orden principal: así el índice se recorre entero hacia atrás en DESC.
+            orders.add(new Sort.Order(orders.get(0).getDirection(), "id"));
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by(orders));
+    }
+
+    private static boolean isIndexedNameSort(Sort sort) {
+        return sort.isSorted() && sort.stream().allMatch(order ->
+                order.getProperty().equals("lastNameNorm") || order.getProperty().equals("firstNameNorm")
+                        || order.getProperty().equals("id"));
+    }
+
+    // ⭐ BÚSQUEDA POR NOMBRE (índice en memoria, sin tildes y tolerante a errores de escritura) ⭐
+    @Override
+    public List<PersonSearchResult> searchPeople(String query, Long parishId, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new ResourceValidException("Debe indicar el nombre o apellido a buscar.");
+        }
+        if (parishId != null && !parishRepository.existsById(parishId)) {
+            throw new ResourceNotFoundException(RESOURCE_PARISH, "id", parishId);
+        }
+        return personNameIndex.search(query, parishId, Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS))).stream()
+                .map(hit -> PersonSearchResult.builder()
+                        .personId(hit.personId())
+                        .fullName(hit.fullName())
+                        .parishId(hit.parishId())
+                        .score(hit.score())
+                        .build())
+                .toList();
+    }
+
+    // ⭐ AUTOCOMPLETADO (formularios de sacramentos) ⭐
+    @Override
+    public List<PersonAutocompleteResult> autocompletePeople(String prefix, Long parishId, int limit) {
+        return personAutocompleteIndex.suggest(prefix, parishId, Math.max(1, Math.min(limit, MAX_AUTOCOMPLETE_RESULTS))).stream()
+                .map(entry -> PersonAutocompleteResult.builder()
+                        .personId(entry.personId())
+                        .fullName(entry.fullName())
+                        .birthDate(entry.birthDate())
+                        .parishId(entry.parishId())
+                        .build())
+                .toList();
     }
 
-}
\ No newline at end of file
+}
@@ -1,14 +1,23 @@
 package com.sgp.sacrament.controller;
 
+import com.sgp.common.util.ETagUtil;
+import com.sgp.sacrament.dto.MySacramentResponse;
+import com.sgp.sacrament.dto.SacramentEligibilityRequest;
+import com.sgp.sacrament.dto.SacramentEligibilityResponse;
 import com.sgp.sacrament.dto.SacramentRequest;
 import com.sgp.sacrament.dto.SacramentResponse;
+import com.sgp.sacrament.dto.SacramentSearchCriteria;
+import com.sgp.sacrament.dto.SacramentStatsResponse;
+import com.sgp.sacrament.service.SacramentEligibilityService;
 import com.sgp.sacrament.service.SacramentService;
+import com.sgp.sacrament.service.SacramentStatsService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize; // Importación clave
@@ -16,12 +25,15 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 
+
 @RestController
 @RequestMapping("/api/v1/sacraments")
 @RequiredArgsConstructor
 public class SacramentController {
 
     private final SacramentService sacramentService;
+    private final SacramentStatsService sacramentStatsService;
+    private final SacramentEligibilityService eligibilityService;
 
     // 1. CREAR SACRAMENTO (Registro Canónico)
     // Acceso restringido a quienes gestionan registros (ADMIN, GESTOR).
@@ -38,16 +50,20 @@ public class SacramentController {
     @GetMapping("/{id}")
     public ResponseEntity<SacramentResponse> getSacramentById(@PathVariable Long id) {
         SacramentResponse response = sacramentService.getSacramentById(id);
-        return ResponseEntity.ok(response);
+        // El ETag permite al cliente enviar If-Match en las actualizaciones (concurrencia optimista).
+        return ResponseEntity.ok()
+                .eTag(ETagUtil.of(response.getVersion(), response.getDetailVersion()))
+                .body(response);
     }
 
-// ⭐ MODIFICADO/UNIFICADO: OBTENER TODOS LOS SACRAMENTOS (Paginada y Opcionalmente Filtrada por Persona) ⭐
+// ⭐ MODIFICADO/UNIFICADO: OBTENER TODOS LOS SACRAMENTOS (Paginada y con Búsqueda Multicriterio) ⭐
     /**
-     * GET /api/v1/sacraments?page=0&size=20&sort=celebrationDate,desc&personId=1
-     * Obtiene una lista paginada de registros canónicos.
+     * GET /api/v1/sacraments?page=0&size=20&sort=celebrationDate,desc&type=BAPTISM&parishId=1
+     *     &celebrationDateFrom=2020-01-01&celebrationDateTo=2020-12-31&bookNumber=12&ministerId=3&recipientName=garcia
+     * Obtiene una lista paginada de registros canónicos. Todos los filtros son opcionales y se combinan.
      *
      * @param pageable Parámetros de paginación (page, size) y ordenamiento (sort).
-     * @param personId Filtro opcional por ID de la Persona receptora.
+     * @param criteria Filtros opcionales (tipo, parroquia, persona, rango de fechas, libro, ministro, nombre del receptor).
      * @return Una respuesta Page con la lista de DTOs de sacramentos.
      */
     @PreAuthorize("hasAnyAuthority('ADMIN', 'GESTOR', 'COORDINATOR')")
@@ -56,22 +72,62 @@ public class SacramentController {
             // Por defecto, ordenamos por fecha de celebración descendente.
             @PageableDefault(size = 20, sort = "celebrationDate", direction = Sort.Direction.DESC)
             Pageable pageable,
-            // El ID de la persona es un filtro opcional
-            @RequestParam(required = false) Long personId
+            // Filtros opcionales de búsqueda (parámetros de la URL)
+            @ModelAttribute SacramentSearchCriteria criteria
     ) {
-        Page<SacramentResponse> responsePage = sacramentService.findAllSacraments(personId, pageable);
+        Page<SacramentResponse> responsePage = sacramentService.findAllSacraments(criteria, pageable);
         return ResponseEntity.ok(responsePage);
     }
 
+    // 4. ESTADÍSTICAS POR AÑO Y TIPO (Informes parroquiales)
+    /**
+     * GET /api/v1/sacraments/stats?parishId=1&fromYear=2020&toYear=2024
+     * Devuelve el número de sacramentos activos por año y tipo, de una parroquia o de todas si no se indica.
+     * Por defecto, el año en curso. Se lee de los resúmenes materializados, por lo que el coste
+     * no depende del tamaño de la tabla de sacramentos.
+     * GESTOR y COORDINATOR solo pueden consultar su propia parroquia (se usa por defecto).
+     */
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'GESTOR', 'COORDINATOR')")
+    @GetMapping("/stats")
+    public ResponseEntity<SacramentStatsResponse> getStats(@RequestParam(required = false) Long parishId,
+                                                           @RequestParam(required = false) Integer fromYear,
+                                                           @RequestParam(required = false) Integer toYear) {
+        return ResponseEntity.ok(sacramentStatsService.getStats(parishId, fromYear, toYear));
+    }
+
+    // 4.1. RECONSTRUIR LAS ESTADÍSTICAS
+    // Recalcula los resúmenes desde la tabla de sacramentos (p. ej. tras cambios manuales en la base de datos).
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @PostMapping("/stats/rebuild")
+    public ResponseEntity<Void> rebuildStats() {
+        sacramentStatsService.rebuild();
+        return ResponseEntity.noContent().build();
+    }
+
+    // 4.2. COMPROBACIÓN MASIVA DE REQUISITOS
+    /**
+     * POST /api/v1/sacraments/eligibility
+     * Indica, para cada persona, si cumple los requisitos para recibir el sacramento
+     * (p. ej. todo un grupo de confirmación). Usa la máscara precalculada de cada persona.
+     */
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'GESTOR', 'COORDINATOR')")
+    @PostMapping("/eligibility")
+    public ResponseEntity<List<SacramentEligibilityResponse>> checkEligibility(@Valid @RequestBody SacramentEligibilityRequest request) {
+        return ResponseEntity.ok(eligibilityService.checkEligibility(request.getType(), request.getPersonIds()));
+    }
 
     // 5. ACTUALIZAR SACRAMENTO
     // Acceso restringido para modificar un registro existente (ADMIN, GESTOR).
     @PreAuthorize("hasAnyAuthority('ADMIN', 'GESTOR')")
     @PutMapping("/{id}")
     public ResponseEntity<SacramentResponse> updateSacrament(@PathVariable Long id,
-                                                             @Valid @RequestBody SacramentRequest request) {
-        SacramentResponse response = sacramentService.updateSacrament(id, request);
-        return ResponseEntity.ok(response);
+                                                             @Valid @RequestBody SacramentRequest request,
+                                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        // Si se envía If-Match y la versión no coincide, se responde 409 en lugar de sobrescribir.
+        SacramentResponse response = sacramentService.updateSacrament(id, request, ifMatch);
+        return ResponseEntity.ok()
+                .eTag(ETagUtil.of(response.getVersion(), response.getDetailVersion()))
+                .body(response);
     }
 
     // 6. ELIMINAR SACRAMENTO (Eliminación Lógica)
@@ -84,14 +140,17 @@ public class SacramentController {
     }
 
     /**
-     * GET /api/v1/sacraments/me
-     * Obtiene todos los sacramentos de la persona asociada al usuario autenticado (el feligrés).
+     * GET /api/v1/sacraments/me?page=0&size=20
+     * Obtiene una página de los sacramentos de la persona asociada al usuario autenticado (el feligrés).
      */
     @PreAuthorize("hasAuthority('USER')") // Solo el feligrés puede ver "sus" sacramentos.
     @GetMapping("/me")
-    public ResponseEntity<List<SacramentResponse>> getMySacraments() {
-        // Llama al nuevo método de servicio que obtiene el ID de la Persona internamente
-        List<SacramentResponse> response = sacramentService.getMySacraments();
+    public ResponseEntity<Page<MySacramentResponse>> getMySacraments(
+            @PageableDefault(size = 20, sort = "celebrationDate", direction = Sort.Direction.DESC)
+            Pageable pageable
+    ) {
+        // Llama al método de servicio que obtiene el ID de la Persona internamente
+        Page<MySacramentResponse> response = sacramentService.getMySacraments(pageable);
         return ResponseEntity.ok(response);
     }
 }
\ No newline at end of file
@@ -0,0 +1,50 @@
+package com.sgp.sacrament.dto;
+
+import com.sgp.sacrament.enums.SacramentType;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * DTO de "mis sacramentos": se obtiene directamente con una proyección JPQL (sin cargar entidades)
+ * y se cachea por persona en Redis.
+ */
+@Data
+@NoArgsConstructor
+public class MySacramentResponse {
+
+    private Long id;
+    private SacramentType type;
+    private String typeDisplayName;
+
+    private LocalDate celebrationDate;
+    private String parishName;
+    private String bookNumber;
+    private String pageNumber;
+    private String entryNumber;
+
+    private String officiantMinisterName;
+    private String godfather1Name;
+    private String godfather2Name;
+    private String spouseName;
+
+    // Constructor usado por la proyección de SacramentRepository.findMySacraments
+    public MySacramentResponse(Long id, SacramentType type, LocalDate celebrationDate, String parishName,
+                               String bookNumber, String pageNumber, String entryNumber,
+                               String officiantMinisterName, String godfather1Name,
+                               String godfather2Name, String spouseName) {
+        this.id = id;
+        this.type = type;
+        this.typeDisplayName = type != null ? type.getDisplayName() : null;
+        this.celebrationDate = celebrationDate;
+        this.parishName = parishName;
+        this.bookNumber = bookNumber;
+        this.pageNumber = pageNumber;
+        this.entryNumber = entryNumber;
+        this.officiantMinisterName = officiantMinisterName;
+        this.godfather1Name = godfather1Name;
+        this.godfather2Name = godfather2Name;
+        this.spouseName = spouseName;
+    }
+}
@@ -0,0 +1,20 @@
+package com.sgp.sacrament.dto;
+
+import com.sgp.sacrament.enums.SacramentType;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class SacramentEligibilityRequest {
+
+    @NotNull(message = "El tipo de sacramento es obligatorio.")
+    private SacramentType type;
+
+    @NotEmpty(message = "Debe indicar al menos una persona.")
+    @Size(max = 5000, message = "No se pueden comprobar más de 5000 personas a la vez.")
+    private List<Long> personIds;
+}
@@ -0,0 +1,14 @@
+package com.sgp.sacrament.dto;
+
+import lombok.Value;
+
+/**
+ * Resultado de la comprobación de requisitos de una persona para recibir un sacramento.
+ */
+@Value
+public class SacramentEligibilityResponse {
+
+    Long personId;
+    boolean eligible;
+    String reason; // null si cumple los requisitos
+}
@@ -1,6 +1,7 @@
 package com.sgp.sacrament.dto;
 
 import com.sgp.sacrament.enums.SacramentType;
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PastOrPresent;
@@ -27,12 +28,13 @@ public class SacramentRequest {
     @NotBlank(message = "El número de libro es obligatorio.")
     private String bookNumber;
 
-    @NotBlank(message = "El número de página es obligatorio.")
     private String pageNumber;
 
-    @NotBlank(message = "El número de acta es obligatorio.")
     private String entryNumber;
 
+    // Si es true, la página y el número de acta se asignan automáticamente según el libro.
+    private boolean autoNumbering;
+
     private String notes;
 
     // --- SacramentDetail Fields ---
@@ -59,4 +61,10 @@ public class SacramentRequest {
 
     private String spouseFatherNameText; // Padre del cónyuge 2
     private String spouseMotherNameText; // Madre del cónyuge 2
-}
\ No newline at end of file
+
+    @AssertTrue(message = "El número de página y el número de acta son obligatorios si no se usa la numeración automática.")
+    public boolean isActaNumberProvided() {
+        return autoNumbering || (pageNumber != null && !pageNumber.isBlank()
+                && entryNumber != null && !entryNumber.isBlank());
+    }
+}
@@ -27,6 +27,10 @@ public class SacramentResponse {
     private String entryNumber;
     private String notes;
 
+    // Concurrencia optimista: el ETag del registro es "version.detailVersion"
+    private Long version;
+    private Long detailVersion;
+
     // Detalles Adicionales (SacramentDetail)
     private SacramentDetailResponse detail;
 
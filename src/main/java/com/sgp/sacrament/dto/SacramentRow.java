@@ -0,0 +1,43 @@
+package com.sgp.sacrament.dto;
+
+import com.sgp.sacrament.enums.SacramentType;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * Fila plana con exactamente las columnas que necesita SacramentResponse.
+ * Se obtiene con una proyección JPQL (una consulta por página, sin cargas perezosas)
+ * y se convierte con SacramentMapper.toResponse(SacramentRow).
+ */
+@Value
+public class SacramentRow {
+
+    Long id;
+    SacramentType type;
+    Long personId;
+    String personFullName;
+    LocalDate celebrationDate;
+    String parishName;
+    String bookNumber;
+    String pageNumber;
+    String entryNumber;
+    String notes;
+    Long version;
+
+    // --- Detalle (todos null si el sacramento no tiene detalle) ---
+    Long detailId;
+    Long detailVersion;
+    String officiantMinisterName;
+    String godfather1Name;
+    String godfather2Name;
+    String originParishName;
+    String originDioceseName;
+    String fatherNameText;
+    String motherNameText;
+    String spouseName;
+    String spouseFatherNameText;
+    String spouseMotherNameText;
+    String witness1Name;
+    String witness2Name;
+}
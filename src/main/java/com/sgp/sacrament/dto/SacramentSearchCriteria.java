@@ -0,0 +1,41 @@
+package com.sgp.sacrament.dto;
+
+import com.sgp.sacrament.enums.SacramentType;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Filtros opcionales de la búsqueda de sacramentos (parámetros de GET /api/v1/sacraments).
+ * Todos los filtros indicados se combinan con AND.
+ */
+@Data
+public class SacramentSearchCriteria {
+
+    private SacramentType type;
+
+    private Long parishId;
+
+    private Long personId; // Persona receptora
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate celebrationDateFrom; // Inclusive
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate celebrationDateTo; // Inclusive
+
+    private String bookNumber;
+
+    private Long ministerId; // Ministro oficiante
+
+    private String recipientName; // Prefijo del nombre y/o apellido del receptor
+
+    public boolean isEmpty() {
+        return type == null && parishId == null && personId == null
+                && celebrationDateFrom == null && celebrationDateTo == null
+                && (bookNumber == null || bookNumber.isBlank())
+                && ministerId == null
+                && (recipientName == null || recipientName.isBlank());
+    }
+}
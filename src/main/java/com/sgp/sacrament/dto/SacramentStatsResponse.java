@@ -0,0 +1,28 @@
+package com.sgp.sacrament.dto;
+
+import com.sgp.sacrament.enums.SacramentType;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO para los informes parroquiales: número de sacramentos activos por año y tipo.
+ */
+@Value
+@Builder
+public class SacramentStatsResponse {
+
+    Long parishId; // null cuando son los totales de todas las parroquias
+    int fromYear;
+    int toYear;
+    List<YearStats> years; // Solo los años con registros, del más reciente al más antiguo
+
+    @Value
+    public static class YearStats {
+        int year;
+        Map<SacramentType, Long> counts;
+        long total;
+    }
+}
@@ -0,0 +1,21 @@
+package com.sgp.sacrament.enums;
+
+import lombok.Getter;
+
+/**
+ * Papel de una persona en un sacramento (receptor o participante registrado en el detalle).
+ */
+@Getter
+public enum SacramentRole {
+    RECIPIENT("Receptor"),
+    MINISTER("Ministro"),
+    GODPARENT("Padrino/Madrina"),
+    SPOUSE("Cónyuge"),
+    WITNESS("Testigo");
+
+    private final String displayName;
+
+    SacramentRole(String displayName) {
+        this.displayName = displayName;
+    }
+}
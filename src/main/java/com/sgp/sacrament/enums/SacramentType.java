@@ -18,4 +18,12 @@ public enum SacramentType {
         this.displayName = displayName;
         this.level = level;
     }
+
+    /**
+     * Bit del tipo en la máscara de sacramentos recibidos de una persona (Person.sacramentMask).
+     * Depende del orden de declaración: los tipos nuevos deben añadirse al final.
+     */
+    public int bit() {
+        return 1 << ordinal();
+    }
 }
\ No newline at end of file
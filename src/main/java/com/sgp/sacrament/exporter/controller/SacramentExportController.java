@@ -0,0 +1,48 @@
+package com.sgp.sacrament.exporter.controller;
+
+import com.sgp.sacrament.exporter.dto.SacramentExportFilter;
+import com.sgp.sacrament.exporter.service.SacramentExportService;
+import com.sgp.sacrament.exporter.service.SacramentExportWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@RequestMapping("/api/v1/sacraments/export")
+@RequiredArgsConstructor
+public class SacramentExportController {
+
+    private final SacramentExportService sacramentExportService;
+
+    /**
+     * GET /api/v1/sacraments/export?format=CSV&parishId=1&type=BAPTISM&year=2024
+     * Descarga el registro sacramental (con detalles) en CSV o JSON lines. Todos los filtros son opcionales.
+     * La respuesta se transmite mientras se lee de la base de datos, sin paginar.
+     */
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'GESTOR')")
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> exportSacraments(
+            @ModelAttribute SacramentExportFilter filter,
+            @RequestParam(defaultValue = "CSV") SacramentExportWriter.Format format) {
+        // Se valida antes de empezar a transmitir: una vez enviadas las cabeceras ya no se puede responder un error.
+        sacramentExportService.validateFilter(filter);
+
+        boolean csv = format == SacramentExportWriter.Format.CSV;
+        String filename = "sacramentos-" + (filter.getYear() != null ? filter.getYear() : "completo")
+                + (csv ? ".csv" : ".ndjson");
+
+        StreamingResponseBody body = output -> sacramentExportService.exportSacraments(filter, format, output);
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+}
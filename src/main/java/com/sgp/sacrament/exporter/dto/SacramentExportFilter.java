@@ -0,0 +1,17 @@
+package com.sgp.sacrament.exporter.dto;
+
+import com.sgp.sacrament.enums.SacramentType;
+import lombok.Data;
+
+/**
+ * Filtros opcionales de la exportación del registro sacramental.
+ */
+@Data
+public class SacramentExportFilter {
+
+    private Long parishId;
+
+    private SacramentType type;
+
+    private Integer year; // Año de celebración
+}
@@ -0,0 +1,20 @@
+package com.sgp.sacrament.exporter.service;
+
+import com.sgp.sacrament.exporter.dto.SacramentExportFilter;
+
+import java.io.OutputStream;
+
+public interface SacramentExportService {
+
+    /**
+     * Valida los filtros antes de empezar a transmitir (los errores aún pueden responderse con su código HTTP).
+     */
+    void validateFilter(SacramentExportFilter filter);
+
+    /**
+     * Transmite los sacramentos activos que cumplen los filtros, con sus detalles, en el formato indicado.
+     * Lee con un cursor JDBC de solo avance y escribe cada fila al vuelo (memoria constante).
+     * @return Número de filas exportadas.
+     */
+    long exportSacraments(SacramentExportFilter filter, SacramentExportWriter.Format format, OutputStream output);
+}
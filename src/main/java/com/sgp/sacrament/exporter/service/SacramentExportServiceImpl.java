@@ -0,0 +1,118 @@
+package com.sgp.sacrament.exporter.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sgp.common.exception.ResourceNotFoundException;
+import com.sgp.common.exception.ResourceValidException;
+import com.sgp.common.service.StreamingQueryService;
+import com.sgp.parish.repository.ParishRepository;
+import com.sgp.sacrament.exporter.dto.SacramentExportFilter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SacramentExportServiceImpl implements SacramentExportService {
+
+    private static final String RESOURCE_PARISH = "Parroquia";
+
+    // Rol -> alias de la tabla persons en la consulta (mismos prefijos de columna que la importación).
+    private static final String[][] PERSON_ROLES = {
+            {"recipient", "p"}, {"minister", "m"}, {"godfather1", "g1"}, {"godfather2", "g2"},
+            {"spouse", "sp"}, {"witness1", "w1"}, {"witness2", "w2"}
+    };
+
+    private static final List<String> COLUMNS;
+    private static final String SELECT;
+
+    static {
+        List<String> columns = new ArrayList<>(List.of("id", "parishName", "type", "celebrationDate",
+                "bookNumber", "pageNumber", "entryNumber", "notes", "originParishName", "originDioceseName",
+                "fatherNameText", "motherNameText", "spouseFatherNameText", "spouseMotherNameText"));
+        StringBuilder select = new StringBuilder("SELECT s.id, pa.name, s.sacrament_type, s.celebration_date, " +
+                "s.book_number, s.page_number, s.entry_number, s.notes, d.origin_parish_name, d.origin_diocese_name, " +
+                "d.father_name_text, d.mother_name_text, d.spouse_father_name_text, d.spouse_mother_name_text");
+        for (String[] role : PERSON_ROLES) {
+            String prefix = role[0];
+            String alias = role[1];
+            columns.addAll(List.of(prefix + "IdType", prefix + "IdNumber", prefix + "FirstName",
+                    prefix + "LastName", prefix + "BirthDate"));
+            select.append(", ").append(alias).append(".identification_type, ").append(alias).append(".identification_number, ")
+                    .append(alias).append(".first_name, ").append(alias).append(".last_name, ").append(alias).append(".birth_date");
+        }
+        select.append(" FROM sacraments s JOIN parishes pa ON pa.id = s.parish_id JOIN persons p ON p.id = s.person_id " +
+                "LEFT JOIN sacrament_details d ON d.sacrament_id = s.id " +
+                "LEFT JOIN persons m ON m.id = d.officiant_minister_id " +
+                "LEFT JOIN persons g1 ON g1.id = d.godfather_1_id LEFT JOIN persons g2 ON g2.id = d.godfather_2_id " +
+                "LEFT JOIN persons sp ON sp.id = d.spouse_id " +
+                "LEFT JOIN persons w1 ON w1.id = d.witness_1_id LEFT JOIN persons w2 ON w2.id = d.witness_2_id " +
+                "WHERE s.is_active = true");
+        COLUMNS = List.copyOf(columns);
+        SELECT = select.toString();
+    }
+
+    private final StreamingQueryService streamingQueryService;
+    private final ObjectMapper objectMapper;
+    private final ParishRepository parishRepository;
+
+    @Value("${app.sacraments.export.fetch-size:1000}")
+    private int fetchSize;
+
+    @Override
+    public void validateFilter(SacramentExportFilter filter) {
+        if (filter.getParishId() != null && !parishRepository.existsById(filter.getParishId())) {
+            throw new ResourceNotFoundException(RESOURCE_PARISH, "ID", filter.getParishId());
+        }
+        if (filter.getYear() != null && (filter.getYear() < 1 || filter.getYear() > 9999)) {
+            throw new ResourceValidException("El año de exportación no es válido: " + filter.getYear());
+        }
+    }
+
+    @Override
+    public long exportSacraments(SacramentExportFilter filter, SacramentExportWriter.Format format, OutputStream output) {
+        StringBuilder sql = new StringBuilder(SELECT);
+        List<Object> args = new ArrayList<>();
+        if (filter.getParishId() != null) {
+            sql.append(" AND s.parish_id = ?");
+            args.add(filter.getParishId());
+        }
+        if (filter.getType() != null) {
+            sql.append(" AND s.sacrament_type = ?");
+            args.add(filter.getType().name());
+        }
+        if (filter.getYear() != null) {
+            // Rango semiabierto sobre la columna (no EXTRACT) para que use los índices por fecha.
+            sql.append(" AND s.celebration_date >= ? AND s.celebration_date < ?");
+            args.add(Date.valueOf(LocalDate.of(filter.getYear(), 1, 1)));
+            args.add(Date.valueOf(LocalDate.of(filter.getYear() + 1, 1, 1)));
+        }
+        sql.append(" ORDER BY s.celebration_date, s.id");
+
+        long start = System.currentTimeMillis();
+        try (SacramentExportWriter writer = new SacramentExportWriter(output, format, COLUMNS, objectMapper)) {
+            writer.writeHeader();
+            streamingQueryService.query(sql.toString(), fetchSize, rs -> {
+                String[] values = new String[COLUMNS.size()];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = rs.getString(i + 1);
+                }
+                writer.writeRow(values);
+            }, args.toArray());
+
+            log.info("Exportación de sacramentos ({}): {} filas en {} ms.", format, writer.getRows(), System.currentTimeMillis() - start);
+            return writer.getRows();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir la exportación de sacramentos.", e);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.sgp.sacrament.exporter.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Escribe filas de la exportación de forma incremental en CSV (RFC 4180) o JSON lines.
+ * Cada fila se escribe y se descarta: la memoria usada no depende del número de filas.
+ * Las columnas coinciden con las de la importación masiva, de modo que un archivo exportado
+ * puede volver a importarse.
+ */
+public class SacramentExportWriter implements Closeable {
+
+    public enum Format { CSV, JSONL }
+
+    private static final int FLUSH_EVERY_ROWS = 500;
+
+    private final Format format;
+    private final List<String> columns;
+    private final Writer writer;
+    private final JsonGenerator json;
+    private long rows;
+
+    public SacramentExportWriter(OutputStream output, Format format, List<String> columns, ObjectMapper objectMapper) throws IOException {
+        this.format = format;
+        this.columns = columns;
+        this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        if (format == Format.JSONL) {
+            this.json = objectMapper.getFactory().createGenerator(writer);
+            this.json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.json.setRootValueSeparator(null); // Cada objeto va en su propia línea, sin separador extra
+        } else {
+            this.json = null;
+        }
+    }
+
+    public void writeHeader() {
+        if (format != Format.CSV) {
+            return;
+        }
+        try {
+            writer.write('\uFEFF'); // BOM: las hojas de cálculo detectan UTF-8 (la importación lo ignora)
+            writeCsvLine(columns.toArray(new String[0]));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Escribe una fila; los valores vienen en el mismo orden que las columnas. */
+    public void writeRow(String[] values) {
+        try {
+            if (format == Format.CSV) {
+                writeCsvLine(values);
+            } else {
+                json.writeStartObject();
+                for (int i = 0; i < columns.size(); i++) {
+                    if (values[i] != null) { // Se omiten los campos vacíos
+                        json.writeStringField(columns.get(i), values[i]);
+                    }
+                }
+                json.writeEndObject();
+                json.flush();
+                writer.write('\n');
+            }
+            // Vacía periódicamente para que el cliente reciba los datos mientras se generan.
+            if (++rows % FLUSH_EVERY_ROWS == 0) {
+                writer.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    private void writeCsvLine(String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeCsvValue(values[i]);
+        }
+        writer.write("\r\n");
+    }
+
+    private void writeCsvValue(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (json != null) {
+            json.close();
+        }
+        writer.flush();
+    }
+}
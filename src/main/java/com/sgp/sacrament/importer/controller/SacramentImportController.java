@@ -0,0 +1,53 @@
+package com.sgp.sacrament.importer.controller;
+
+import com.sgp.common.exception.ResourceValidException;
+import com.sgp.common.util.ImportFileReader;
+import com.sgp.sacrament.importer.dto.SacramentImportReport;
+import com.sgp.sacrament.importer.service.SacramentImportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/api/v1/sacraments/import")
+@RequiredArgsConstructor
+public class SacramentImportController {
+
+    private final SacramentImportService sacramentImportService;
+
+    /**
+     * POST /api/v1/sacraments/import?parishId=1 (multipart, campo "file")
+     * Importa en bloque un libro canónico digitalizado en CSV o JSON lines.
+     * El formato se toma del parámetro 'format' o de la extensión del archivo (.csv, .jsonl, .ndjson).
+     * Responde con el número de filas importadas y los errores por fila.
+     */
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'GESTOR')")
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<SacramentImportReport> importSacraments(@RequestParam("file") MultipartFile file,
+                                                                  @RequestParam Long parishId,
+                                                                  @RequestParam(required = false) ImportFileReader.Format format) throws IOException {
+        ImportFileReader.Format resolvedFormat = format != null ? format : detectFormat(file.getOriginalFilename());
+
+        try (InputStream input = file.getInputStream()) {
+            return ResponseEntity.ok(sacramentImportService.importSacraments(input, resolvedFormat, parishId));
+        }
+    }
+
+    private ImportFileReader.Format detectFormat(String filename) {
+        String name = filename != null ? filename.toLowerCase(Locale.ROOT) : "";
+        if (name.endsWith(".csv")) {
+            return ImportFileReader.Format.CSV;
+        }
+        if (name.endsWith(".jsonl") || name.endsWith(".ndjson")) {
+            return ImportFileReader.Format.JSONL;
+        }
+        throw new ResourceValidException("No se pudo determinar el formato del archivo. Use .csv, .jsonl o el parámetro 'format'.");
+    }
+}
@@ -0,0 +1,32 @@
+package com.sgp.sacrament.importer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resultado de una importación masiva de libros canónicos: totales y errores por fila.
+ */
+@Data
+@NoArgsConstructor
+public class SacramentImportReport {
+
+    private long totalRows;
+    private long importedRows;
+    private long failedRows;
+    private long personsCreated;
+    private boolean errorsTruncated; // true si se superó el máximo de errores detallados
+    private List<RowError> errors = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long line;     // Línea del archivo donde empieza el registro
+        private String acta;   // "libro/página/acta" si se pudo leer
+        private String message;
+    }
+}
@@ -0,0 +1,62 @@
+package com.sgp.sacrament.importer.dto;
+
+import com.sgp.sacrament.enums.SacramentType;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * Fila ya interpretada de un archivo de importación (CSV o JSON lines).
+ * Las personas se identifican por tipo y número de identificación; se crean si no existen.
+ */
+@Data
+public class SacramentImportRow {
+
+    private long line;
+
+    private SacramentType type;
+    private LocalDate celebrationDate;
+    private String bookNumber;
+    private String pageNumber;
+    private String entryNumber;
+    private String notes;
+
+    // --- Personas (recipient obligatorio, el resto opcional) ---
+    private PersonRef recipient;
+    private PersonRef minister;
+    private PersonRef godfather1;
+    private PersonRef godfather2;
+    private PersonRef spouse;
+    private PersonRef witness1;
+    private PersonRef witness2;
+
+    // --- Detalle en texto libre ---
+    private String originParishName;
+    private String originDioceseName;
+    private String fatherNameText;
+    private String motherNameText;
+    private String spouseFatherNameText;
+    private String spouseMotherNameText;
+
+    public String actaKey() {
+        return bookNumber + "/" + pageNumber + "/" + entryNumber;
+    }
+
+    @Data
+    public static class PersonRef {
+        private String identificationType;
+        private String identificationNumber;
+        private String firstName;
+        private String lastName;
+        private LocalDate birthDate;
+
+        /** Clave de resolución: tipo + número de identificación. */
+        public String key() {
+            return identificationType + "|" + identificationNumber;
+        }
+
+        public boolean canBeCreated() {
+            return firstName != null && lastName != null;
+        }
+    }
+}
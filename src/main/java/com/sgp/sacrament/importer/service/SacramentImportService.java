@@ -0,0 +1,20 @@
+package com.sgp.sacrament.importer.service;
+
+import com.sgp.common.util.ImportFileReader;
+import com.sgp.sacrament.importer.dto.SacramentImportReport;
+
+import java.io.InputStream;
+
+public interface SacramentImportService {
+
+    /**
+     * Importa un libro canónico (CSV o JSON lines) a una parroquia, procesándolo por lotes en streaming.
+     * Cada lote se guarda en su propia transacción; las filas inválidas se informan sin detener la importación.
+     *
+     * @param input Contenido del archivo.
+     * @param format Formato del archivo.
+     * @param parishId Parroquia a la que pertenecen los registros.
+     * @return Reporte con totales y errores por fila.
+     */
+    SacramentImportReport importSacraments(InputStream input, ImportFileReader.Format format, Long parishId);
+}
@@ -0,0 +1,359 @@
+package com.sgp.sacrament.importer.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sgp.common.cache.PersonPageCache;
+import com.sgp.common.exception.ResourceNotFoundException;
+import com.sgp.common.util.ImportFileReader;
+import com.sgp.common.util.SecurityUtil;
+import com.sgp.parish.repository.ParishRepository;
+import com.sgp.person.search.PersonAutocompleteIndex;
+import com.sgp.person.search.PersonNameIndex;
+import com.sgp.sacrament.enums.SacramentType;
+import com.sgp.sacrament.importer.dto.SacramentImportReport;
+import com.sgp.sacrament.importer.dto.SacramentImportRow;
+import com.sgp.sacrament.importer.dto.SacramentImportRow.PersonRef;
+import com.sgp.sacrament.relationship.service.SacramentRelationshipIndex;
+import com.sgp.sacrament.service.ActaBloomFilter;
+import com.sgp.sacrament.service.ActaNumberAllocator;
+import com.sgp.sacrament.service.SacramentEligibilityService;
+import com.sgp.sacrament.service.SacramentStatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Importación masiva de libros canónicos.
+ *
+ * El archivo se lee en streaming y se procesa en lotes: por cada lote se validan las actas contra
+ * las ya vistas en el archivo (en memoria) y contra la base de datos (una consulta), se resuelven
+ * las personas por identificación (una consulta + un batch de INSERT para las nuevas) y se insertan
+ * sacramentos y detalles con batches JDBC. La memoria usada depende del tamaño del lote, no del archivo
+ * (salvo el conjunto de claves de acta ya vistas). Tras cada lote se adelanta la numeración automática
+ * de los libros importados para que las actas nuevas no choquen con las históricas.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SacramentImportServiceImpl implements SacramentImportService {
+
+    private static final String RESOURCE_PARISH = "Parroquia";
+    private static final String[] PERSON_ROLES = {"recipient", "minister", "godfather1", "godfather2", "spouse", "witness1", "witness2"};
+
+    private final SacramentImportWriter importWriter;
+    private final ParishRepository parishRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final PersonPageCache personPageCache;
+    private final ObjectMapper objectMapper;
+    private final ActaBloomFilter actaBloomFilter;
+    private final SacramentStatsService sacramentStatsService;
+    private final SacramentRelationshipIndex relationshipIndex;
+    private final PersonNameIndex personNameIndex;
+    private final PersonAutocompleteIndex personAutocompleteIndex;
+    private final SacramentEligibilityService eligibilityService;
+    private final ActaNumberAllocator actaNumberAllocator;
+
+    @Value("${app.sacraments.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.sacraments.import.max-reported-errors:5000}")
+    private int maxReportedErrors;
+
+    @Override
+    public SacramentImportReport importSacraments(InputStream input, ImportFileReader.Format format, Long parishId) {
+        if (!parishRepository.existsById(parishId)) {
+            throw new ResourceNotFoundException(RESOURCE_PARISH, "ID", parishId);
+        }
+
+        ImportContext context = new ImportContext(parishId, SecurityUtil.getCurrentAuditor());
+        SacramentImportReport report = new SacramentImportReport();
+        Set<String> seenActas = new HashSet<>();
+        Map<String, Long> knownPersons = new HashMap<>(); // Caché de identificación -> ID durante la importación
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        try (ImportFileReader reader = new ImportFileReader(input, format, objectMapper)) {
+            List<SacramentImportRow> batch = new ArrayList<>(batchSize);
+            ImportFileReader.ImportRecord record;
+            while ((record = reader.next()) != null) {
+                report.setTotalRows(report.getTotalRows() + 1);
+                if (record.error() != null) {
+                    addError(report, record.line(), null, record.error());
+                    continue;
+                }
+                try {
+                    batch.add(toRow(record));
+                } catch (IllegalArgumentException e) {
+                    addError(report, record.line(), null, e.getMessage());
+                    continue;
+                }
+                if (batch.size() >= batchSize) {
+                    processBatch(batch, context, seenActas, knownPersons, report, transactionTemplate);
+                    batch.clear();
+                }
+            }
+            processBatch(batch, context, seenActas, knownPersons, report, transactionTemplate);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer el archivo de importación.", e);
+        }
+
+        log.info("Importación en la parroquia {}: {} filas, {} importadas, {} con error, {} personas creadas.",
+                parishId, report.getTotalRows(), report.getImportedRows(), report.getFailedRows(), report.getPersonsCreated());
+        return report;
+    }
+
+    // --- PROCESAMIENTO POR LOTE ---
+
+    /** Parroquia destino y usuario que registra la importación (columnas created_by / updated_by). */
+    private record ImportContext(Long parishId, String auditor) {
+    }
+
+    private void processBatch(List<SacramentImportRow> batch, ImportContext context, Set<String> seenActas,
+                              Map<String, Long> knownPersons, SacramentImportReport report,
+                              TransactionTemplate transactionTemplate) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Long parishId = context.parishId();
+
+        // 1. Actas duplicadas dentro del mismo archivo (en memoria).
+        List<SacramentImportRow> candidates = new ArrayList<>();
+        for (SacramentImportRow row : batch) {
+            if (!seenActas.add(row.actaKey())) {
+                addError(report, row.getLine(), row.actaKey(), "Acta duplicada dentro del archivo.");
+            } else {
+                candidates.add(row);
+            }
+        }
+
+        Map<String, Long> createdInBatch = new HashMap<>();
+        List<SacramentImportReport.RowError> rowErrors = new ArrayList<>(); // Solo se publican si el lote se confirma
+        try {
+            List<SacramentImportRow> imported = transactionTemplate.execute(status -> {
+                // 2. Actas ya registradas en la base de datos (una consulta por lote, solo para las que
+                //    el filtro de Bloom no puede descartar).
+                Set<String> existingActas = importWriter.findExistingActas(candidates.stream()
+                        .filter(row -> actaBloomFilter.mightContain(row.getBookNumber(), row.getPageNumber(), row.getEntryNumber()))
+                        .toList());
+                List<SacramentImportRow> rows = new ArrayList<>();
+                for (SacramentImportRow row : candidates) {
+                    if (existingActas.contains(row.actaKey())) {
+                        rowErrors.add(new SacramentImportReport.RowError(row.getLine(), row.actaKey(), "El acta ya está registrada."));
+                    } else {
+                        rows.add(row);
+                    }
+                }
+
+                // 3. Resolver personas por identificación; crear las que no existen (si traen nombre).
+                Map<String, PersonRef> unresolved = new LinkedHashMap<>();
+                rows.forEach(row -> personRefs(row).filter(ref -> !knownPersons.containsKey(ref.key()))
+                        .forEach(ref -> unresolved.putIfAbsent(ref.key(), ref)));
+                Map<String, Long> found = importWriter.findPersonIds(unresolved.values());
+                knownPersons.putAll(found);
+                found.keySet().forEach(unresolved::remove);
+
+                List<SacramentImportRow> insertable = new ArrayList<>();
+                for (SacramentImportRow row : rows) {
+                    String missing = personRefs(row)
+                            .filter(ref -> unresolved.containsKey(ref.key()) && !ref.canBeCreated())
+                            .map(PersonRef::key)
+                            .findFirst().orElse(null);
+                    if (missing != null) {
+                        rowErrors.add(new SacramentImportReport.RowError(row.getLine(), row.actaKey(),
+                                "La persona con identificación " + missing.replace("|", " ") + " no existe y no se indicó su nombre."));
+                    } else {
+                        insertable.add(row);
+                    }
+                }
+
+                Map<String, PersonRef> toCreate = new LinkedHashMap<>();
+                insertable.forEach(row -> personRefs(row).filter(ref -> unresolved.containsKey(ref.key()))
+                        .forEach(ref -> toCreate.putIfAbsent(ref.key(), ref)));
+                Map<String, Long> created = importWriter.insertPersons(toCreate.values(), parishId, context.auditor());
+                toCreate.values().forEach(ref -> {
+                    Long personId = created.get(ref.key());
+                    personNameIndex.onPersonSaved(personId, parishId, ref.getFirstName(), ref.getLastName());
+                    personAutocompleteIndex.onPersonSaved(personId, parishId, ref.getFirstName(), ref.getLastName(),
+                            ref.getBirthDate());
+                });
+                createdInBatch.putAll(created);
+
+                Map<String, Long> personIds = new HashMap<>(knownPersons);
+                personIds.putAll(createdInBatch);
+
+                // 4. Sacramentos + detalles en batch.
+                List<Long> sacramentIds = importWriter.insertSacraments(insertable, parishId, personIds, context.auditor());
+                Function<PersonRef, Long> idOf = ref -> ref != null ? personIds.get(ref.key()) : null;
+                List<SacramentRelationshipIndex.SacramentEdges> edges = new ArrayList<>(insertable.size());
+                for (int i = 0; i < insertable.size(); i++) {
+                    SacramentImportRow row = insertable.get(i);
+                    edges.add(SacramentRelationshipIndex.SacramentEdges.of(sacramentIds.get(i), row.getType(), parishId,
+                            row.getCelebrationDate(), idOf.apply(row.getRecipient()), idOf.apply(row.getMinister()),
+                            idOf.apply(row.getGodfather1()), idOf.apply(row.getGodfather2()), idOf.apply(row.getSpouse()),
+                            idOf.apply(row.getWitness1()), idOf.apply(row.getWitness2())));
+                }
+                relationshipIndex.onSacramentsSaved(edges);
+                // Libros históricos: no se validan requisitos (el orden de las actas es arbitrario), solo se recalculan las máscaras.
+                eligibilityService.recompute(insertable.stream()
+                        .flatMap(row -> Stream.of(row.getRecipient(), row.getType() == SacramentType.MATRIMONY ? row.getSpouse() : null))
+                        .map(idOf)
+                        .filter(Objects::nonNull)
+                        .toList());
+                sacramentStatsService.recordCreated(insertable.stream()
+                        .map(row -> SacramentStatsService.RollupKey.of(parishId, row.getType(), row.getCelebrationDate()))
+                        .toList());
+                insertable.forEach(row -> actaBloomFilter.put(row.getBookNumber(), row.getPageNumber(), row.getEntryNumber()));
+                // La numeración automática continúa después de las actas importadas (un UPDATE por libro del lote,
+                // en orden para que dos importaciones simultáneas no se bloqueen mutuamente).
+                insertable.stream().map(SacramentImportRow::getBookNumber).distinct().sorted()
+                        .forEach(actaNumberAllocator::advancePastExisting);
+                insertable.forEach(row -> personPageCache.invalidate(PersonPageCache.AREA_SACRAMENTS,
+                        personIds.get(row.getRecipient().key())));
+                return insertable;
+            });
+
+            knownPersons.putAll(createdInBatch);
+            rowErrors.forEach(error -> addError(report, error.getLine(), error.getActa(), error.getMessage()));
+            report.setPersonsCreated(report.getPersonsCreated() + createdInBatch.size());
+            report.setImportedRows(report.getImportedRows() + imported.size());
+        } catch (RuntimeException e) {
+            // El lote completo se revierte: se informa en cada fila y se liberan sus actas para no dar falsos duplicados.
+            String cause = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            log.warn("Error al guardar un lote de la importación: {}", cause);
+            for (SacramentImportRow row : candidates) {
+                seenActas.remove(row.actaKey());
+                addError(report, row.getLine(), row.actaKey(), "Error al guardar el lote: " + cause);
+            }
+        }
+    }
+
+    private static Stream<PersonRef> personRefs(SacramentImportRow row) {
+        return Stream.of(row.getRecipient(), row.getMinister(), row.getGodfather1(), row.getGodfather2(),
+                        row.getSpouse(), row.getWitness1(), row.getWitness2())
+                .filter(Objects::nonNull);
+    }
+
+    private void addError(SacramentImportReport report, long line, String acta, String message) {
+        report.setFailedRows(report.getFailedRows() + 1);
+        if (report.getErrors().size() < maxReportedErrors) {
+            report.getErrors().add(new SacramentImportReport.RowError(line, acta, message));
+        } else {
+            report.setErrorsTruncated(true);
+        }
+    }
+
+    // --- INTERPRETACIÓN DE FILAS ---
+
+    private SacramentImportRow toRow(ImportFileReader.ImportRecord record) {
+        Map<String, String> values = record.values();
+        SacramentImportRow row = new SacramentImportRow();
+        row.setLine(record.line());
+
+        String type = required(values, "type");
+        try {
+            row.setType(SacramentType.valueOf(type.toUpperCase()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Tipo de sacramento desconocido: " + type);
+        }
+        row.setCelebrationDate(date(values, "celebrationDate", true));
+        if (row.getCelebrationDate().isAfter(LocalDate.now())) {
+            throw new IllegalArgumentException("La fecha de celebración no puede ser futura.");
+        }
+        row.setBookNumber(required(values, "bookNumber"));
+        row.setPageNumber(required(values, "pageNumber"));
+        row.setEntryNumber(required(values, "entryNumber"));
+        row.setNotes(optional(values, "notes"));
+
+        row.setRecipient(personRef(values, PERSON_ROLES[0]));
+        if (row.getRecipient() == null) {
+            throw new IllegalArgumentException("La identificación de la persona receptora (recipientIdType, recipientIdNumber) es obligatoria.");
+        }
+        row.setMinister(personRef(values, PERSON_ROLES[1]));
+        row.setGodfather1(personRef(values, PERSON_ROLES[2]));
+        row.setGodfather2(personRef(values, PERSON_ROLES[3]));
+        row.setSpouse(personRef(values, PERSON_ROLES[4]));
+        row.setWitness1(personRef(values, PERSON_ROLES[5]));
+        row.setWitness2(personRef(values, PERSON_ROLES[6]));
+
+        row.setOriginParishName(optional(values, "originParishName"));
+        row.setOriginDioceseName(optional(values, "originDioceseName"));
+        row.setFatherNameText(optional(values, "fatherNameText"));
+        row.setMotherNameText(optional(values, "motherNameText"));
+        row.setSpouseFatherNameText(optional(values, "spouseFatherNameText"));
+        row.setSpouseMotherNameText(optional(values, "spouseMotherNameText"));
+        return row;
+    }
+
+    // Columnas de una persona: <rol>IdType, <rol>IdNumber, <rol>FirstName, <rol>LastName, <rol>BirthDate.
+    private PersonRef personRef(Map<String, String> values, String role) {
+        String idType = optional(values, role + "IdType");
+        String idNumber = optional(values, role + "IdNumber");
+        String firstName = optional(values, role + "FirstName");
+        String lastName = optional(values, role + "LastName");
+
+        if (idType == null && idNumber == null) {
+            if (firstName != null || lastName != null) {
+                throw new IllegalArgumentException("Falta la identificación (" + role + "IdType, " + role + "IdNumber) de la persona '" + role + "'.");
+            }
+            return null;
+        }
+        if (idType == null || idNumber == null) {
+            throw new IllegalArgumentException("La identificación de '" + role + "' requiere tipo y número.");
+        }
+
+        PersonRef ref = new PersonRef();
+        ref.setIdentificationType(idType);
+        ref.setIdentificationNumber(idNumber);
+        ref.setFirstName(firstName);
+        ref.setLastName(lastName);
+        ref.setBirthDate(date(values, role + "BirthDate", false));
+        return ref;
+    }
+
+    private static String optional(Map<String, String> values, String column) {
+        String value = values.get(column);
+        if (value == null) {
+            return null;
+        }
+        value = value.trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String required(Map<String, String> values, String column) {
+        String value = optional(values, column);
+        if (value == null) {
+            throw new IllegalArgumentException("La columna '" + column + "' es obligatoria.");
+        }
+        return value;
+    }
+
+    private static LocalDate date(Map<String, String> values, String column, boolean required) {
+        String value = required ? required(values, column) : optional(values, column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Fecha inválida en '" + column + "' (formato esperado yyyy-MM-dd): " + value);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.sgp.sacrament.importer.service;
+
+import com.sgp.person.search.PersonNameNormalizer;
+import com.sgp.sacrament.importer.dto.SacramentImportRow;
+import com.sgp.sacrament.importer.dto.SacramentImportRow.PersonRef;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Acceso JDBC de la importación masiva: consultas por lote y INSERTs en batch.
+ * Se salta JPA a propósito (sin contexto de persistencia ni un INSERT por entidad),
+ * por lo que rellena a mano las columnas de auditoría (fechas y usuario) y versión.
+ */
+@Component
+@RequiredArgsConstructor
+public class SacramentImportWriter {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    // --- CONSULTAS POR LOTE ---
+
+    /**
+     * IDs de las personas existentes para las claves dadas (tipo|número de identificación).
+     */
+    public Map<String, Long> findPersonIds(Collection<PersonRef> refs) {
+        Map<String, Long> ids = new HashMap<>();
+        if (refs.isEmpty()) {
+            return ids;
+        }
+        List<Object[]> keys = refs.stream()
+                .map(ref -> new Object[]{ref.getIdentificationType(), ref.getIdentificationNumber()})
+                .toList();
+
+        jdbcTemplate.query("SELECT id, identification_type, identification_number FROM persons " +
+                        "WHERE (identification_type, identification_number) IN (:keys)",
+                new MapSqlParameterSource("keys", keys),
+                rs -> {
+                    ids.put(rs.getString("identification_type") + "|" + rs.getString("identification_number"), rs.getLong("id"));
+                });
+        return ids;
+    }
+
+    /**
+     * Actas (libro/página/acta) del lote que ya existen en la base de datos.
+     */
+    public Set<String> findExistingActas(Collection<SacramentImportRow> rows) {
+        Set<String> existing = new HashSet<>();
+        if (rows.isEmpty()) {
+            return existing;
+        }
+        List<Object[]> keys = rows.stream()
+                .map(row -> new Object[]{row.getBookNumber(), row.getPageNumber(), row.getEntryNumber()})
+                .toList();
+
+        jdbcTemplate.query("SELECT book_number, page_number, entry_number FROM sacraments " +
+                        "WHERE (book_number, page_number, entry_number) IN (:keys)",
+                new MapSqlParameterSource("keys", keys),
+                rs -> {
+                    existing.add(rs.getString(1) + "/" + rs.getString(2) + "/" + rs.getString(3));
+                });
+        return existing;
+    }
+
+    // --- INSERTS EN BATCH ---
+
+    /**
+     * Inserta las personas nuevas y devuelve sus IDs por clave.
+     */
+    public Map<String, Long> insertPersons(Collection<PersonRef> refs, Long parishId, String auditor) {
+        Map<String, Long> ids = new HashMap<>();
+        if (refs.isEmpty()) {
+            return ids;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<PersonRef> ordered = new ArrayList<>(refs);
+        SqlParameterSource[] batch = ordered.stream()
+                .map(ref -> new MapSqlParameterSource()
+                        .addValue("firstName", ref.getFirstName())
+                        .addValue("lastName", ref.getLastName())
+                        .addValue("firstNameNorm", PersonNameNormalizer.normalize(ref.getFirstName()))
+                        .addValue("lastNameNorm", PersonNameNormalizer.normalize(ref.getLastName()))
+                        .addValue("birthDate", ref.getBirthDate())
+                        .addValue("identificationType", ref.getIdentificationType())
+                        .addValue("identificationNumber", ref.getIdentificationNumber())
+                        .addValue("parishId", parishId)
+                        .addValue("auditor", auditor)
+                        .addValue("now", now))
+                .toArray(SqlParameterSource[]::new);
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate("INSERT INTO persons (first_name, last_name, first_name_norm, last_name_norm, " +
+                        "birth_date, identification_type, identification_number, parish_id, is_active, created_at, updated_at, " +
+                        "created_by, updated_by) " +
+                        "VALUES (:firstName, :lastName, :firstNameNorm, :lastNameNorm, :birthDate, :identificationType, " +
+                        ":identificationNumber, :parishId, true, :now, :now, :auditor, :auditor)",
+                batch, keyHolder, new String[]{"id"});
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < ordered.size(); i++) {
+            ids.put(ordered.get(i).key(), ((Number) keys.get(i).get("id")).longValue());
+        }
+        return ids;
+    }
+
+    /**
+     * Inserta los sacramentos y sus detalles (dos batches). Devuelve los IDs generados en el orden de las filas.
+     */
+    public List<Long> insertSacraments(List<SacramentImportRow> rows, Long parishId, Map<String, Long> personIds,
+                                       String auditor) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        SqlParameterSource[] sacramentBatch = rows.stream()
+                .map(row -> new MapSqlParameterSource()
+                        .addValue("personId", personIds.get(row.getRecipient().key()))
+                        .addValue("type", row.getType().name())
+                        .addValue("celebrationDate", row.getCelebrationDate())
+                        .addValue("parishId", parishId)
+                        .addValue("bookNumber", row.getBookNumber())
+                        .addValue("pageNumber", row.getPageNumber())
+                        .addValue("entryNumber", row.getEntryNumber())
+                        .addValue("notes", row.getNotes())
+                        .addValue("auditor", auditor)
+                        .addValue("now", now))
+                .toArray(SqlParameterSource[]::new);
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate("INSERT INTO sacraments (person_id, sacrament_type, celebration_date, parish_id, " +
+                        "book_number, page_number, entry_number, notes, version, is_active, created_at, updated_at, " +
+                        "created_by, updated_by) " +
+                        "VALUES (:personId, :type, :celebrationDate, :parishId, :bookNumber, :pageNumber, " +
+                        ":entryNumber, :notes, 0, true, :now, :now, :auditor, :auditor)",
+                sacramentBatch, keyHolder, new String[]{"id"});
+
+        List<Long> sacramentIds = keyHolder.getKeyList().stream()
+                .map(key -> ((Number) key.get("id")).longValue())
+                .toList();
+
+        SqlParameterSource[] detailBatch = new SqlParameterSource[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            SacramentImportRow row = rows.get(i);
+            detailBatch[i] = new MapSqlParameterSource()
+                    .addValue("sacramentId", sacramentIds.get(i))
+                    .addValue("ministerId", idOf(row.getMinister(), personIds))
+                    .addValue("godfather1Id", idOf(row.getGodfather1(), personIds))
+                    .addValue("godfather2Id", idOf(row.getGodfather2(), personIds))
+                    .addValue("spouseId", idOf(row.getSpouse(), personIds))
+                    .addValue("witness1Id", idOf(row.getWitness1(), personIds))
+                    .addValue("witness2Id", idOf(row.getWitness2(), personIds))
+                    .addValue("originParishName", row.getOriginParishName())
+                    .addValue("originDioceseName", row.getOriginDioceseName())
+                    .addValue("fatherNameText", row.getFatherNameText())
+                    .addValue("motherNameText", row.getMotherNameText())
+                    .addValue("spouseFatherNameText", row.getSpouseFatherNameText())
+                    .addValue("spouseMotherNameText", row.getSpouseMotherNameText())
+                    .addValue("auditor", auditor)
+                    .addValue("now", now);
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO sacrament_details (sacrament_id, officiant_minister_id, godfather_1_id, " +
+                        "godfather_2_id, spouse_id, witness_1_id, witness_2_id, origin_parish_name, origin_diocese_name, " +
+                        "father_name_text, mother_name_text, spouse_father_name_text, spouse_mother_name_text, " +
+                        "version, is_active, created_at, updated_at, created_by, updated_by) " +
+                        "VALUES (:sacramentId, :ministerId, :godfather1Id, :godfather2Id, :spouseId, :witness1Id, " +
+                        ":witness2Id, :originParishName, :originDioceseName, :fatherNameText, :motherNameText, " +
+                        ":spouseFatherNameText, :spouseMotherNameText, 0, true, :now, :now, :auditor, :auditor)",
+                detailBatch);
+
+        return sacramentIds;
+    }
+
+    private static Long idOf(PersonRef ref, Map<String, Long> personIds) {
+        return ref != null ? personIds.get(ref.key()) : null;
+    }
+}
@@ -0,0 +1,48 @@
+package com.sgp.sacrament.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Secuencia de numeración de actas de un libro canónico.
+ * Guarda la última página y acta asignadas; ActaNumberAllocator la avanza con un UPDATE atómico.
+ * Su alcance es el libro, igual que el índice único de actas (uc_sacrament_acta: libro, página, acta).
+ */
+@Entity
+@Table(name = "acta_book_sequences", uniqueConstraints = {
+        @UniqueConstraint(name = "uc_acta_book_sequence_book", columnNames = {"book_number"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ActaSequence {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "book_number", nullable = false)
+    private String bookNumber;
+
+    /** Última página usada (la página actual). */
+    @Column(name = "last_page", nullable = false)
+    private int lastPage;
+
+    /** Último número de acta asignado en el libro. */
+    @Column(name = "last_entry", nullable = false)
+    private int lastEntry;
+
+    /** Actas ya escritas en la página actual. */
+    @Column(name = "entries_on_page", nullable = false)
+    private int entriesOnPage;
+
+    /** Actas que caben en cada página del libro. */
+    @Column(name = "entries_per_page", nullable = false)
+    private int entriesPerPage;
+}
@@ -10,7 +10,17 @@ import lombok.*;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "sacraments")
+@Table(name = "sacraments", uniqueConstraints = {
+        // Un acta (libro, página, número) identifica un único registro canónico.
+        // Su índice también sirve al filtro por número de libro de la búsqueda.
+        @UniqueConstraint(name = Sacrament.ACTA_CONSTRAINT, columnNames = {"book_number", "page_number", "entry_number"})
+}, indexes = {
+        // Índices de la búsqueda multicriterio (SacramentSpecifications), ordenada por fecha de celebración.
+        @Index(name = "idx_sacraments_type_date", columnList = "sacrament_type, celebration_date"),
+        @Index(name = "idx_sacraments_parish_date", columnList = "parish_id, celebration_date"),
+        @Index(name = "idx_sacraments_person", columnList = "person_id"),
+        @Index(name = "idx_sacraments_date", columnList = "celebration_date")
+})
 @Data
 @EqualsAndHashCode(callSuper = true)
 @Builder
@@ -18,10 +28,20 @@ import java.time.LocalDate;
 @NoArgsConstructor
 public class Sacrament extends Auditable {
 
+    public static final String ACTA_CONSTRAINT = "uc_sacrament_acta";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    /**
+     * Versión para el control de concurrencia optimista: Hibernate la incrementa en cada UPDATE
+     * y rechaza la escritura si otro usuario la modificó primero. Se expone como ETag.
+     */
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     // --- Clave al Receptor del Sacramento (Persona) ---
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "person_id", nullable = false)
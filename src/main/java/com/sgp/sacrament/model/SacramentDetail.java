@@ -10,7 +10,10 @@ import lombok.*;
  * ministro oficiante y lugar de bautismo (si aplica).
  */
 @Entity
-@Table(name = "sacrament_details")
+@Table(name = "sacrament_details", indexes = {
+        // Filtro por ministro oficiante de la búsqueda de sacramentos.
+        @Index(name = "idx_sacrament_details_minister", columnList = "officiant_minister_id")
+})
 @Data
 @EqualsAndHashCode(callSuper = true)
 @Builder
@@ -22,6 +25,12 @@ public class SacramentDetail extends Auditable {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Versión propia del detalle: sus cambios no incrementan la versión del Sacrament,
+    // por eso el ETag del registro combina ambas.
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     // --- Relación One-to-One con Sacrament (clave foránea) ---
     @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "sacrament_id", nullable = false)
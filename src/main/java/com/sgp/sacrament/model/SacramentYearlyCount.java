@@ -0,0 +1,43 @@
+package com.sgp.sacrament.model;
+
+import com.sgp.sacrament.enums.SacramentType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Resumen materializado de sacramentos activos por parroquia, tipo y año de celebración.
+ * Se mantiene de forma incremental desde SacramentServiceImpl y la importación masiva
+ * (en la misma transacción que el sacramento) y se reconstruye periódicamente desde la tabla sacraments.
+ */
+@Entity
+@Table(name = "sacrament_yearly_counts", uniqueConstraints = {
+        @UniqueConstraint(name = "uc_sacrament_count_parish_type_year", columnNames = {"parish_id", "sacrament_type", "celebration_year"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SacramentYearlyCount {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "parish_id", nullable = false)
+    private Long parishId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "sacrament_type", nullable = false)
+    private SacramentType type;
+
+    @Column(name = "celebration_year", nullable = false)
+    private int celebrationYear;
+
+    @Column(name = "sacrament_count", nullable = false)
+    private long sacramentCount;
+}
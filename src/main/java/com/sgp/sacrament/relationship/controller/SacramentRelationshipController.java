@@ -0,0 +1,43 @@
+package com.sgp.sacrament.relationship.controller;
+
+import com.sgp.sacrament.enums.SacramentRole;
+import com.sgp.sacrament.enums.SacramentType;
+import com.sgp.sacrament.relationship.dto.PersonRelationshipsResponse;
+import com.sgp.sacrament.relationship.dto.RelationshipNetworkResponse;
+import com.sgp.sacrament.relationship.service.SacramentRelationshipService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/sacraments/relationships")
+@RequiredArgsConstructor
+public class SacramentRelationshipController {
+
+    private final SacramentRelationshipService relationshipService;
+
+    /**
+     * GET /api/v1/sacraments/relationships/{personId}?role=GODPARENT&type=BAPTISM
+     * Sacramentos en los que participa la persona (como receptor, ministro, padrino, cónyuge o testigo)
+     * e indicador de si ya está casada. Los filtros son opcionales.
+     */
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'GESTOR', 'COORDINATOR')")
+    @GetMapping("/{personId}")
+    public ResponseEntity<PersonRelationshipsResponse> getRelationships(@PathVariable Long personId,
+                                                                        @RequestParam(required = false) SacramentRole role,
+                                                                        @RequestParam(required = false) SacramentType type) {
+        return ResponseEntity.ok(relationshipService.getRelationships(personId, role, type));
+    }
+
+    /**
+     * GET /api/v1/sacraments/relationships/{personId}/network?depth=2
+     * Personas conectadas por sacramentos compartidos hasta la profundidad indicada (máximo 3).
+     */
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'GESTOR', 'COORDINATOR')")
+    @GetMapping("/{personId}/network")
+    public ResponseEntity<RelationshipNetworkResponse> getNetwork(@PathVariable Long personId,
+                                                                  @RequestParam(defaultValue = "1") int depth) {
+        return ResponseEntity.ok(relationshipService.getNetwork(personId, depth));
+    }
+}
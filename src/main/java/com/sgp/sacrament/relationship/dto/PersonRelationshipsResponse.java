@@ -0,0 +1,18 @@
+package com.sgp.sacrament.relationship.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Relaciones sacramentales de una persona (para las comprobaciones canónicas).
+ */
+@Value
+@Builder
+public class PersonRelationshipsResponse {
+
+    Long personId;
+    boolean married; // Contrayente en un matrimonio activo
+    List<RelatedSacrament> sacraments; // Del más reciente al más antiguo
+}
@@ -0,0 +1,28 @@
+package com.sgp.sacrament.relationship.dto;
+
+import com.sgp.sacrament.enums.SacramentRole;
+import com.sgp.sacrament.enums.SacramentType;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * Un sacramento en el que participa la persona consultada, con el papel que tuvo en él.
+ */
+@Value
+@Builder
+public class RelatedSacrament {
+
+    Long sacramentId;
+    SacramentType type;
+    LocalDate celebrationDate;
+    Long parishId;
+    SacramentRole role; // Papel de la persona consultada
+
+    Long recipientId; // Receptor (p. ej. el ahijado cuando role = GODPARENT)
+    String recipientName;
+
+    Long spouseId; // Solo en matrimonios
+    String spouseName;
+}
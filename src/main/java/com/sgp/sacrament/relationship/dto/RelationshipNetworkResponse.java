@@ -0,0 +1,26 @@
+package com.sgp.sacrament.relationship.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Personas conectadas con una persona a través de sacramentos compartidos, hasta cierta distancia.
+ */
+@Value
+@Builder
+public class RelationshipNetworkResponse {
+
+    Long personId;
+    int depth;
+    boolean truncated; // true si se alcanzó el máximo de personas
+    List<Node> persons; // Ordenadas por distancia
+
+    @Value
+    public static class Node {
+        Long personId;
+        String name;
+        int distance; // Número de sacramentos compartidos en el camino más corto
+    }
+}
@@ -0,0 +1,249 @@
+package com.sgp.sacrament.relationship.service;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.sgp.common.cache.AfterCommitIndex;
+import com.sgp.common.cache.IndexChangeBroadcaster;
+import com.sgp.common.service.StreamingQueryService;
+import com.sgp.sacrament.enums.SacramentRole;
+import com.sgp.sacrament.enums.SacramentType;
+import com.sgp.sacrament.model.Sacrament;
+import com.sgp.sacrament.model.SacramentDetail;
+import com.sgp.person.model.Person;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice de adyacencia en memoria de las relaciones sacramentales (receptor, ministro, padrinos,
+ * cónyuge y testigos), construido desde sacrament_details.
+ *
+ * - Persona -> sacramentos en los que participa, y sacramento -> participantes con su papel.
+ * - Se carga al arrancar y se reconstruye cada noche; las altas, cambios y bajas se aplican
+ *   de forma incremental después del commit, en este nodo y (por Redis) en los demás.
+ * - Las lecturas no bloquean; las escrituras se serializan. Los cambios que llegan durante una
+ *   reconstrucción se vuelven a aplicar sobre el índice nuevo antes de publicarlo.
+ */
+@Component
+@RequiredArgsConstructor
+public class SacramentRelationshipIndex extends AfterCommitIndex<SacramentRelationshipIndex.Graph, SacramentRelationshipIndex.Change> {
+
+    public static final String CHANNEL = "sgp:index:sacrament-relationships";
+
+    private final StreamingQueryService streamingQueryService;
+    private final IndexChangeBroadcaster broadcaster;
+
+    @Value("${app.sacraments.relationships.fetch-size:10000}")
+    private int fetchSize;
+
+    /** Un sacramento activo con sus participantes (personIds[i] tiene el papel roles[i]). */
+    public record SacramentEdges(long sacramentId, SacramentType type, long parishId, LocalDate celebrationDate,
+                                 long[] personIds, SacramentRole[] roles) {
+
+        public static SacramentEdges of(long sacramentId, SacramentType type, long parishId, LocalDate celebrationDate,
+                                        Long recipientId, Long ministerId, Long godfather1Id, Long godfather2Id,
+                                        Long spouseId, Long witness1Id, Long witness2Id) {
+            Long[] ids = {recipientId, ministerId, godfather1Id, godfather2Id, spouseId, witness1Id, witness2Id};
+            SacramentRole[] allRoles = {SacramentRole.RECIPIENT, SacramentRole.MINISTER, SacramentRole.GODPARENT,
+                    SacramentRole.GODPARENT, SacramentRole.SPOUSE, SacramentRole.WITNESS, SacramentRole.WITNESS};
+            int count = 0;
+            for (Long id : ids) {
+                if (id != null) count++;
+            }
+            long[] personIds = new long[count];
+            SacramentRole[] roles = new SacramentRole[count];
+            for (int i = 0, j = 0; i < ids.length; i++) {
+                if (ids[i] != null) {
+                    personIds[j] = ids[i];
+                    roles[j++] = allRoles[i];
+                }
+            }
+            return new SacramentEdges(sacramentId, type, parishId, celebrationDate, personIds, roles);
+        }
+
+        public static SacramentEdges of(Sacrament sacrament) {
+            SacramentDetail detail = sacrament.getSacramentDetail();
+            return of(sacrament.getId(), sacrament.getType(), sacrament.getParish().getId(), sacrament.getCelebrationDate(),
+                    sacrament.getPerson().getId(),
+                    detail != null ? idOf(detail.getOfficiantMinister()) : null,
+                    detail != null ? idOf(detail.getGodfather1()) : null,
+                    detail != null ? idOf(detail.getGodfather2()) : null,
+                    detail != null ? idOf(detail.getSpouse()) : null,
+                    detail != null ? idOf(detail.getWitness1()) : null,
+                    detail != null ? idOf(detail.getWitness2()) : null);
+        }
+
+        private static Long idOf(Person person) {
+            return person != null ? person.getId() : null;
+        }
+    }
+
+    /** Cambio incremental del índice (se difunde a los demás nodos como JSON). */
+    @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "kind")
+    @JsonSubTypes({
+            @JsonSubTypes.Type(value = Change.SacramentsSaved.class, name = "saved"),
+            @JsonSubTypes.Type(value = Change.SacramentRemoved.class, name = "removed"),
+            @JsonSubTypes.Type(value = Change.PersonsMerged.class, name = "merged")
+    })
+    public sealed interface Change {
+        record SacramentsSaved(List<SacramentEdges> edges) implements Change {
+        }
+
+        record SacramentRemoved(long sacramentId) implements Change {
+        }
+
+        record PersonsMerged(List<Long> mergedIds, long survivorId) implements Change {
+        }
+    }
+
+    /** Grafo: sacramento -> aristas y persona -> sacramentos. */
+    static final class Graph {
+        final Map<Long, SacramentEdges> bySacrament = new ConcurrentHashMap<>();
+        final Map<Long, Set<Long>> byPerson = new ConcurrentHashMap<>();
+
+        void put(SacramentEdges edges) {
+            remove(edges.sacramentId());
+            bySacrament.put(edges.sacramentId(), edges);
+            for (long personId : edges.personIds()) {
+                byPerson.computeIfAbsent(personId, id -> ConcurrentHashMap.newKeySet()).add(edges.sacramentId());
+            }
+        }
+
+        void remove(long sacramentId) {
+            SacramentEdges previous = bySacrament.remove(sacramentId);
+            if (previous == null) {
+                return;
+            }
+            for (long personId : previous.personIds()) {
+                byPerson.computeIfPresent(personId, (id, sacraments) -> {
+                    sacraments.remove(sacramentId);
+                    return sacraments.isEmpty() ? null : sacraments;
+                });
+            }
+        }
+    }
+
+    // --- LECTURA ---
+
+    /**
+     * Sacramentos en los que participa la persona (con cualquier papel).
+     */
+    public List<SacramentEdges> sacramentsOf(long personId) {
+        Graph current = loaded();
+        Set<Long> ids = current.byPerson.get(personId);
+        if (ids == null) {
+            return List.of();
+        }
+        List<SacramentEdges> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            SacramentEdges edges = current.bySacrament.get(id);
+            if (edges != null) {
+                result.add(edges);
+            }
+        }
+        return result;
+    }
+
+    // --- ACTUALIZACIÓN INCREMENTAL (después del commit) ---
+
+    @PostConstruct
+    void registerBroadcast() {
+        broadcastVia(broadcaster, CHANNEL, Change.class);
+    }
+
+    /** Registra (o reemplaza) las relaciones de sacramentos activos. */
+    public void onSacramentsSaved(Collection<SacramentEdges> edges) {
+        afterCommit(new Change.SacramentsSaved(List.copyOf(edges)));
+    }
+
+    /** Quita las relaciones de un sacramento eliminado lógicamente. */
+    public void onSacramentRemoved(long sacramentId) {
+        afterCommit(new Change.SacramentRemoved(sacramentId));
+    }
+
+    /** Reasigna a la persona superviviente los sacramentos de las personas fusionadas con ella. */
+    public void onPersonsMerged(Collection<Long> mergedIds, long survivorId) {
+        afterCommit(new Change.PersonsMerged(List.copyOf(mergedIds), survivorId));
+    }
+
+    @Override
+    protected void applyChange(Graph target, Change change) {
+        if (change instanceof Change.SacramentsSaved saved) {
+            saved.edges().forEach(target::put);
+        } else if (change instanceof Change.SacramentRemoved removed) {
+            target.remove(removed.sacramentId());
+        } else if (change instanceof Change.PersonsMerged merged) {
+            for (Long mergedId : merged.mergedIds()) {
+                Set<Long> sacramentIds = target.byPerson.get(mergedId);
+                if (sacramentIds == null) {
+                    continue;
+                }
+                for (Long sacramentId : List.copyOf(sacramentIds)) {
+                    SacramentEdges edges = target.bySacrament.get(sacramentId);
+                    if (edges == null) {
+                        continue;
+                    }
+                    long[] personIds = edges.personIds().clone();
+                    for (int i = 0; i < personIds.length; i++) {
+                        if (personIds[i] == mergedId) {
+                            personIds[i] = merged.survivorId();
+                        }
+                    }
+                    target.put(new SacramentEdges(edges.sacramentId(), edges.type(), edges.parishId(),
+                            edges.celebrationDate(), personIds, edges.roles()));
+                }
+            }
+        }
+    }
+
+    // --- CARGA COMPLETA ---
+
+    /**
+     * Reconstruye el índice leyendo sacraments + sacrament_details en streaming, y lo publica de golpe.
+     */
+    @Override
+    @Scheduled(cron = "${app.sacraments.relationships.rebuild-cron:0 45 3 * * *}")
+    public void rebuild() {
+        super.rebuild();
+    }
+
+    @Override
+    protected String indexName() {
+        return "Índice de relaciones sacramentales";
+    }
+
+    @Override
+    protected Graph load() {
+        Graph rebuilt = new Graph();
+        streamingQueryService.query(
+                "SELECT s.id, s.sacrament_type, s.parish_id, s.celebration_date, s.person_id, " +
+                        "d.officiant_minister_id, d.godfather_1_id, d.godfather_2_id, d.spouse_id, d.witness_1_id, d.witness_2_id " +
+                        "FROM sacraments s LEFT JOIN sacrament_details d ON d.sacrament_id = s.id " +
+                        "WHERE s.is_active = true",
+                fetchSize,
+                rs -> {
+                    java.sql.Date date = rs.getDate(4);
+                    rebuilt.put(SacramentEdges.of(rs.getLong(1), SacramentType.valueOf(rs.getString(2)), rs.getLong(3),
+                            date != null ? date.toLocalDate() : null,
+                            rs.getObject(5, Long.class), rs.getObject(6, Long.class), rs.getObject(7, Long.class),
+                            rs.getObject(8, Long.class), rs.getObject(9, Long.class), rs.getObject(10, Long.class),
+                            rs.getObject(11, Long.class)));
+                });
+        return rebuilt;
+    }
+
+    @Override
+    protected String describe(Graph loaded) {
+        return loaded.bySacrament.size() + " sacramentos, " + loaded.byPerson.size() + " personas";
+    }
+}
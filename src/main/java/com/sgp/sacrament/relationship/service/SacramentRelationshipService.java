@@ -0,0 +1,25 @@
+package com.sgp.sacrament.relationship.service;
+
+import com.sgp.sacrament.enums.SacramentRole;
+import com.sgp.sacrament.enums.SacramentType;
+import com.sgp.sacrament.relationship.dto.PersonRelationshipsResponse;
+import com.sgp.sacrament.relationship.dto.RelationshipNetworkResponse;
+
+public interface SacramentRelationshipService {
+
+    /**
+     * Sacramentos en los que participa una persona, filtrados opcionalmente por papel y tipo
+     * (p. ej. role=GODPARENT: "¿de quién es padrino?"; role=WITNESS y type=MATRIMONY: "¿qué matrimonios atestiguó?").
+     */
+    PersonRelationshipsResponse getRelationships(Long personId, SacramentRole role, SacramentType type);
+
+    /**
+     * Indica si la persona es contrayente de un matrimonio activo.
+     */
+    boolean isMarried(Long personId);
+
+    /**
+     * Personas alcanzables desde una persona a través de sacramentos compartidos, hasta 'depth' saltos.
+     */
+    RelationshipNetworkResponse getNetwork(Long personId, int depth);
+}
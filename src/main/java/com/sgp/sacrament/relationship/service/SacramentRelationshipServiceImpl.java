@@ -0,0 +1,196 @@
+package com.sgp.sacrament.relationship.service;
+
+import com.sgp.common.exception.ResourceNotFoundException;
+import com.sgp.common.exception.ResourceValidException;
+import com.sgp.person.repository.PersonRepository;
+import com.sgp.sacrament.enums.SacramentRole;
+import com.sgp.sacrament.enums.SacramentType;
+import com.sgp.sacrament.relationship.dto.PersonRelationshipsResponse;
+import com.sgp.sacrament.relationship.dto.RelatedSacrament;
+import com.sgp.sacrament.relationship.dto.RelationshipNetworkResponse;
+import com.sgp.sacrament.relationship.service.SacramentRelationshipIndex.SacramentEdges;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Consultas de relaciones sacramentales servidas desde el índice en memoria:
+ * solo se consulta la base de datos para validar la persona y obtener los nombres (una consulta).
+ */
+@Service
+@RequiredArgsConstructor
+public class SacramentRelationshipServiceImpl implements SacramentRelationshipService {
+
+    private static final String RESOURCE_PERSON = "Persona";
+    private static final int MAX_DEPTH = 3;
+
+    private final SacramentRelationshipIndex relationshipIndex;
+    private final PersonRepository personRepository;
+
+    @Value("${app.sacraments.relationships.max-network-size:500}")
+    private int maxNetworkSize;
+
+    @Override
+    @Transactional(readOnly = true)
+    public PersonRelationshipsResponse getRelationships(Long personId, SacramentRole role, SacramentType type) {
+        validatePerson(personId);
+
+        List<SacramentEdges> sacraments = relationshipIndex.sacramentsOf(personId);
+        List<Related> related = new ArrayList<>();
+        Set<Long> namedIds = new HashSet<>();
+        for (SacramentEdges edges : sacraments) {
+            if (type != null && edges.type() != type) {
+                continue;
+            }
+            Long recipientId = personWithRole(edges, SacramentRole.RECIPIENT);
+            Long spouseId = edges.type() == SacramentType.MATRIMONY ? personWithRole(edges, SacramentRole.SPOUSE) : null;
+            for (int i = 0; i < edges.personIds().length; i++) {
+                if (edges.personIds()[i] != personId || (role != null && edges.roles()[i] != role)) {
+                    continue;
+                }
+                related.add(new Related(edges, edges.roles()[i], recipientId, spouseId));
+                if (recipientId != null) namedIds.add(recipientId);
+                if (spouseId != null) namedIds.add(spouseId);
+            }
+        }
+
+        Map<Long, String> names = findNames(namedIds);
+        List<RelatedSacrament> result = related.stream()
+                .sorted(Comparator.comparing((Related r) -> r.edges().celebrationDate(),
+                        Comparator.nullsLast(Comparator.<LocalDate>reverseOrder())))
+                .map(r -> RelatedSacrament.builder()
+                        .sacramentId(r.edges().sacramentId())
+                        .type(r.edges().type())
+                        .celebrationDate(r.edges().celebrationDate())
+                        .parishId(r.edges().parishId())
+                        .role(r.role())
+                        .recipientId(r.recipientId())
+                        .recipientName(r.recipientId() != null ? names.get(r.recipientId()) : null)
+                        .spouseId(r.spouseId())
+                        .spouseName(r.spouseId() != null ? names.get(r.spouseId()) : null)
+                        .build())
+                .toList();
+
+        return PersonRelationshipsResponse.builder()
+                .personId(personId)
+                .married(isMarried(sacraments, personId))
+                .sacraments(result)
+                .build();
+    }
+
+    private record Related(SacramentEdges edges, SacramentRole role, Long recipientId, Long spouseId) {
+    }
+
+    @Override
+    public boolean isMarried(Long personId) {
+        return isMarried(relationshipIndex.sacramentsOf(personId), personId);
+    }
+
+    private static boolean isMarried(List<SacramentEdges> sacraments, long personId) {
+        for (SacramentEdges edges : sacraments) {
+            if (edges.type() != SacramentType.MATRIMONY) {
+                continue;
+            }
+            for (int i = 0; i < edges.personIds().length; i++) {
+                if (edges.personIds()[i] == personId
+                        && (edges.roles()[i] == SacramentRole.RECIPIENT || edges.roles()[i] == SacramentRole.SPOUSE)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public RelationshipNetworkResponse getNetwork(Long personId, int depth) {
+        if (depth < 1 || depth > MAX_DEPTH) {
+            throw new ResourceValidException("La profundidad debe estar entre 1 y " + MAX_DEPTH + ".");
+        }
+        validatePerson(personId);
+
+        // Búsqueda en anchura sobre el índice: persona -> sacramentos -> participantes.
+        Map<Long, Integer> distances = new LinkedHashMap<>();
+        distances.put(personId, 0);
+        Deque<Long> queue = new ArrayDeque<>();
+        queue.add(personId);
+        boolean truncated = false;
+
+        search:
+        while (!queue.isEmpty()) {
+            long current = queue.poll();
+            int distance = distances.get(current);
+            if (distance == depth) {
+                continue;
+            }
+            for (SacramentEdges edges : relationshipIndex.sacramentsOf(current)) {
+                for (long neighbor : edges.personIds()) {
+                    if (distances.containsKey(neighbor)) {
+                        continue;
+                    }
+                    if (distances.size() > maxNetworkSize) {
+                        truncated = true;
+                        break search;
+                    }
+                    distances.put(neighbor, distance + 1);
+                    queue.add(neighbor);
+                }
+            }
+        }
+        distances.remove(personId);
+
+        Map<Long, String> names = findNames(distances.keySet());
+        List<RelationshipNetworkResponse.Node> nodes = distances.entrySet().stream()
+                .map(entry -> new RelationshipNetworkResponse.Node(entry.getKey(), names.get(entry.getKey()), entry.getValue()))
+                .toList();
+
+        return RelationshipNetworkResponse.builder()
+                .personId(personId)
+                .depth(depth)
+                .truncated(truncated)
+                .persons(nodes)
+                .build();
+    }
+
+    // --- AUXILIARES ---
+
+    private void validatePerson(Long personId) {
+        if (!personRepository.existsById(personId)) {
+            throw new ResourceNotFoundException(RESOURCE_PERSON, "ID", personId);
+        }
+    }
+
+    private static Long personWithRole(SacramentEdges edges, SacramentRole role) {
+        for (int i = 0; i < edges.roles().length; i++) {
+            if (edges.roles()[i] == role) {
+                return edges.personIds()[i];
+            }
+        }
+        return null;
+    }
+
+    private Map<Long, String> findNames(Collection<Long> ids) {
+        Map<Long, String> names = new HashMap<>();
+        if (ids.isEmpty()) {
+            return names;
+        }
+        for (Object[] row : personRepository.findFullNamesByIdIn(ids)) {
+            names.put((Long) row[0], (String) row[1]);
+        }
+        return names;
+    }
+}
@@ -0,0 +1,69 @@
+package com.sgp.sacrament.repository;
+
+import com.sgp.sacrament.model.ActaSequence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ActaSequenceRepository extends JpaRepository<ActaSequence, Long> {
+
+    /**
+     * Crea la secuencia de un libro si no existe, continuando desde las actas ya registradas en él
+     * (solo se consideran números de página/acta numéricos).
+     */
+    @Modifying
+    @Query(value = "WITH existing AS (" +
+            "  SELECT CAST(s.page_number AS integer) AS page, CAST(s.entry_number AS integer) AS entry " +
+            "  FROM sacraments s WHERE s.book_number = :bookNumber " +
+            "  AND s.page_number ~ '^[0-9]{1,9}$' AND s.entry_number ~ '^[0-9]{1,9}$'), " +
+            "last_page AS (SELECT MAX(page) AS page FROM existing) " +
+            "INSERT INTO acta_book_sequences (book_number, last_page, last_entry, entries_on_page, entries_per_page) " +
+            "SELECT :bookNumber, COALESCE(lp.page, 1), COALESCE((SELECT MAX(e.entry) FROM existing e), 0), " +
+            "(SELECT COUNT(*) FROM existing e WHERE e.page = lp.page), :entriesPerPage FROM last_page lp " +
+            "ON CONFLICT (book_number) DO NOTHING",
+            nativeQuery = true)
+    void initializeIfAbsent(@Param("bookNumber") String bookNumber, @Param("entriesPerPage") int entriesPerPage);
+
+    /**
+     * Asigna la siguiente acta del libro en una sola sentencia: avanza a la página siguiente cuando
+     * la actual está llena. El UPDATE bloquea la fila hasta el commit, así que las altas concurrentes
+     * del mismo libro (en cualquier nodo) obtienen números consecutivos, y un rollback devuelve el número.
+     * Cada fila es [last_page, last_entry].
+     */
+    @Query(value = "UPDATE acta_book_sequences SET " +
+            "last_entry = last_entry + 1, " +
+            "last_page = CASE WHEN entries_on_page >= entries_per_page THEN last_page + 1 ELSE last_page END, " +
+            "entries_on_page = CASE WHEN entries_on_page >= entries_per_page THEN 1 ELSE entries_on_page + 1 END " +
+            "WHERE book_number = :bookNumber " +
+            "RETURNING last_page, last_entry",
+            nativeQuery = true)
+    List<Object[]> allocateNext(@Param("bookNumber") String bookNumber);
+
+    /**
+     * Adelanta la secuencia hasta la última acta numérica ya registrada en el libro (nunca la retrocede).
+     * Se usa cuando la siguiente acta ya existe (registrada a mano o importada): un solo salto en lugar
+     * de avanzar acta por acta, de modo que la numeración no depende de cuántas actas haya que saltar.
+     */
+    @Modifying
+    @Query(value = "WITH existing AS (" +
+            "  SELECT CAST(s.page_number AS integer) AS page, CAST(s.entry_number AS integer) AS entry " +
+            "  FROM sacraments s WHERE s.book_number = :bookNumber " +
+            "  AND s.page_number ~ '^[0-9]{1,9}$' AND s.entry_number ~ '^[0-9]{1,9}$'), " +
+            "top AS (SELECT MAX(e.page) AS page, MAX(e.entry) AS entry, " +
+            "  (SELECT COUNT(*) FROM existing x WHERE x.page = (SELECT MAX(page) FROM existing)) AS on_page " +
+            "  FROM existing e) " +
+            "UPDATE acta_book_sequences q SET " +
+            "last_entry = GREATEST(q.last_entry, COALESCE(t.entry, 0)), " +
+            "last_page = GREATEST(q.last_page, COALESCE(t.page, 0)), " +
+            "entries_on_page = CASE WHEN t.page > q.last_page THEN t.on_page " +
+            "  WHEN t.page = q.last_page THEN GREATEST(q.entries_on_page, t.on_page) " +
+            "  ELSE q.entries_on_page END " +
+            "FROM top t WHERE q.book_number = :bookNumber",
+            nativeQuery = true)
+    void advancePastExisting(@Param("bookNumber") String bookNumber);
+}
@@ -1,16 +1,56 @@
 package com.sgp.sacrament.repository;
 
+import com.sgp.sacrament.dto.MySacramentResponse;
+import com.sgp.sacrament.dto.SacramentRow;
 import com.sgp.sacrament.model.Sacrament;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface SacramentRepository extends JpaRepository<Sacrament, Long> {
+public interface SacramentRepository extends JpaRepository<Sacrament, Long>, SacramentSearchRepository {
+
+    // Proyección común de los listados: una fila por sacramento con su detalle y los nombres de las personas.
+    String SACRAMENT_ROW_SELECT = "SELECT new com.sgp.sacrament.dto.SacramentRow(s.id, s.type, p.id, " +
+            "CONCAT(p.firstName, ' ', p.lastName), s.celebrationDate, pa.name, s.bookNumber, s.pageNumber, " +
+            "s.entryNumber, s.notes, s.version, d.id, d.version, " +
+            "CASE WHEN m.id IS NOT NULL THEN CONCAT(m.firstName, ' ', m.lastName) END, " +
+            "CASE WHEN g1.id IS NOT NULL THEN CONCAT(g1.firstName, ' ', g1.lastName) END, " +
+            "CASE WHEN g2.id IS NOT NULL THEN CONCAT(g2.firstName, ' ', g2.lastName) END, " +
+            "d.originParishName, d.originDioceseName, d.fatherNameText, d.motherNameText, " +
+            "CASE WHEN sp.id IS NOT NULL THEN CONCAT(sp.firstName, ' ', sp.lastName) END, " +
+            "d.spouseFatherNameText, d.spouseMotherNameText, " +
+            "CASE WHEN w1.id IS NOT NULL THEN CONCAT(w1.firstName, ' ', w1.lastName) END, " +
+            "CASE WHEN w2.id IS NOT NULL THEN CONCAT(w2.firstName, ' ', w2.lastName) END) " +
+            "FROM Sacrament s JOIN s.person p JOIN s.parish pa LEFT JOIN s.sacramentDetail d " +
+            "LEFT JOIN d.officiantMinister m LEFT JOIN d.godfather1 g1 LEFT JOIN d.godfather2 g2 " +
+            "LEFT JOIN d.spouse sp LEFT JOIN d.witness1 w1 LEFT JOIN d.witness2 w2 ";
+
+    /**
+     * Página de sacramentos activos proyectada a SacramentRow (una consulta de datos + una de conteo).
+     */
+    @Query(value = SACRAMENT_ROW_SELECT + "WHERE s.isActive = true",
+            countQuery = "SELECT COUNT(s) FROM Sacrament s WHERE s.isActive = true")
+    Page<SacramentRow> findAllRows(Pageable pageable);
+
+    /**
+     * Página de sacramentos activos de una persona proyectada a SacramentRow.
+     */
+    @Query(value = SACRAMENT_ROW_SELECT + "WHERE s.isActive = true AND p.id = :personId",
+            countQuery = "SELECT COUNT(s) FROM Sacrament s WHERE s.isActive = true AND s.person.id = :personId")
+    Page<SacramentRow> findRowsByPersonId(@Param("personId") Long personId, Pageable pageable);
+
+    /**
+     * Filas proyectadas de los sacramentos indicados (segunda fase de la búsqueda; el orden lo aplica el llamador).
+     */
+    @Query(SACRAMENT_ROW_SELECT + "WHERE s.id IN :ids")
+    List<SacramentRow> findRowsByIdIn(@Param("ids") List<Long> ids);
 
     /**
      * Busca los sacramentos recibidos por una persona específica.
@@ -26,6 +66,22 @@ public interface SacramentRepository extends JpaRepository<Sacrament, Long> {
      */
     Page<Sacrament> findByPerson_Id(Long personId, Pageable pageable);
 
+    /**
+     * Página de "mis sacramentos" en una sola consulta: proyecta directamente al DTO uniendo
+     * parroquia, detalle y las personas del detalle, sin cargar entidades.
+     */
+    @Query(value = "SELECT new com.sgp.sacrament.dto.MySacramentResponse(s.id, s.type, s.celebrationDate, pa.name, " +
+            "s.bookNumber, s.pageNumber, s.entryNumber, " +
+            "CASE WHEN m.id IS NOT NULL THEN CONCAT(m.firstName, ' ', m.lastName) END, " +
+            "CASE WHEN g1.id IS NOT NULL THEN CONCAT(g1.firstName, ' ', g1.lastName) END, " +
+            "CASE WHEN g2.id IS NOT NULL THEN CONCAT(g2.firstName, ' ', g2.lastName) END, " +
+            "CASE WHEN sp.id IS NOT NULL THEN CONCAT(sp.firstName, ' ', sp.lastName) END) " +
+            "FROM Sacrament s JOIN s.parish pa LEFT JOIN s.sacramentDetail d " +
+            "LEFT JOIN d.officiantMinister m LEFT JOIN d.godfather1 g1 LEFT JOIN d.godfather2 g2 LEFT JOIN d.spouse sp " +
+            "WHERE s.person.id = :personId AND s.isActive = true",
+            countQuery = "SELECT COUNT(s) FROM Sacrament s WHERE s.person.id = :personId AND s.isActive = true")
+    Page<MySacramentResponse> findMySacraments(@Param("personId") Long personId, Pageable pageable);
+
     /**
      * Busca un sacramento por su número de acta, libro y página.
      */
@@ -0,0 +1,18 @@
+package com.sgp.sacrament.repository;
+
+import com.sgp.sacrament.model.Sacrament;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Fragmento de SacramentRepository para la búsqueda multicriterio.
+ */
+public interface SacramentSearchRepository {
+
+    /**
+     * Página de IDs de sacramentos que cumplen la Specification (consulta de IDs + conteo).
+     * Las filas completas se cargan luego con una única proyección (findRowsByIdIn).
+     */
+    Page<Long> searchIds(Specification<Sacrament> specification, Pageable pageable);
+}
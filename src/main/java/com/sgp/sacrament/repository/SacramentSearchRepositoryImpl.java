@@ -0,0 +1,75 @@
+package com.sgp.sacrament.repository;
+
+import com.sgp.common.exception.ResourceValidException;
+import com.sgp.sacrament.model.Sacrament;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+public class SacramentSearchRepositoryImpl implements SacramentSearchRepository {
+
+    // Solo se permite ordenar por columnas indexadas o baratas de ordenar.
+    private static final Set<String> SORTABLE_PROPERTIES =
+            Set.of("id", "celebrationDate", "type", "bookNumber", "pageNumber", "entryNumber");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<Long> searchIds(Specification<Sacrament> specification, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Sacrament> root = query.from(Sacrament.class);
+        query.select(root.get("id"))
+                .where(specification.toPredicate(root, query, cb))
+                .orderBy(toOrders(pageable.getSort(), root, cb));
+
+        var typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        List<Long> ids = typedQuery.getResultList();
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(ids);
+        }
+
+        return PageableExecutionUtils.getPage(ids, pageable, () -> {
+            CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+            Root<Sacrament> countRoot = countQuery.from(Sacrament.class);
+            countQuery.select(cb.count(countRoot)).where(specification.toPredicate(countRoot, countQuery, cb));
+            return entityManager.createQuery(countQuery).getSingleResult();
+        });
+    }
+
+    private static List<Order> toOrders(Sort sort, Root<Sacrament> root, CriteriaBuilder cb) {
+        List<Order> orders = new ArrayList<>();
+        boolean hasId = false;
+        for (Sort.Order order : sort) {
+            if (!SORTABLE_PROPERTIES.contains(order.getProperty())) {
+                throw new ResourceValidException("No se puede ordenar la búsqueda de sacramentos por '" + order.getProperty() + "'.");
+            }
+            hasId |= order.getProperty().equals("id");
+            orders.add(order.isAscending() ? cb.asc(root.get(order.getProperty())) : cb.desc(root.get(order.getProperty())));
+        }
+        // Desempate por ID para que la paginación sea estable.
+        if (!hasId) {
+            orders.add(cb.desc(root.get("id")));
+        }
+        return orders;
+    }
+}
@@ -0,0 +1,72 @@
+package com.sgp.sacrament.repository;
+
+import com.sgp.person.model.Person;
+import com.sgp.person.search.PersonNameNormalizer;
+import com.sgp.sacrament.dto.SacramentSearchCriteria;
+import com.sgp.sacrament.model.Sacrament;
+import com.sgp.sacrament.model.SacramentDetail;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Specifications de la búsqueda de sacramentos. Cada filtro se apoya en un índice
+ * (ver @Table de Sacrament y SacramentDetail), de modo que cualquier combinación
+ * parte al menos de un índice selectivo y el planificador puede combinarlos (BitmapAnd).
+ */
+public final class SacramentSpecifications {
+
+    private SacramentSpecifications() {
+    }
+
+    /** Construye la Specification con todos los filtros presentes en los criterios. */
+    public static Specification<Sacrament> fromCriteria(SacramentSearchCriteria criteria) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.isTrue(root.get("isActive")));
+
+            if (criteria.getType() != null) {
+                predicates.add(cb.equal(root.get("type"), criteria.getType()));
+            }
+            if (criteria.getParishId() != null) {
+                predicates.add(cb.equal(root.get("parish").get("id"), criteria.getParishId()));
+            }
+            if (criteria.getPersonId() != null) {
+                predicates.add(cb.equal(root.get("person").get("id"), criteria.getPersonId()));
+            }
+            if (criteria.getCelebrationDateFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("celebrationDate"), criteria.getCelebrationDateFrom()));
+            }
+            if (criteria.getCelebrationDateTo() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("celebrationDate"), criteria.getCelebrationDateTo()));
+            }
+            if (criteria.getBookNumber() != null && !criteria.getBookNumber().isBlank()) {
+                predicates.add(cb.equal(root.get("bookNumber"), criteria.getBookNumber().trim()));
+            }
+            if (criteria.getMinisterId() != null) {
+                Join<Sacrament, SacramentDetail> detail = root.join("sacramentDetail");
+                predicates.add(cb.equal(detail.get("officiantMinister").get("id"), criteria.getMinisterId()));
+            }
+            if (criteria.getRecipientName() != null && !criteria.getRecipientName().isBlank()) {
+                // Cada palabra debe ser prefijo del nombre o del apellido (sin distinguir mayúsculas ni tildes).
+                // Se compara con las columnas normalizadas, que tienen índices text_pattern_ops
+                // (NativeIndexInitializer): cada palabra es un BitmapOr de dos recorridos de índice.
+                Join<Sacrament, Person> person = root.join("person");
+                for (String token : PersonNameNormalizer.tokens(criteria.getRecipientName())) {
+                    String pattern = escapeLike(token) + "%";
+                    predicates.add(cb.or(
+                            cb.like(person.get("firstNameNorm"), pattern, '\\'),
+                            cb.like(person.get("lastNameNorm"), pattern, '\\')));
+                }
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,83 @@
+package com.sgp.sacrament.repository;
+
+import com.sgp.sacrament.model.SacramentYearlyCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SacramentYearlyCountRepository extends JpaRepository<SacramentYearlyCount, Long> {
+
+    /**
+     * Suma (o resta) atómicamente un delta al resumen de una parroquia, tipo y año, creándolo si no existe.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO sacrament_yearly_counts (parish_id, sacrament_type, celebration_year, sacrament_count) " +
+            "VALUES (:parishId, :type, :year, :delta) " +
+            "ON CONFLICT (parish_id, sacrament_type, celebration_year) DO UPDATE " +
+            "SET sacrament_count = sacrament_yearly_counts.sacrament_count + EXCLUDED.sacrament_count",
+            nativeQuery = true)
+    void increment(@Param("parishId") Long parishId, @Param("type") String type,
+                   @Param("year") int year, @Param("delta") long delta);
+
+    /**
+     * Bloqueo consultivo compartido que toma cada transacción antes de mover los resúmenes.
+     * Varias transacciones lo comparten; solo la reconstrucción (bloqueo exclusivo) las excluye.
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock_shared(hashtext('sacrament_yearly_counts'))", nativeQuery = true)
+    Integer lockForIncrement();
+
+    /**
+     * Bloqueo consultivo exclusivo de la reconstrucción: espera a que terminen las transacciones
+     * que ya movieron resúmenes y detiene las nuevas hasta el commit.
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(hashtext('sacrament_yearly_counts'))", nativeQuery = true)
+    Integer lockForRebuild();
+
+    /**
+     * Resúmenes de una parroquia en un rango de años (como máximo una fila por tipo y año).
+     */
+    @Query("SELECT c FROM SacramentYearlyCount c WHERE c.parishId = :parishId " +
+            "AND c.celebrationYear BETWEEN :fromYear AND :toYear AND c.sacramentCount <> 0")
+    List<SacramentYearlyCount> findByParishAndYears(@Param("parishId") Long parishId,
+                                                    @Param("fromYear") int fromYear,
+                                                    @Param("toYear") int toYear);
+
+    /**
+     * Totales por año y tipo sumando todas las parroquias. Cada fila es [Integer año, SacramentType, Long].
+     */
+    @Query("SELECT c.celebrationYear, c.type, SUM(c.sacramentCount) FROM SacramentYearlyCount c " +
+            "WHERE c.celebrationYear BETWEEN :fromYear AND :toYear " +
+            "GROUP BY c.celebrationYear, c.type HAVING SUM(c.sacramentCount) <> 0")
+    List<Object[]> sumAllByYearAndType(@Param("fromYear") int fromYear, @Param("toYear") int toYear);
+
+    // --- Reconstrucción ---
+
+    /**
+     * Pone a cero los resúmenes que ya no tienen sacramentos activos asociados.
+     */
+    @Modifying
+    @Query(value = "UPDATE sacrament_yearly_counts c SET sacrament_count = 0 " +
+            "WHERE c.sacrament_count <> 0 AND NOT EXISTS (SELECT 1 FROM sacraments s " +
+            "WHERE s.is_active = true AND s.parish_id = c.parish_id AND s.sacrament_type = c.sacrament_type " +
+            "AND s.celebration_date >= make_date(c.celebration_year, 1, 1) " +
+            "AND s.celebration_date < make_date(c.celebration_year + 1, 1, 1))",
+            nativeQuery = true)
+    int resetOrphanCounts();
+
+    /**
+     * Recalcula los resúmenes a partir de la tabla sacraments (un solo GROUP BY).
+     */
+    @Modifying
+    @Query(value = "INSERT INTO sacrament_yearly_counts (parish_id, sacrament_type, celebration_year, sacrament_count) " +
+            "SELECT s.parish_id, s.sacrament_type, CAST(EXTRACT(YEAR FROM s.celebration_date) AS integer), COUNT(*) " +
+            "FROM sacraments s WHERE s.is_active = true " +
+            "GROUP BY s.parish_id, s.sacrament_type, CAST(EXTRACT(YEAR FROM s.celebration_date) AS integer) " +
+            "ON CONFLICT (parish_id, sacrament_type, celebration_year) DO UPDATE SET sacrament_count = EXCLUDED.sacrament_count",
+            nativeQuery = true)
+    int recomputeFromSacraments();
+}
@@ -0,0 +1,147 @@
+package com.sgp.sacrament.service;
+
+import com.sgp.common.service.StreamingQueryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom en memoria con las actas (libro, página, acta) existentes.
+ *
+ * Si el filtro dice que un acta NO existe, es seguro (no hay falsos negativos) y se evita la consulta;
+ * si dice que "podría existir", se confirma contra la base de datos. El índice único uc_sacrament_acta
+ * sigue siendo la garantía final: actas insertadas por otros nodos que este filtro aún no conoce
+ * se detectan al insertar.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ActaBloomFilter {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StreamingQueryService streamingQueryService;
+
+    @Value("${app.sacraments.acta-filter.expected-actas:1000000}")
+    private long expectedActas;
+
+    @Value("${app.sacraments.acta-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    // null hasta la primera carga: mientras tanto todas las comprobaciones van a la base de datos.
+    private volatile Bits bits;
+
+    /** Arreglo de bits concurrente con k funciones hash (doble hashing). */
+    private static final class Bits {
+        final AtomicLongArray words;
+        final long size;
+        final int hashCount;
+
+        Bits(long expected, double fpp) {
+            long m = (long) Math.ceil(-expected * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+            this.size = Math.max(64, m);
+            this.hashCount = Math.max(1, (int) Math.round((double) size / expected * Math.log(2)));
+            this.words = new AtomicLongArray((int) ((size + 63) / 64));
+        }
+
+        void put(String key) {
+            long h1 = hash(key, 0x9E3779B97F4A7C15L);
+            long h2 = hash(key, 0xC2B2AE3D27D4EB4FL);
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, size);
+                int index = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                do {
+                    current = words.get(index);
+                    if ((current & mask) != 0) break;
+                } while (!words.compareAndSet(index, current, current | mask));
+            }
+        }
+
+        boolean mightContain(String key) {
+            long h1 = hash(key, 0x9E3779B97F4A7C15L);
+            long h2 = hash(key, 0xC2B2AE3D27D4EB4FL);
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, size);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Hash polinómico de 64 bits con mezcla final (fmix64 de MurmurHash3).
+        private static long hash(String key, long seed) {
+            long h = seed;
+            for (int i = 0; i < key.length(); i++) {
+                h = (h ^ key.charAt(i)) * 0x100000001B3L;
+            }
+            h ^= h >>> 33;
+            h *= 0xFF51AFD7ED558CCDL;
+            h ^= h >>> 33;
+            h *= 0xC4CEB9FE1A85EC53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+
+    // --- API ---
+
+    /**
+     * false = el acta seguro que no existe (se puede omitir la consulta).
+     * true = podría existir (o el filtro aún no está cargado): hay que consultar la base de datos.
+     */
+    public boolean mightContain(String bookNumber, String pageNumber, String entryNumber) {
+        Bits current = bits;
+        return current == null || current.mightContain(key(bookNumber, pageNumber, entryNumber));
+    }
+
+    /** Registra un acta nueva (creación, edición o importación). */
+    public void put(String bookNumber, String pageNumber, String entryNumber) {
+        Bits current = bits;
+        if (current != null) {
+            current.put(key(bookNumber, pageNumber, entryNumber));
+        }
+    }
+
+    // --- CARGA ---
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Reconstruye el filtro leyendo todas las actas en streaming. Se repite cada noche para incorporar
+     * las actas creadas por otros nodos y redimensionarlo si la tabla creció.
+     */
+    @Scheduled(cron = "${app.sacraments.acta-filter.rebuild-cron:0 30 3 * * *}")
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        try {
+            Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM sacraments", Long.class);
+            Bits rebuilt = new Bits(Math.max(expectedActas, 2 * (count != null ? count : 0)), falsePositiveRate);
+
+            streamingQueryService.query("SELECT book_number, page_number, entry_number FROM sacraments", 10000,
+                    rs -> {
+                        rebuilt.put(key(rs.getString(1), rs.getString(2), rs.getString(3)));
+                    });
+            bits = rebuilt;
+            log.info("Filtro de actas cargado: {} actas en {} ms ({} bits, {} hashes).",
+                    count, System.currentTimeMillis() - start, rebuilt.size, rebuilt.hashCount);
+        } catch (RuntimeException e) {
+            log.warn("No se pudo cargar el filtro de actas; se consultará siempre la base de datos: {}", e.getMessage());
+        }
+    }
+
+    private static String key(String bookNumber, String pageNumber, String entryNumber) {
+        return bookNumber + '\u0000' + pageNumber + '\u0000' + entryNumber;
+    }
+}
@@ -0,0 +1,68 @@
+package com.sgp.sacrament.service;
+
+import com.sgp.sacrament.repository.ActaSequenceRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Asigna automáticamente la siguiente página y número de acta de un libro.
+ *
+ * La secuencia vive en la tabla acta_book_sequences y se avanza con un único UPDATE ... RETURNING
+ * dentro de la transacción que registra el sacramento: el bloqueo de fila serializa las altas
+ * concurrentes del mismo libro en todos los nodos y, si la transacción se revierte, el número
+ * vuelve a quedar libre (numeración sin huecos). Libros distintos nunca compiten entre sí.
+ *
+ * El alcance es el libro (no la parroquia) porque el índice único de actas es (libro, página, acta):
+ * dos parroquias con un "libro 1" comparten la numeración en lugar de chocar entre sí.
+ */
+@Component
+@RequiredArgsConstructor
+public class ActaNumberAllocator {
+
+    private final ActaSequenceRepository actaSequenceRepository;
+
+    @Value("${app.sacraments.acta-numbering.entries-per-page:4}")
+    private int entriesPerPage;
+
+    // Libros cuya secuencia ya existe: evita repetir la inicialización (que recorre las actas del libro).
+    private final Set<String> initializedBooks = ConcurrentHashMap.newKeySet();
+
+    /** Página y número de acta asignados. */
+    public record ActaNumber(String pageNumber, String entryNumber) {
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public ActaNumber allocate(String bookNumber) {
+        if (initializedBooks.add(bookNumber)) {
+            actaSequenceRepository.initializeIfAbsent(bookNumber, entriesPerPage);
+        }
+
+        List<Object[]> rows = actaSequenceRepository.allocateNext(bookNumber);
+        if (rows.isEmpty()) {
+            // La fila se creó en una transacción que luego se revirtió: se inicializa de nuevo.
+            actaSequenceRepository.initializeIfAbsent(bookNumber, entriesPerPage);
+            rows = actaSequenceRepository.allocateNext(bookNumber);
+        }
+
+        Object[] row = rows.get(0);
+        return new ActaNumber(
+                String.valueOf(((Number) row[0]).intValue()),
+                String.valueOf(((Number) row[1]).intValue()));
+    }
+
+    /**
+     * Adelanta la secuencia del libro hasta la última acta ya registrada. Tras esto, la siguiente
+     * asignación queda por encima de todas las actas numéricas del libro.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void advancePastExisting(String bookNumber) {
+        actaSequenceRepository.advancePastExisting(bookNumber);
+    }
+}
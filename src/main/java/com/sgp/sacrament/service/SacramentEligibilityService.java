@@ -0,0 +1,42 @@
+package com.sgp.sacrament.service;
+
+import com.sgp.person.model.Person;
+import com.sgp.sacrament.dto.SacramentEligibilityResponse;
+import com.sgp.sacrament.enums.SacramentType;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface SacramentEligibilityService {
+
+    /**
+     * Valida los requisitos de la persona (máscara ya cargada en la entidad, sin consultas):
+     * Confirmación requiere Bautismo; Matrimonio requiere no estar ya casado.
+     * @throws com.sgp.common.exception.ResourceValidException si no los cumple.
+     */
+    void checkPrerequisites(SacramentType type, Person person);
+
+    /**
+     * Marca el sacramento como recibido por las personas (receptor y, en matrimonios, cónyuge).
+     * En matrimonios la actualización es condicional: falla si alguna ya estaba casada,
+     * lo que cubre las carreras entre registros concurrentes.
+     * Debe llamarse dentro de la transacción que crea el sacramento.
+     */
+    void recordReceived(SacramentType type, Collection<Long> personIds);
+
+    /**
+     * Recalcula la máscara de las personas desde sus sacramentos activos (tras cambios o bajas).
+     * Debe llamarse dentro de la transacción que modifica los sacramentos.
+     */
+    void recompute(Collection<Long> personIds);
+
+    /**
+     * Comprobación masiva (p. ej. un grupo de confirmación): una consulta y una comprobación O(1) por persona.
+     */
+    List<SacramentEligibilityResponse> checkEligibility(SacramentType type, List<Long> personIds);
+
+    /**
+     * Recalcula la máscara de todas las personas cuyo valor no coincide con sus sacramentos.
+     */
+    void rebuildAll();
+}
@@ -0,0 +1,219 @@
+package com.sgp.sacrament.service;
+
+import com.sgp.common.exception.ResourceValidException;
+import com.sgp.common.service.ClusterLockService;
+import com.sgp.person.model.Person;
+import com.sgp.person.repository.PersonRepository;
+import com.sgp.sacrament.dto.SacramentEligibilityResponse;
+import com.sgp.sacrament.enums.SacramentType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Mantiene la máscara de sacramentos recibidos de cada persona (persons.sacrament_mask)
+ * y resuelve con ella los requisitos sacramentales sin consultar la tabla sacraments.
+ *
+ * - Alta: OR del bit del tipo (condicional en matrimonios).
+ * - Cambio o baja: recálculo de las personas afectadas. Primero se bloquean sus filas y luego se
+ *   recalcula en otra sentencia (instantánea nueva): así un alta concurrente que ya marcó su bit
+ *   está confirmada y se ve, en lugar de borrarse con una instantánea anterior.
+ * - Cada noche se revisan todas: se añaden los bits que falten (un OR nunca borra el de un alta
+ *   concurrente) y las pocas personas con bits de más se recalculan como en un cambio.
+ * - Al arrancar se hace la misma revisión antes de confiar en la columna (en el primer despliegue está a 0
+ *   para todos); hasta que termina, los requisitos se calculan desde la tabla sacraments.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SacramentEligibilityServiceImpl implements SacramentEligibilityService {
+
+    // CASE que traduce el tipo de sacramento a su bit en SQL.
+    private static final String BIT_CASE = Arrays.stream(SacramentType.values())
+            .map(type -> "WHEN '" + type.name() + "' THEN " + type.bit())
+            .collect(Collectors.joining(" ", "CASE s.sacrament_type ", " END"));
+
+    private static final int RECOMPUTE_CHUNK_SIZE = 1000;
+    private static final String LOCK_NAME = "sacrament-mask-rebuild";
+
+    // Máscara calculada desde los sacramentos activos: receptor de cualquier tipo y cónyuge en matrimonios.
+    // Los %s restringen la consulta a un conjunto de personas (vacíos en el recálculo completo).
+    private static final String COMPUTED_CTE = "WITH received AS (" +
+            "SELECT s.person_id AS person_id, " + BIT_CASE + " AS bit FROM sacraments s WHERE s.is_active = true %s " +
+            "UNION ALL " +
+            "SELECT d.spouse_id, " + SacramentType.MATRIMONY.bit() + " FROM sacraments s " +
+            "JOIN sacrament_details d ON d.sacrament_id = s.id " +
+            "WHERE s.is_active = true AND s.sacrament_type = 'MATRIMONY' AND d.spouse_id IS NOT NULL %s), " +
+            "computed AS (SELECT person_id, bit_or(bit) AS mask FROM received GROUP BY person_id) ";
+
+    // Recálculo exacto de un conjunto de personas (cuyas filas ya están bloqueadas).
+    private static final String RECOMPUTE_SQL = COMPUTED_CTE +
+            "UPDATE persons p SET sacrament_mask = COALESCE(c.mask, 0) " +
+            "FROM persons p2 LEFT JOIN computed c ON c.person_id = p2.id " +
+            "WHERE p2.id = p.id AND p.sacrament_mask IS DISTINCT FROM COALESCE(c.mask, 0) AND p.id IN (:ids)";
+
+    // Recálculo completo, paso 1: solo añade bits, sobre la máscara vigente de cada fila.
+    private static final String ADD_MISSING_BITS_SQL = String.format(COMPUTED_CTE, "", "") +
+            "UPDATE persons p SET sacrament_mask = p.sacrament_mask | c.mask FROM computed c " +
+            "WHERE c.person_id = p.id AND (p.sacrament_mask | c.mask) <> p.sacrament_mask";
+
+    // Recálculo completo, paso 2: personas con bits que sus sacramentos no justifican.
+    private static final String EXTRA_BITS_SQL = String.format(COMPUTED_CTE, "", "") +
+            "SELECT p.id FROM persons p LEFT JOIN computed c ON c.person_id = p.id " +
+            "WHERE (p.sacrament_mask & ~COALESCE(c.mask, 0)) <> 0 ORDER BY p.id";
+
+    // Máscara calculada de un conjunto de personas, sin leer la columna (mientras no está poblada).
+    private static final String COMPUTED_MASKS_SQL =
+            String.format(COMPUTED_CTE, "AND s.person_id IN (:ids)", "AND d.spouse_id IN (:ids)") +
+                    "SELECT person_id, mask FROM computed WHERE person_id IN (:ids)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final PersonRepository personRepository;
+    private final ClusterLockService clusterLockService;
+    private final PlatformTransactionManager transactionManager;
+
+    // true cuando este nodo ha comprobado al arrancar que la columna sacrament_mask está al día.
+    private volatile boolean masksPopulated;
+
+    // --- REQUISITOS ---
+
+    private static String ineligibilityReason(SacramentType type, int sacramentMask) {
+        if (type == SacramentType.CONFIRMATION && (sacramentMask & SacramentType.BAPTISM.bit()) == 0) {
+            return "No tiene registrado el Bautismo.";
+        }
+        if (type == SacramentType.MATRIMONY && (sacramentMask & SacramentType.MATRIMONY.bit()) != 0) {
+            return "Ya tiene un matrimonio registrado.";
+        }
+        return null;
+    }
+
+    @Override
+    public void checkPrerequisites(SacramentType type, Person person) {
+        int mask = masksPopulated
+                ? person.getSacramentMask()
+                : computedMasks(Set.of(person.getId())).getOrDefault(person.getId(), 0);
+        String reason = ineligibilityReason(type, mask);
+        if (reason != null) {
+            throw new ResourceValidException(String.format("%s no puede recibir %s: %s",
+                    person.getFullName(), type.getDisplayName(), reason));
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SacramentEligibilityResponse> checkEligibility(SacramentType type, List<Long> personIds) {
+        Map<Long, Integer> masks = new HashMap<>();
+        for (Object[] row : personRepository.findSacramentMasksByIdIn(Set.copyOf(personIds))) {
+            masks.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+        if (!masksPopulated) {
+            Map<Long, Integer> computed = computedMasks(masks.keySet());
+            masks.replaceAll((id, mask) -> computed.getOrDefault(id, 0));
+        }
+        return personIds.stream()
+                .map(id -> {
+                    Integer mask = masks.get(id);
+                    String reason = mask == null ? "Persona no encontrada." : ineligibilityReason(type, mask);
+                    return new SacramentEligibilityResponse(id, reason == null, reason);
+                })
+                .toList();
+    }
+
+    private Map<Long, Integer> computedMasks(Set<Long> personIds) {
+        Map<Long, Integer> masks = new HashMap<>();
+        if (personIds.isEmpty()) {
+            return masks;
+        }
+        jdbcTemplate.query(COMPUTED_MASKS_SQL, new MapSqlParameterSource("ids", personIds),
+                rs -> {
+                    masks.put(rs.getLong(1), rs.getInt(2));
+                });
+        return masks;
+    }
+
+    // --- MANTENIMIENTO DE LA MÁSCARA ---
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordReceived(SacramentType type, Collection<Long> personIds) {
+        Set<Long> ids = personIds.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        if (ids.isEmpty()) {
+            return;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("bit", type.bit()).addValue("ids", ids);
+        if (type != SacramentType.MATRIMONY) {
+            jdbcTemplate.update("UPDATE persons SET sacrament_mask = sacrament_mask | :bit WHERE id IN (:ids)", params);
+            return;
+        }
+        // Solo se marca a quien aún no está casado: si falta alguna fila, otro registro se adelantó.
+        int updated = jdbcTemplate.update("UPDATE persons SET sacrament_mask = sacrament_mask | :bit " +
+                "WHERE id IN (:ids) AND (sacrament_mask & :bit) = 0", params);
+        if (updated != ids.size()) {
+            throw new ResourceValidException("Uno de los contrayentes ya tiene un matrimonio registrado.");
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recompute(Collection<Long> personIds) {
+        Set<Long> ids = personIds.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        if (ids.isEmpty()) {
+            return;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", ids);
+        // En orden de ID para que dos recálculos simultáneos no se bloqueen mutuamente.
+        jdbcTemplate.queryForList("SELECT id FROM persons WHERE id IN (:ids) ORDER BY id FOR UPDATE", params, Long.class);
+        jdbcTemplate.update(String.format(RECOMPUTE_SQL, "AND s.person_id IN (:ids)", "AND d.spouse_id IN (:ids)"), params);
+    }
+
+    /**
+     * Recálculo al arrancar, antes de confiar en la columna: puebla sacrament_mask en el primer despliegue
+     * (en los siguientes es una sola consulta sin cambios). Si otro nodo lo está haciendo, se espera a que
+     * termine y se repite (ya sin cambios) para que este nodo también quede habilitado.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void populateOnStartup() {
+        clusterLockService.runWhenAvailable(LOCK_NAME,
+                () -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> rebuildPending()));
+        masksPopulated = true;
+    }
+
+    /**
+     * Recálculo completo nocturno para corregir desvíos, p. ej. cambios hechos directamente en la base de datos.
+     * Con varios nodos, solo uno lo ejecuta cada vez.
+     */
+    @Override
+    @Scheduled(cron = "${app.sacraments.eligibility.rebuild-cron:0 0 4 * * *}")
+    @Transactional
+    public void rebuildAll() {
+        clusterLockService.runExclusively(LOCK_NAME, this::rebuildPending);
+    }
+
+    private void rebuildPending() {
+        int added = jdbcTemplate.update(ADD_MISSING_BITS_SQL, new MapSqlParameterSource());
+        List<Long> extra = jdbcTemplate.queryForList(EXTRA_BITS_SQL, new MapSqlParameterSource(), Long.class);
+        for (int from = 0; from < extra.size(); from += RECOMPUTE_CHUNK_SIZE) {
+            recompute(extra.subList(from, Math.min(from + RECOMPUTE_CHUNK_SIZE, extra.size())));
+        }
+        log.info("Máscaras sacramentales recalculadas. Personas con bits añadidos: {}. Personas recalculadas: {}",
+                added, extra.size());
+    }
+}
@@ -2,6 +2,7 @@ package com.sgp.sacrament.service;
 
 import com.sgp.sacrament.dto.SacramentRequest;
 import com.sgp.sacrament.dto.SacramentResponse;
+import com.sgp.sacrament.dto.SacramentRow;
 import com.sgp.sacrament.model.Sacrament;
 import com.sgp.sacrament.model.SacramentDetail;
 import org.mapstruct.*;
@@ -17,6 +18,7 @@ public interface SacramentMapper {
     @Mapping(target = "person", ignore = true)
     @Mapping(target = "canonicalStatus", ignore = true)
     @Mapping(target = "sacramentDetail", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Sacrament toSacramentEntity(SacramentRequest request);
 
     // --- Mapeo de Entidad a Response ---
@@ -29,6 +31,8 @@ public interface SacramentMapper {
     @Mapping(source = "sacrament.person.fullName", target = "personFullName")
     @Mapping(source = "sacrament.parish.name", target = "parishName")
     @Mapping(source = "detail", target = "detail")
+    @Mapping(source = "sacrament.version", target = "version")
+    @Mapping(source = "detail.version", target = "detailVersion")
     SacramentResponse toResponse(Sacrament sacrament, SacramentDetail detail);
 
     // Mapeo del detalle (sub-DTO)
@@ -42,4 +46,42 @@ public interface SacramentMapper {
     @Mapping(source = "witness1.fullName", target = "witness1Name")
     @Mapping(source = "witness2.fullName", target = "witness2Name")
     SacramentResponse.SacramentDetailResponse toDetailResponse(SacramentDetail detail);
+
+    // --- Mapeo de la proyección de listados (sin entidades) ---
+    default SacramentResponse toResponse(SacramentRow row) {
+        SacramentResponse.SacramentDetailResponse detail = null;
+        if (row.getDetailId() != null) {
+            detail = SacramentResponse.SacramentDetailResponse.builder()
+                    .officiantMinisterName(row.getOfficiantMinisterName())
+                    .godfather1Name(row.getGodfather1Name())
+                    .godfather2Name(row.getGodfather2Name())
+                    .originParishName(row.getOriginParishName())
+                    .originDioceseName(row.getOriginDioceseName())
+                    .fatherNameText(row.getFatherNameText())
+                    .motherNameText(row.getMotherNameText())
+                    .spouseName(row.getSpouseName())
+                    .spouseFatherNameText(row.getSpouseFatherNameText())
+                    .spouseMotherNameText(row.getSpouseMotherNameText())
+                    .witness1Name(row.getWitness1Name())
+                    .witness2Name(row.getWitness2Name())
+                    .build();
+        }
+
+        return SacramentResponse.builder()
+                .id(row.getId())
+                .type(row.getType())
+                .typeDisplayName(row.getType() != null ? row.getType().getDisplayName() : null)
+                .personId(row.getPersonId())
+                .personFullName(row.getPersonFullName())
+                .celebrationDate(row.getCelebrationDate())
+                .parishName(row.getParishName())
+                .bookNumber(row.getBookNumber())
+                .pageNumber(row.getPageNumber())
+                .entryNumber(row.getEntryNumber())
+                .notes(row.getNotes())
+                .version(row.getVersion())
+                .detailVersion(row.getDetailVersion())
+                .detail(detail)
+                .build();
+    }
 }
\ No newline at end of file
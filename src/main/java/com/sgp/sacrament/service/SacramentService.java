@@ -1,7 +1,9 @@
 package com.sgp.sacrament.service;
 
+import com.sgp.sacrament.dto.MySacramentResponse;
 import com.sgp.sacrament.dto.SacramentRequest;
 import com.sgp.sacrament.dto.SacramentResponse;
+import com.sgp.sacrament.dto.SacramentSearchCriteria;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -15,24 +17,29 @@ public interface SacramentService {
     /** Obtiene un sacramento por su ID. */
     SacramentResponse getSacramentById(Long id);
 
-    /** * Obtiene todos los sacramentos recibidos por la persona asociada al usuario autenticado.
+    /**
+     * Obtiene una página de los sacramentos recibidos por la persona asociada al usuario autenticado
+     * (cacheada por persona).
      */
-    List<SacramentResponse> getMySacraments(); // ⭐ NUEVO MÉTODO ⭐
+    Page<MySacramentResponse> getMySacraments(Pageable pageable);
 
     // ⭐ MODIFICADO/UNIFICADO: Reemplaza getAllSacraments() y getSacramentsByPersonId() para gestión.
     /**
-     * Obtiene una lista paginada de sacramentos, con filtro opcional por ID de persona.
-     * @param personId ID opcional de la Persona para filtrar.
+     * Obtiene una lista paginada de sacramentos filtrada por los criterios indicados (todos opcionales).
+     * @param criteria Filtros de búsqueda (tipo, parroquia, persona, fechas, libro, ministro, nombre).
      * @param pageable Objeto de paginación y ordenamiento.
      * @return Una Page de SacramentResponse.
      */
-    Page<SacramentResponse> findAllSacraments(Long personId, Pageable pageable);
+    Page<SacramentResponse> findAllSacraments(SacramentSearchCriteria criteria, Pageable pageable);
 
     /** Obtiene todos los sacramentos recibidos por una persona específica. */
     List<SacramentResponse> getSacramentsByPersonId(Long personId);
 
-    /** Actualiza un registro de sacramento y sus detalles. */
-    SacramentResponse updateSacrament(Long id, SacramentRequest request);
+    /**
+     * Actualiza un registro de sacramento y sus detalles.
+     * @param ifMatch ETag esperado (cabecera If-Match); null para una actualización incondicional.
+     */
+    SacramentResponse updateSacrament(Long id, SacramentRequest request, String ifMatch);
 
     /** Elimina (lógicamente) un registro de sacramento. */
     void deleteSacrament(Long id);
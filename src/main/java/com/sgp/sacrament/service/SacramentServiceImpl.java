@@ -1,29 +1,43 @@
 package com.sgp.sacrament.service;
 
+import com.sgp.common.cache.PersonPageCache;
 import com.sgp.common.exception.ResourceConflictException;
-import com.sgp.common.exception.ResourceNotAuthorizedException;
 import com.sgp.common.exception.ResourceNotFoundException;
+import com.sgp.common.exception.ResourceValidException;
+import com.sgp.common.util.ETagUtil;
 import com.sgp.parish.model.Parish;
 import com.sgp.parish.repository.ParishRepository;
 import com.sgp.person.model.Person;
 import com.sgp.person.repository.PersonRepository;
+import com.sgp.common.service.SecurityContextService;
+import com.sgp.sacrament.dto.MySacramentResponse;
 import com.sgp.sacrament.dto.SacramentRequest;
 import com.sgp.sacrament.dto.SacramentResponse;
+import com.sgp.sacrament.dto.SacramentRow;
+import com.sgp.sacrament.dto.SacramentSearchCriteria;
+import com.sgp.sacrament.enums.SacramentType;
 import com.sgp.sacrament.model.Sacrament;
 import com.sgp.sacrament.model.SacramentDetail;
+import com.sgp.sacrament.relationship.service.SacramentRelationshipIndex;
 import com.sgp.sacrament.repository.SacramentRepository;
 import com.sgp.sacrament.repository.SacramentDetailRepository; // Asumo que crearemos este
-import com.sgp.user.model.User;
+import com.sgp.sacrament.repository.SacramentSpecifications;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -35,10 +49,18 @@ public class SacramentServiceImpl implements SacramentService {
     private final PersonRepository personRepository;
     private final ParishRepository parishRepository;
     private final SacramentMapper sacramentMapper;
+    private final SecurityContextService securityContextService;
+    private final PersonPageCache personPageCache;
+    private final ActaBloomFilter actaBloomFilter;
+    private final ActaNumberAllocator actaNumberAllocator;
+    private final SacramentStatsService sacramentStatsService;
+    private final SacramentEligibilityService eligibilityService;
+    private final SacramentRelationshipIndex relationshipIndex;
 
     private static final String RESOURCE_SACRAMENT = "Sacramento";
     private static final String RESOURCE_PERSON = "Persona";
     private static final String RESOURCE_PARISH = "Parroquia";
+    private static final int MAX_AUTO_NUMBERING_ATTEMPTS = 3;
 
     // --- Métodos de Ayuda para Búsqueda y Validación ---
 
@@ -47,11 +69,37 @@ public class SacramentServiceImpl implements SacramentService {
                 .orElseThrow(() -> new ResourceNotFoundException(RESOURCE_SACRAMENT, "id", id));
     }
 
-    // Busca una entidad Person (ministro, padrino)
-    private Person findPersonById(Long id, String role) {
-        if (id == null) return null; // Si el ID es nulo, la persona es opcional
-        return personRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException(RESOURCE_PERSON, role + " ID", id));
+    // Recolecta los IDs de todas las personas referenciadas en la solicitud (rol -> ID), en orden de presentación.
+    private Map<String, Long> collectPersonIds(SacramentRequest request) {
+        Map<String, Long> idsByRole = new LinkedHashMap<>();
+        idsByRole.put("Receptora", request.getPersonId());
+        idsByRole.put("Ministro", request.getOfficiantMinisterId());
+        idsByRole.put("Padrino 1", request.getGodfather1Id());
+        idsByRole.put("Padrino 2", request.getGodfather2Id());
+        idsByRole.put("Cónyuge", request.getSpouseId());
+        idsByRole.put("Testigo 1", request.getWitness1Id());
+        idsByRole.put("Testigo 2", request.getWitness2Id());
+        return idsByRole;
+    }
+
+    // Carga todas las personas de la solicitud con una sola consulta (findAllById).
+    // Si falta alguna, informa de todos los IDs no encontrados en un único error.
+    private Map<Long, Person> findPersonsByIds(Map<String, Long> idsByRole) {
+        Set<Long> ids = idsByRole.values().stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        Map<Long, Person> personsById = personRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Person::getId, Function.identity()));
+
+        String missing = idsByRole.entrySet().stream()
+                .filter(entry -> entry.getValue() != null && !personsById.containsKey(entry.getValue()))
+                .map(entry -> entry.getKey() + " " + entry.getValue())
+                .collect(Collectors.joining(", "));
+        if (!missing.isEmpty()) {
+            throw new ResourceNotFoundException(RESOURCE_PERSON, "ID", missing);
+        }
+        return personsById;
     }
 
     // Busca la entidad Parish
@@ -60,11 +108,80 @@ public class SacramentServiceImpl implements SacramentService {
                 .orElseThrow(() -> new ResourceNotFoundException(RESOURCE_PARISH, "ID", id));
     }
 
-    // Valida la unicidad del Acta
+    // Valida la unicidad del Acta. Si el filtro de Bloom descarta el acta se omite la consulta;
+    // el índice único (ver saveActa) cubre las carreras entre peticiones concurrentes.
     private void validateUniqueActa(String book, String page, String entry) {
-        if (sacramentRepository.findByBookNumberAndPageNumberAndEntryNumber(book, page, entry).isPresent()) {
-            throw new ResourceConflictException(RESOURCE_SACRAMENT, "Acta",
-                    String.format("Libro: %s, Página: %s, Acta: %s", book, page, entry));
+        if (actaBloomFilter.mightContain(book, page, entry)
+                && sacramentRepository.findByBookNumberAndPageNumberAndEntryNumber(book, page, entry).isPresent()) {
+            throw actaConflict(book, page, entry);
+        }
+    }
+
+    // Numeración automática: toma el siguiente número del libro. Si ya existe (registrado a mano),
+    // la secuencia salta de una vez por encima de la última acta del libro en lugar de avanzar acta por acta:
+    // así nunca se agotan los intentos por muchas actas manuales, aunque la transacción se revierta.
+    private void assignActaNumber(SacramentRequest request) {
+        for (int attempt = 0; attempt < MAX_AUTO_NUMBERING_ATTEMPTS; attempt++) {
+            ActaNumberAllocator.ActaNumber number = actaNumberAllocator.allocate(request.getBookNumber());
+            request.setPageNumber(number.pageNumber());
+            request.setEntryNumber(number.entryNumber());
+            if (!actaBloomFilter.mightContain(request.getBookNumber(), number.pageNumber(), number.entryNumber())
+                    || sacramentRepository.findByBookNumberAndPageNumberAndEntryNumber(
+                            request.getBookNumber(), number.pageNumber(), number.entryNumber()).isEmpty()) {
+                return;
+            }
+            actaNumberAllocator.advancePastExisting(request.getBookNumber());
+        }
+        throw new ResourceValidException("No se pudo asignar automáticamente un número de acta libre en el libro "
+                + request.getBookNumber() + ". Indique la página y el acta manualmente.");
+    }
+
+    private ResourceConflictException actaConflict(String book, String page, String entry) {
+        return new ResourceConflictException(RESOURCE_SACRAMENT, "Acta",
+                String.format("Libro: %s, Página: %s, Acta: %s", book, page, entry));
+    }
+
+    // Guarda (con flush) y traduce la violación del índice único de actas a ResourceConflictException.
+    private Sacrament saveActa(Sacrament sacrament) {
+        try {
+            Sacrament saved = sacramentRepository.saveAndFlush(sacrament);
+            actaBloomFilter.put(saved.getBookNumber(), saved.getPageNumber(), saved.getEntryNumber());
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            if (isActaConstraintViolation(e)) {
+                throw actaConflict(sacrament.getBookNumber(), sacrament.getPageNumber(), sacrament.getEntryNumber());
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isActaConstraintViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation
+                    && Sacrament.ACTA_CONSTRAINT.equalsIgnoreCase(violation.getConstraintName())) {
+                return true;
+            }
+        }
+        return e.getMessage() != null && e.getMessage().contains(Sacrament.ACTA_CONSTRAINT);
+    }
+
+    // Personas que reciben el sacramento: el receptor y, en los matrimonios, también el cónyuge.
+    private static List<Person> receivingParties(SacramentType type, Person recipient, Person spouse) {
+        return type == SacramentType.MATRIMONY && spouse != null ? List.of(recipient, spouse) : List.of(recipient);
+    }
+
+    private static Set<Long> idsOf(List<Person> persons) {
+        return persons.stream().map(Person::getId).collect(Collectors.toCollection(HashSet::new));
+    }
+
+    // Requisitos sacramentales con la máscara precalculada de cada persona (sin consultas). Quien ya
+    // recibía este mismo tipo en el registro que se actualiza no se vuelve a comprobar.
+    private void checkPrerequisites(SacramentType type, List<Person> parties, SacramentType previousType, Set<Long> previousParties) {
+        for (Person party : parties) {
+            if (type == previousType && previousParties.contains(party.getId())) {
+                continue;
+            }
+            eligibilityService.checkPrerequisites(type, party);
         }
     }
 
@@ -72,21 +189,29 @@ public class SacramentServiceImpl implements SacramentService {
     @Override
     @Transactional
     public SacramentResponse createSacrament(SacramentRequest request) {
-        // 1. Validar unicidad del Acta
+        // 1. Asignar el número de acta (modo automático) o validar la unicidad del Acta indicada
+        if (request.isAutoNumbering()) {
+            assignActaNumber(request);
+        }
         validateUniqueActa(request.getBookNumber(), request.getPageNumber(), request.getEntryNumber());
 
-        // 2. Buscar y validar entidades relacionadas
-        Person recipient = findPersonById(request.getPersonId(), "Receptora");
+        // 2. Buscar y validar entidades relacionadas (todas las personas en una sola consulta)
+        Map<Long, Person> persons = findPersonsByIds(collectPersonIds(request));
         Parish parish = findParishById(request.getParishId());
 
-        Person minister = findPersonById(request.getOfficiantMinisterId(), "Ministro");
-        Person godfather1 = findPersonById(request.getGodfather1Id(), "Padrino 1");
-        Person godfather2 = findPersonById(request.getGodfather2Id(), "Padrino 2");
+        Person recipient = persons.get(request.getPersonId());
+        Person minister = persons.get(request.getOfficiantMinisterId());
+        Person godfather1 = persons.get(request.getGodfather1Id());
+        Person godfather2 = persons.get(request.getGodfather2Id());
 
-        // ⭐ BUSCAR ENTIDADES DE MATRIMONIO/TESTIGOS ⭐
-        Person spouse = findPersonById(request.getSpouseId(), "Cónyuge"); // Suponiendo request.getSpouseId() existe
-        Person witness1 = findPersonById(request.getWitness1Id(), "Testigo 1"); // Suponiendo request.getWitness1Id() existe
-        Person witness2 = findPersonById(request.getWitness2Id(), "Testigo 2"); // Suponiendo request.getWitness2Id() existe
+        // ⭐ ENTIDADES DE MATRIMONIO/TESTIGOS ⭐
+        Person spouse = persons.get(request.getSpouseId());
+        Person witness1 = persons.get(request.getWitness1Id());
+        Person witness2 = persons.get(request.getWitness2Id());
+
+        // Requisitos: Confirmación requiere Bautismo; Matrimonio, no estar ya casado.
+        List<Person> parties = receivingParties(request.getType(), recipient, spouse);
+        checkPrerequisites(request.getType(), parties, null, Set.of());
 
         // 3. Mapear y asignar
         Sacrament sacrament = sacramentMapper.toSacramentEntity(request);
@@ -94,7 +219,9 @@ public class SacramentServiceImpl implements SacramentService {
         sacrament.setParish(parish);
 
         // 4. Guardar Sacrament
-        Sacrament savedSacrament = sacramentRepository.save(sacrament);
+        Sacrament savedSacrament = saveActa(sacrament);
+        sacramentStatsService.recordTransition(null, SacramentStatsService.RollupKey.of(savedSacrament));
+        eligibilityService.recordReceived(savedSacrament.getType(), idsOf(parties));
 
         // 5. Crear y guardar SacramentDetail
         SacramentDetail detail = new SacramentDetail();
@@ -117,6 +244,8 @@ public class SacramentServiceImpl implements SacramentService {
 
         SacramentDetail savedDetail = sacramentDetailRepository.save(detail);
         savedSacrament.setSacramentDetail(savedDetail); // Enlazar el detalle de vuelta al sacramento
+        relationshipIndex.onSacramentsSaved(List.of(SacramentRelationshipIndex.SacramentEdges.of(savedSacrament)));
+        personPageCache.invalidate(PersonPageCache.AREA_SACRAMENTS, recipient.getId());
 
         // 6. Responder
         return sacramentMapper.toResponse(savedSacrament, savedDetail);
@@ -135,69 +264,94 @@ public class SacramentServiceImpl implements SacramentService {
     // ⭐ NUEVO/MODIFICADO: Implementación de Paginación y Filtrado Unificado ⭐
     @Override
     @Transactional(readOnly = true)
-    public Page<SacramentResponse> findAllSacraments(Long personId, Pageable pageable) {
-        Page<Sacrament> sacramentPage;
-
-        // 1. Decidir si filtrar por persona
-        if (personId != null) {
-            // Opcional: Validar la existencia de la persona si no se espera que el filtro falle
-            if (!personRepository.existsById(personId)) {
-                throw new ResourceNotFoundException(RESOURCE_PERSON, "id", personId);
-            }
-            sacramentPage = sacramentRepository.findByPerson_Id(personId, pageable);
-        } else {
-            // 2. Si no hay filtro, buscar todos paginados
-            sacramentPage = sacramentRepository.findAll(pageable);
+    public Page<SacramentResponse> findAllSacraments(SacramentSearchCriteria criteria, Pageable pageable) {
+        // 1. Sin filtros: una consulta por página con todas las columnas de la respuesta (sin N+1 por fila).
+        if (criteria.isEmpty()) {
+            return sacramentRepository.findAllRows(pageable).map(sacramentMapper::toResponse);
+        }
+
+        // Opcional: Validar la existencia de la persona si no se espera que el filtro falle
+        if (criteria.getPersonId() != null && !personRepository.existsById(criteria.getPersonId())) {
+            throw new ResourceNotFoundException(RESOURCE_PERSON, "id", criteria.getPersonId());
+        }
+
+        // 2. Búsqueda en dos fases: página de IDs por Specification (índices) y proyección de esas filas.
+        Page<Long> idPage = sacramentRepository.searchIds(SacramentSpecifications.fromCriteria(criteria), pageable);
+        if (idPage.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, idPage.getTotalElements());
         }
+        Map<Long, SacramentRow> rows = sacramentRepository.findRowsByIdIn(idPage.getContent()).stream()
+                .collect(Collectors.toMap(SacramentRow::getId, Function.identity()));
 
-        // 3. Mapear Page<Sacrament> a Page<SacramentResponse>
-        return sacramentPage.map(s -> sacramentMapper.toResponse(s, s.getSacramentDetail()));
+        // 3. Mapear respetando el orden de la página de IDs
+        return idPage.map(id -> sacramentMapper.toResponse(rows.get(id)));
     }
 
     // --- READ (By Person) ---
     @Override
     @Transactional(readOnly = true)
     public List<SacramentResponse> getSacramentsByPersonId(Long personId) {
-        return sacramentRepository.findByPerson_Id(personId).stream()
-                .map(s -> sacramentMapper.toResponse(s, s.getSacramentDetail()))
+        return sacramentRepository.findRowsByPersonId(personId, Pageable.unpaged()).stream()
+                .map(sacramentMapper::toResponse)
                 .collect(Collectors.toList());
     }
 
     // --- UPDATE ---
     @Override
     @Transactional
-    public SacramentResponse updateSacrament(Long id, SacramentRequest request) {
+    public SacramentResponse updateSacrament(Long id, SacramentRequest request, String ifMatch) {
         Sacrament existingSacrament = findSacramentById(id);
         SacramentDetail existingDetail = existingSacrament.getSacramentDetail();
 
-        // 1. Validar unicidad si los números de Acta han cambiado
+        // 0. Concurrencia optimista: el ETag combina la versión del sacramento y la de su detalle.
+        ETagUtil.checkIfMatch(ifMatch, ETagUtil.of(existingSacrament.getVersion(), existingDetail.getVersion()),
+                RESOURCE_SACRAMENT, id);
+
+        // 1. Numeración automática: se conserva el acta si el libro no cambia; si cambia, se asigna una nueva.
+        if (request.isAutoNumbering()) {
+            if (existingSacrament.getBookNumber().equals(request.getBookNumber())) {
+                request.setPageNumber(existingSacrament.getPageNumber());
+                request.setEntryNumber(existingSacrament.getEntryNumber());
+            } else {
+                assignActaNumber(request);
+            }
+        }
+
+        // Validar unicidad si los números de Acta han cambiado
         boolean actaChanged = !existingSacrament.getBookNumber().equals(request.getBookNumber()) ||
                 !existingSacrament.getPageNumber().equals(request.getPageNumber()) ||
                 !existingSacrament.getEntryNumber().equals(request.getEntryNumber());
 
-        if (actaChanged) {
+        if (actaChanged && actaBloomFilter.mightContain(request.getBookNumber(), request.getPageNumber(), request.getEntryNumber())) {
             sacramentRepository.findByBookNumberAndPageNumberAndEntryNumber(
                             request.getBookNumber(), request.getPageNumber(), request.getEntryNumber())
                     .filter(s -> !s.getId().equals(id)) // Asegurar que no sea este mismo registro
                     .ifPresent(s -> {
-                        throw new ResourceConflictException(RESOURCE_SACRAMENT, "Acta", "ya existe");
+                        throw actaConflict(request.getBookNumber(), request.getPageNumber(), request.getEntryNumber());
                     });
         }
 
-        // 2. Buscar y validar entidades relacionadas para actualizar
-        Person recipient = findPersonById(request.getPersonId(), "Receptora");
-        Parish parish = findParishById(request.getParishId());
+        Long previousRecipientId = existingSacrament.getPerson().getId();
+        SacramentStatsService.RollupKey previousRollupKey = SacramentStatsService.RollupKey.of(existingSacrament);
+        SacramentType previousType = existingSacrament.getType();
+        Set<Long> previousParties = idsOf(receivingParties(previousType, existingSacrament.getPerson(), existingDetail.getSpouse()));
 
-        Person minister = findPersonById(request.getOfficiantMinisterId(), "Ministro");
-        Person godfather1 = findPersonById(request.getGodfather1Id(), "Padrino 1");
-        Person godfather2 = findPersonById(request.getGodfather2Id(), "Padrino 2");
+        // 2. Buscar y validar entidades relacionadas para actualizar (todas las personas en una sola consulta)
+        Map<Long, Person> persons = findPersonsByIds(collectPersonIds(request));
+        Parish parish = findParishById(request.getParishId());
 
-        // ⭐ BUSCAR ENTIDADES DE MATRIMONIO/TESTIGOS ⭐
-        Person spouse = findPersonById(request.getSpouseId(), "Cónyuge");
-        Person witness1 = findPersonById(request.getWitness1Id(), "Testigo 1");
-        Person witness2 = findPersonById(request.getWitness2Id(), "Testigo 2");
+        Person recipient = persons.get(request.getPersonId());
+        Person minister = persons.get(request.getOfficiantMinisterId());
+        Person godfather1 = persons.get(request.getGodfather1Id());
+        Person godfather2 = persons.get(request.getGodfather2Id());
 
+        // ⭐ ENTIDADES DE MATRIMONIO/TESTIGOS ⭐
+        Person spouse = persons.get(request.getSpouseId());
+        Person witness1 = persons.get(request.getWitness1Id());
+        Person witness2 = persons.get(request.getWitness2Id());
 
+        List<Person> parties = receivingParties(request.getType(), recipient, spouse);
+        checkPrerequisites(request.getType(), parties, previousType, previousParties);
 
         // 3. Actualizar Sacrament (Usando el mapper para los campos básicos, si es posible)
         // Ya que MapStruct no soporta el mapeo de Request a Entity sobre un existente fácilmente con IDs
@@ -239,7 +393,16 @@ public class SacramentServiceImpl implements SacramentService {
         // Por ahora, confiamos en que Spring Data JPA gestione la persistencia del Detail
         // o que la salvación explícita en el detail repo sea necesaria.
         // Si tienes una relación bidireccional adecuada, solo guardar el Sacrament es suficiente.
-        Sacrament updatedSacrament = sacramentRepository.save(existingSacrament);
+        // saveAndFlush: el UPDATE ... WHERE version = ? se ejecuta aquí y devuelve las versiones nuevas.
+        Sacrament updatedSacrament = saveActa(existingSacrament);
+        sacramentStatsService.recordTransition(previousRollupKey, SacramentStatsService.RollupKey.of(updatedSacrament));
+        Set<Long> affectedParties = new HashSet<>(previousParties);
+        affectedParties.addAll(idsOf(parties));
+        eligibilityService.recompute(affectedParties);
+        if (updatedSacrament.isActive()) {
+            relationshipIndex.onSacramentsSaved(List.of(SacramentRelationshipIndex.SacramentEdges.of(updatedSacrament)));
+        }
+        personPageCache.invalidate(PersonPageCache.AREA_SACRAMENTS, previousRecipientId, recipient.getId());
 
         // 5. Responder
         return sacramentMapper.toResponse(updatedSacrament, existingDetail);
@@ -259,8 +422,11 @@ public class SacramentServiceImpl implements SacramentService {
         // Nota: Si SacramentDetail también debe ser marcado,
         // Pero dado que es un registro canónico, el principal es el Sacrament.
         // 1. Eliminación Lógica del Sacramento principal
+        SacramentStatsService.RollupKey rollupKey = SacramentStatsService.RollupKey.of(sacrament);
         sacrament.setActive(false);
-        sacramentRepository.save(sacrament);
+        sacramentRepository.saveAndFlush(sacrament); // flush: el recálculo de las máscaras lee la tabla por SQL
+        sacramentStatsService.recordTransition(rollupKey, null);
+        relationshipIndex.onSacramentRemoved(sacrament.getId());
 
         // 2. Eliminación Lógica del Detalle asociado (CRÍTICO)
         // El 'detail' debe cargarse junto con el sacramento, o buscarse por separado.
@@ -269,33 +435,19 @@ public class SacramentServiceImpl implements SacramentService {
             detail.setActive(false);
             sacramentDetailRepository.save(detail);
         }
+        eligibilityService.recompute(idsOf(receivingParties(sacrament.getType(), sacrament.getPerson(),
+                detail != null ? detail.getSpouse() : null)));
+        personPageCache.invalidate(PersonPageCache.AREA_SACRAMENTS, sacrament.getPerson().getId());
     }
 
     // --- READ (My Sacraments) ---
+    // Una sola consulta con proyección; la página se cachea por persona y se invalida cuando cambian sus sacramentos.
     @Override
     @Transactional(readOnly = true)
-    public List<SacramentResponse> getMySacraments() {
-        // 1. Obtener el User ID del contexto de seguridad
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-
-        // El 'principal' es el objeto UserDetails (que en tu caso es la entidad User)
-        // pero necesitamos el ID del User para buscar la Person.
-
-        Long userId ;
-        if (auth.getPrincipal() instanceof UserDetails) {
-            // Asumiendo que tu entidad User implementa UserDetails y tiene el ID
-            userId = ((User) auth.getPrincipal()).getId();
-        } else {
-            // En caso de que no sea un usuario autenticado (debería ser filtrado por @PreAuthorize)
-            throw new ResourceNotAuthorizedException("Acceso no autorizado al recurso personal.");
-        }
-
-        // 2. Buscar la Persona asociada a este User ID
-        Person person = personRepository.findByUser_Id(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Persona", "Usuario ID", userId));
-
-        // 3. Llamar a la función existente con el ID de la Persona canónica
-        return getSacramentsByPersonId(person.getId());
+    public Page<MySacramentResponse> getMySacraments(Pageable pageable) {
+        Long personId = securityContextService.findPersonIdForCurrentUser();
+        return personPageCache.getPage(PersonPageCache.AREA_SACRAMENTS, personId, pageable, MySacramentResponse.class,
+                () -> sacramentRepository.findMySacraments(personId, pageable));
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.sgp.sacrament.service;
+
+import com.sgp.sacrament.dto.SacramentStatsResponse;
+import com.sgp.sacrament.enums.SacramentType;
+import com.sgp.sacrament.model.Sacrament;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+public interface SacramentStatsService {
+
+    /** Clave del resumen: parroquia, tipo y año de celebración. */
+    record RollupKey(Long parishId, SacramentType type, int year) {
+
+        public static RollupKey of(Long parishId, SacramentType type, LocalDate celebrationDate) {
+            return new RollupKey(parishId, type, celebrationDate.getYear());
+        }
+
+        /** Clave de un sacramento activo, o null si está inactivo (no cuenta en los resúmenes). */
+        public static RollupKey of(Sacrament sacrament) {
+            if (!sacrament.isActive()) {
+                return null;
+            }
+            return of(sacrament.getParish().getId(), sacrament.getType(), sacrament.getCelebrationDate());
+        }
+    }
+
+    /**
+     * Registra el movimiento de un sacramento entre dos claves del resumen. Cualquiera de los dos
+     * extremos puede ser null: origen null al crear, destino null al eliminar lógicamente.
+     * Debe llamarse dentro de la transacción que modifica el sacramento.
+     */
+    void recordTransition(RollupKey from, RollupKey to);
+
+    /**
+     * Registra un conjunto de altas (importación masiva): un UPSERT por clave distinta.
+     * Debe llamarse dentro de la transacción que inserta los sacramentos.
+     */
+    void recordCreated(Collection<RollupKey> keys);
+
+    /**
+     * Obtiene el número de sacramentos por año y tipo de una parroquia, o de todas si parishId es null.
+     * Lee la tabla de resúmenes: el coste no depende del tamaño de la tabla sacraments.
+     */
+    SacramentStatsResponse getStats(Long parishId, Integer fromYear, Integer toYear);
+
+    /**
+     * Reconstruye todos los resúmenes a partir de la tabla de sacramentos.
+     */
+    void rebuild();
+}
@@ -0,0 +1,145 @@
+package com.sgp.sacrament.service;
+
+import com.sgp.common.exception.ResourceValidException;
+import com.sgp.common.service.SecurityContextService;
+import com.sgp.sacrament.dto.SacramentStatsResponse;
+import com.sgp.sacrament.enums.SacramentType;
+import com.sgp.sacrament.model.SacramentYearlyCount;
+import com.sgp.sacrament.repository.SacramentYearlyCountRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Year;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Mantiene los resúmenes materializados de sacramentos por parroquia, tipo y año.
+ * Las actualizaciones son UPSERTs atómicos en la misma transacción que el sacramento,
+ * y un job nocturno (o el endpoint de reconstrucción) los recalcula desde la tabla sacraments.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SacramentStatsServiceImpl implements SacramentStatsService {
+
+    private final SacramentYearlyCountRepository countRepository;
+    private final SecurityContextService securityContextService;
+
+    // --- ACTUALIZACIÓN INCREMENTAL ---
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTransition(RollupKey from, RollupKey to) {
+        // Sin cambio efectivo de (parroquia, tipo, año): no se toca la tabla.
+        if (Objects.equals(from, to)) {
+            return;
+        }
+        // Excluye la reconstrucción mientras esta transacción no termine (ver rebuild()).
+        countRepository.lockForIncrement();
+        if (from != null) {
+            increment(from, -1);
+        }
+        if (to != null) {
+            increment(to, 1);
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreated(Collection<RollupKey> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        countRepository.lockForIncrement();
+        keys.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()))
+                .forEach(this::increment);
+    }
+
+    private void increment(RollupKey key, long delta) {
+        countRepository.increment(key.parishId(), key.type().name(), key.year(), delta);
+    }
+
+    // --- LECTURA (Informes parroquiales) ---
+
+    @Override
+    @Transactional(readOnly = true)
+    public SacramentStatsResponse getStats(Long requestedParishId, Integer fromYear, Integer toYear) {
+        // GESTOR y COORDINATOR solo ven su parroquia; ADMIN cualquiera o el total.
+        Long parishId = securityContextService.resolveParishScope(requestedParishId);
+        int to = toYear != null ? toYear : Year.now().getValue();
+        int from = fromYear != null ? fromYear : to;
+        if (from > to) {
+            throw new ResourceValidException("El año inicial no puede ser posterior al año final.");
+        }
+
+        // Año -> (tipo -> número), del más reciente al más antiguo
+        Map<Integer, Map<SacramentType, Long>> byYear = new TreeMap<>(Comparator.reverseOrder());
+        if (parishId != null) {
+            for (SacramentYearlyCount count : countRepository.findByParishAndYears(parishId, from, to)) {
+                yearCounts(byYear, count.getCelebrationYear()).put(count.getType(), count.getSacramentCount());
+            }
+        } else {
+            for (Object[] row : countRepository.sumAllByYearAndType(from, to)) {
+                yearCounts(byYear, ((Number) row[0]).intValue()).put((SacramentType) row[1], ((Number) row[2]).longValue());
+            }
+        }
+
+        List<SacramentStatsResponse.YearStats> years = byYear.entrySet().stream()
+                .map(entry -> new SacramentStatsResponse.YearStats(entry.getKey(), entry.getValue(),
+                        entry.getValue().values().stream().mapToLong(Long::longValue).sum()))
+                .toList();
+
+        return SacramentStatsResponse.builder()
+                .parishId(parishId)
+                .fromYear(from)
+                .toYear(to)
+                .years(years)
+                .build();
+    }
+
+    private static Map<SacramentType, Long> yearCounts(Map<Integer, Map<SacramentType, Long>> byYear, int year) {
+        return byYear.computeIfAbsent(year, y -> {
+            Map<SacramentType, Long> counts = new EnumMap<>(SacramentType.class);
+            for (SacramentType type : SacramentType.values()) {
+                counts.put(type, 0L);
+            }
+            return counts;
+        });
+    }
+
+    // --- RECONSTRUCCIÓN ---
+
+    /**
+     * Recalcula los resúmenes desde cero. Se ejecuta cada noche (por defecto a las 03:15),
+     * una vez poco después del arranque para poblar la tabla en el primer despliegue,
+     * y a demanda desde el endpoint de reconstrucción.
+     *
+     * El bloqueo exclusivo espera a que confirmen las transacciones que ya movieron un resumen
+     * y retiene las siguientes; el recálculo va en sentencias posteriores al bloqueo, por lo que
+     * su snapshot incluye todo lo confirmado y no pisa incrementos concurrentes.
+     */
+    @Override
+    @Scheduled(initialDelay = 45000)
+    @Scheduled(cron = "${app.sacraments.stats.rebuild-cron:0 15 3 * * *}")
+    @Transactional
+    public void rebuild() {
+        countRepository.lockForRebuild();
+        int reset = countRepository.resetOrphanCounts();
+        int recomputed = countRepository.recomputeFromSacraments();
+        log.info("Resúmenes de sacramentos reconstruidos. Filas recalculadas: {}. Filas puestas a cero: {}", recomputed, reset);
+    }
+}
@@ -4,9 +4,11 @@ import com.sgp.security.config.jwt.JwtAuthenticationFilter;
 import com.sgp.security.service.LoginAttemptService;
 import com.sgp.user.model.User;
 import com.sgp.user.repository.UserRepository;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.LockedException;
@@ -55,6 +57,10 @@ public class SecurityConfig {
                 // Define las reglas de autorización para los endpoints
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/api/v1/auth/**").permitAll()
+                        // Feed iCalendar: las apps de calendario no envían JWT; se protege con el token de la parroquia
+                        .requestMatchers(HttpMethod.GET, "/api/v1/appointments/calendar/*.ics").permitAll()
+                        // Los despachos ASYNC (p. ej. el cierre de un flujo SSE) ya fueron autorizados en la petición original
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .anyRequest().authenticated()
                 )
 
@@ -0,0 +1,24 @@
+package com.sgp.user.dto;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección de una fila del listado de administración (usuario + nombre de su Persona),
+ * construida directamente en la consulta JPQL sin cargar entidades.
+ */
+@Value
+public class UserListRow {
+    Long id;
+    String email;
+    boolean isActive;
+    boolean isEnabled;
+    boolean forcePasswordChange;
+    String firstName;
+    String lastName;
+    LocalDateTime createdAt;
+    String createdBy;
+    LocalDateTime updatedAt;
+    String updatedBy;
+}
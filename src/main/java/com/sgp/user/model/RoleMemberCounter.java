@@ -0,0 +1,37 @@
+package com.sgp.user.model;
+
+import com.sgp.common.enums.RoleName;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Contador materializado de usuarios activos y habilitados por rol (hoy solo se mantiene ADMIN).
+ * Se actualiza en la misma transacción que el cambio del usuario; la baja de un administrador es un
+ * UPDATE condicional (member_count > 1), de modo que dos bajas simultáneas no pueden dejarlo en cero.
+ */
+@Entity
+@Table(name = "role_member_counters", uniqueConstraints = {
+        @UniqueConstraint(name = "uc_role_member_counter_role", columnNames = {"role_name"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RoleMemberCounter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "role_name", nullable = false, length = 20)
+    private RoleName roleName;
+
+    @Column(name = "member_count", nullable = false)
+    private long memberCount;
+}
@@ -1,19 +1,27 @@
 package com.sgp.user.model;
 
 
+import com.sgp.common.enums.RoleName;
 import com.sgp.common.model.Auditable;
 import com.sgp.person.model.Person;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
+import java.util.EnumMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -56,6 +64,22 @@ public class User extends Auditable implements UserDetails {
     )
     private Set<Role> roles = new HashSet<>();
 
+    // Authorities ya calculadas para 'roles' (se consultan en cada petición autenticada).
+    // Se invalidan en setRoles y cuando la referencia del Set cambia (p. ej. al cargar desde JPA o el builder).
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Set<GrantedAuthority> cachedAuthorities;
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Set<Role> cachedAuthoritiesSource;
+
 //    // Relación OneToOne con Profile (Mapeada en la clase Profile) ELIMINADA
 //    @OneToOne(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
 //    private Profile profile;
@@ -64,13 +88,33 @@ public class User extends Auditable implements UserDetails {
     // ⭐ IMPLEMENTACIÓN DE MÉTODOS DE USERDETAILS ⭐
     // ====================================================================
 
-    // Retorna los roles del usuario como GrantedAuthorities
+    // Una sola instancia de SimpleGrantedAuthority por rol, compartida por todos los usuarios.
+    private static final Map<RoleName, GrantedAuthority> AUTHORITIES_BY_ROLE = new EnumMap<>(RoleName.class);
+
+    static {
+        for (RoleName roleName : RoleName.values()) {
+            AUTHORITIES_BY_ROLE.put(roleName, new SimpleGrantedAuthority(roleName.toString()));
+        }
+    }
+
+    public void setRoles(Set<Role> roles) {
+        this.roles = roles;
+        this.cachedAuthorities = null;
+        this.cachedAuthoritiesSource = null;
+    }
+
+    // Retorna los roles del usuario como GrantedAuthorities (Set inmutable, calculado una vez por Set de roles)
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        // Mapea el Set<Role> a una Collection<GrantedAuthority>
-        return roles.stream()
-                .map(role -> new SimpleGrantedAuthority(role.getName().toString()))
-                .collect(Collectors.toList());
+        Set<GrantedAuthority> authorities = cachedAuthorities;
+        if (authorities == null || cachedAuthoritiesSource != roles) {
+            authorities = roles == null ? Set.of() : roles.stream()
+                    .map(role -> AUTHORITIES_BY_ROLE.get(role.getName()))
+                    .collect(Collectors.toUnmodifiableSet());
+            cachedAuthorities = authorities;
+            cachedAuthoritiesSource = roles;
+        }
+        return authorities;
     }
 
     // El email se usa como nombre de usuario para el login
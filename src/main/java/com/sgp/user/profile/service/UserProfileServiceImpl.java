@@ -1,16 +1,17 @@
 package com.sgp.user.profile.service;
 
-import com.sgp.common.enums.RoleName;
-import com.sgp.common.exception.InvalidStateTransitionException;
 import com.sgp.common.exception.ResourceNotFoundException;
 import com.sgp.common.util.SecurityUtil;
 import com.sgp.person.model.Person;
 import com.sgp.person.repository.PersonRepository;
+import com.sgp.person.search.PersonAutocompleteIndex;
+import com.sgp.person.search.PersonNameIndex;
 import com.sgp.user.profile.dto.ProfileResponse;
 import com.sgp.user.model.User;
 import com.sgp.user.profile.dto.PasswordUpdateRequest;
 import com.sgp.user.profile.dto.ProfileUpdateRequest;
 import com.sgp.user.repository.UserRepository;
+import com.sgp.user.service.AdminCountService;
 import com.sgp.user.service.UserMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -29,6 +30,9 @@ public class UserProfileServiceImpl implements UserProfileService { // ¡CAMBIO
     private final UserMapper userMapper;
     private final PersonRepository personRepository;
     private final PasswordEncoder passwordEncoder;
+    private final AdminCountService adminCountService;
+    private final PersonNameIndex personNameIndex;
+    private final PersonAutocompleteIndex personAutocompleteIndex;
 
     /**
      * Obtiene los datos del perfil del usuario AUTENTICADO.
@@ -85,7 +89,15 @@ public class UserProfileServiceImpl implements UserProfileService { // ¡CAMBIO
         // 3. Guardar la entidad Person actualizada
         personRepository.save(person);
 
-        // 4. Devolver la respuesta del perfil actualizado
+        // 4. Nombre y fecha de nacimiento en los índices de búsqueda y autocompletado (después del commit)
+        if (person.isActive()) {
+            Long parishId = person.getParish() != null ? person.getParish().getId() : null;
+            personNameIndex.onPersonSaved(person.getId(), parishId, person.getFirstName(), person.getLastName());
+            personAutocompleteIndex.onPersonSaved(person.getId(), parishId, person.getFirstName(), person.getLastName(),
+                    person.getBirthDate());
+        }
+
+        // 5. Devolver la respuesta del perfil actualizado
         return getCurrentUserProfile();
     }
 
@@ -119,21 +131,13 @@ public class UserProfileServiceImpl implements UserProfileService { // ¡CAMBIO
     @Transactional
     @Override
     public void softDeleteMyAccount() {
-        User user = SecurityUtil.getCurrentUserAuthenticated();
+        User user = userRepository.findByIdForUpdate(SecurityUtil.getCurrentUserId())
+                .orElseThrow(() -> new ResourceNotFoundException("Usuario", "id", SecurityUtil.getCurrentUserId()));
 
-        // 1. VALIDACIÓN DE ADMIN ÚNICO: Impedir que el último ADMIN activo se de de baja.
-        boolean isCurrentUserAdmin = user.getRoles().stream().anyMatch(r -> r.getName() == RoleName.ADMIN);
-
-        if (isCurrentUserAdmin) {
-            // Reutilizamos el método de conteo del repositorio de administración
-            long adminCount = userRepository.countByRolesName(RoleName.ADMIN);
-
-            if (adminCount == 1) {
-                throw new InvalidStateTransitionException(
-                        "Conflicto de estado: No puedes dar de baja tu cuenta ya que eres el único administrador restante. Contacta a soporte para transferir el rol de administrador antes de proceder."
-                );
-            }
-        }
+        // 1. VALIDACIÓN DE ADMIN ÚNICO: Impedir que el último ADMIN activo se de de baja
+        //    (UPDATE condicional del contador de administradores: atómico frente a bajas simultáneas).
+        adminCountService.recordTransition(adminCountService.countsAsAdmin(user), false,
+                "Conflicto de estado: No puedes dar de baja tu cuenta ya que eres el único administrador restante. Contacta a soporte para transferir el rol de administrador antes de proceder.");
 
         // 2. APLICAR BORRADO LÓGICO
         user.softDelete(); // Establece isActive = false y registra deletedAt
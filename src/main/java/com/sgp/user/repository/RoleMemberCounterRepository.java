@@ -0,0 +1,67 @@
+package com.sgp.user.repository;
+
+import com.sgp.common.enums.RoleName;
+import com.sgp.user.model.RoleMemberCounter;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface RoleMemberCounterRepository extends JpaRepository<RoleMemberCounter, Long> {
+
+    /**
+     * Suma atómicamente un miembro al contador del rol, creándolo si no existe.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO role_member_counters (role_name, member_count) VALUES (:roleName, 1) " +
+            "ON CONFLICT (role_name) DO UPDATE SET member_count = role_member_counters.member_count + 1",
+            nativeQuery = true)
+    void increment(@Param("roleName") String roleName);
+
+    /**
+     * Resta un miembro solo si no es el último. Devuelve 0 si el rol se quedaría vacío
+     * (el bloqueo de la fila serializa las bajas concurrentes).
+     */
+    @Modifying
+    @Query(value = "UPDATE role_member_counters SET member_count = member_count - 1 " +
+            "WHERE role_name = :roleName AND member_count > 1",
+            nativeQuery = true)
+    int decrementIfNotLast(@Param("roleName") String roleName);
+
+    /**
+     * Crea el contador del rol a cero si aún no existe (primer despliegue), para poder bloquearlo.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO role_member_counters (role_name, member_count) VALUES (:roleName, 0) " +
+            "ON CONFLICT (role_name) DO NOTHING",
+            nativeQuery = true)
+    void createIfMissing(@Param("roleName") String roleName);
+
+    /**
+     * Bloquea la fila del contador (SELECT ... FOR UPDATE) hasta el fin de la transacción:
+     * espera a las altas/bajas en curso y retiene las siguientes.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM RoleMemberCounter c WHERE c.roleName = :roleName")
+    Optional<RoleMemberCounter> findByRoleNameForUpdate(@Param("roleName") RoleName roleName);
+
+    /**
+     * Recalcula el contador del rol desde user_roles (usuarios activos y habilitados).
+     * Debe ejecutarse después de findByRoleNameForUpdate, en una sentencia aparte: así su snapshot
+     * incluye todas las transacciones que ya movieron el contador.
+     */
+    @Modifying
+    @Query(value = "UPDATE role_member_counters SET member_count = (" +
+            "SELECT COUNT(DISTINCT u.id) FROM users u " +
+            "JOIN user_roles ur ON ur.user_id = u.id JOIN roles r ON r.id = ur.role_id " +
+            "WHERE r.name = :roleName AND u.is_active = true AND u.is_enabled = true) " +
+            "WHERE role_name = :roleName",
+            nativeQuery = true)
+    int recompute(@Param("roleName") String roleName);
+}
@@ -1,13 +1,17 @@
 package com.sgp.user.repository;
 
-import com.sgp.common.enums.RoleName;
+import com.sgp.user.dto.UserListRow;
 import com.sgp.user.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +20,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // Método crucial para el login y validación de unicidad
     Optional<User> findByEmail(String email);
 
+    /**
+     * Carga el usuario bloqueando su fila hasta el fin de la transacción (SELECT ... FOR UPDATE),
+     * para que dos cambios simultáneos del mismo usuario no actualicen dos veces el contador de administradores.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.id = :id")
+    Optional<User> findByIdForUpdate(@Param("id") Long id);
+
     // Para verificar rápidamente si un email ya está en uso
     Boolean existsByEmail(String email);
 
@@ -30,20 +42,21 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // List<User> findUnverifiedUsersOlderThan(LocalDateTime threshold);
 
     /**
-     * Cuenta el número de usuarios que tienen el rol especificado.
-     * Útil para validar que siempre haya al menos un administrador.
-     * @param name El nombre del Rol (e.g., RoleName.ADMIN).
-     * @return El número de usuarios con ese rol.
+     * Listado de administración en una sola consulta: datos del usuario y nombre de su Persona
+     * (LEFT JOIN explícito, porque la FK está en persons) proyectados a UserListRow.
+     * Los roles se cargan aparte para toda la página con findRoleNamesByUserIdIn.
      */
-    long countByRolesName(RoleName name);
+    @Query(value = "SELECT new com.sgp.user.dto.UserListRow(u.id, u.email, u.isActive, u.isEnabled, " +
+            "u.forcePasswordChange, p.firstName, p.lastName, u.createdAt, u.createdBy, u.updatedAt, u.updatedBy) " +
+            "FROM User u LEFT JOIN Person p ON p.user = u",
+            countQuery = "SELECT COUNT(u) FROM User u")
+    Page<UserListRow> findAllUserRows(Pageable pageable);
 
     /**
-     * Optimiza la búsqueda de usuarios para el panel de administración
-     * cargando sus roles (EAGER) y su Persona asociada (LEFT JOIN FETCH) en una sola consulta.
-     * Esto evita N+1 queries al acceder a la información de la Persona.
+     * Roles de un conjunto de usuarios en una sola consulta. Cada fila es [Long userId, RoleName rol].
      */
-    @Query("SELECT u FROM User u LEFT JOIN FETCH Person p ON p.user = u") // Usa la relación 'user' de Person
-    Page<User> findAllUsersWithPerson(Pageable pageable); // 👈 NUEVO MÉTODO DE BÚSQUEDA OPTIMIZADO
+    @Query("SELECT u.id, r.name FROM User u JOIN u.roles r WHERE u.id IN :ids")
+    List<Object[]> findRoleNamesByUserIdIn(@Param("ids") Collection<Long> ids);
 
     // Buscar usuario junto con su Person (evita N+1)
     @Query("SELECT u FROM User u LEFT JOIN FETCH u.person WHERE u.id = :id")
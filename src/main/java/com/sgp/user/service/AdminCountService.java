@@ -0,0 +1,25 @@
+package com.sgp.user.service;
+
+import com.sgp.user.model.User;
+
+public interface AdminCountService {
+
+    /**
+     * true si el usuario cuenta como administrador: rol ADMIN, activo y habilitado.
+     */
+    boolean countsAsAdmin(User user);
+
+    /**
+     * Actualiza el contador de administradores según el estado antes y después del cambio.
+     * Si el usuario deja de contar y era el último administrador, lanza la excepción sin tocar el contador.
+     * Debe llamarse dentro de la transacción que guarda el usuario.
+     *
+     * @param lastAdminMessage Mensaje de la InvalidStateTransitionException si era el último administrador.
+     */
+    void recordTransition(boolean wasAdmin, boolean isAdmin, String lastAdminMessage);
+
+    /**
+     * Recalcula el contador desde la tabla de usuarios (al arrancar y cada noche).
+     */
+    void reconcile();
+}
@@ -0,0 +1,53 @@
+package com.sgp.user.service;
+
+import com.sgp.common.enums.RoleName;
+import com.sgp.common.exception.InvalidStateTransitionException;
+import com.sgp.user.model.User;
+import com.sgp.user.repository.RoleMemberCounterRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AdminCountServiceImpl implements AdminCountService {
+
+    private final RoleMemberCounterRepository counterRepository;
+
+    @Override
+    public boolean countsAsAdmin(User user) {
+        return user.isActive() && user.isEnabled()
+                && user.getRoles().stream().anyMatch(role -> role.getName() == RoleName.ADMIN);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTransition(boolean wasAdmin, boolean isAdmin, String lastAdminMessage) {
+        if (wasAdmin && !isAdmin) {
+            if (counterRepository.decrementIfNotLast(RoleName.ADMIN.name()) == 0) {
+                throw new InvalidStateTransitionException(lastAdminMessage);
+            }
+        } else if (!wasAdmin && isAdmin) {
+            counterRepository.increment(RoleName.ADMIN.name());
+        }
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.users.admin-count.reconcile-cron:0 15 3 * * *}")
+    @Transactional
+    public void reconcile() {
+        // 1. Bloquear la fila del contador: las bajas/altas en curso terminan antes y las nuevas esperan.
+        counterRepository.createIfMissing(RoleName.ADMIN.name());
+        counterRepository.findByRoleNameForUpdate(RoleName.ADMIN);
+        // 2. Recalcular en otra sentencia, con un snapshot posterior al bloqueo.
+        counterRepository.recompute(RoleName.ADMIN.name());
+        log.info("Contador de administradores reconciliado.");
+    }
+}
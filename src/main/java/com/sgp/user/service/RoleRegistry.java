@@ -0,0 +1,81 @@
+package com.sgp.user.service;
+
+import com.sgp.common.enums.RoleName;
+import com.sgp.common.exception.ResourceNotFoundException;
+import com.sgp.user.model.Role;
+import com.sgp.user.repository.RoleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Registro en memoria de los roles, indexado por {@link RoleName}.
+ *
+ * La tabla 'roles' es un espejo del enum y no cambia en tiempo de ejecución, así que se lee una vez
+ * al arrancar (y a demanda con {@link #refresh()}) en lugar de consultar RoleRepository.findByName por cada rol.
+ * Solo se guarda el id: cada llamada devuelve una referencia nueva (id + nombre) que JPA asocia por su clave,
+ * sin compartir instancias de entidad entre hilos.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RoleRegistry {
+
+    private static final String RESOURCE_NAME = "Rol";
+
+    private final RoleRepository roleRepository;
+
+    private volatile Map<RoleName, Long> roleIds = Collections.emptyMap();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        refresh();
+    }
+
+    /**
+     * Vuelve a leer la tabla 'roles'. Se invoca al arrancar, tras crear roles nuevos
+     * y automáticamente cuando se pide un rol que aún no está registrado.
+     */
+    public synchronized void refresh() {
+        Map<RoleName, Long> loaded = new EnumMap<>(RoleName.class);
+        roleRepository.findAll().forEach(role -> loaded.put(role.getName(), role.getId()));
+        roleIds = Collections.unmodifiableMap(loaded);
+        log.info("Registro de roles cargado: {}", loaded.keySet());
+    }
+
+    /**
+     * Devuelve el rol con ese nombre.
+     * @throws ResourceNotFoundException si el rol no existe en la base de datos.
+     */
+    public Role get(RoleName name) {
+        Long id = roleIds.get(name);
+        if (id == null) {
+            refresh();
+            id = roleIds.get(name);
+            if (id == null) {
+                throw new ResourceNotFoundException(RESOURCE_NAME, "nombre", name.name());
+            }
+        }
+        return new Role(id, name);
+    }
+
+    /**
+     * Devuelve los roles con esos nombres (mismo error que {@link #get(RoleName)} si alguno no existe).
+     */
+    public Set<Role> getAll(Collection<RoleName> names) {
+        Set<Role> roles = new HashSet<>();
+        for (RoleName name : names) {
+            roles.add(get(name));
+        }
+        return roles;
+    }
+}
@@ -6,12 +6,14 @@ import com.sgp.common.service.SecurityContextService;
 import com.sgp.common.util.SecurityUtil;
 import com.sgp.person.model.Person;
 import com.sgp.person.repository.PersonRepository;
+import com.sgp.person.search.PersonAutocompleteIndex;
+import com.sgp.person.search.PersonNameIndex;
 import com.sgp.user.dto.UserCreationRequest;
+import com.sgp.user.dto.UserListRow;
 import com.sgp.user.dto.UserManagementResponse;
 import com.sgp.user.dto.UserUpdateRequest;
 import com.sgp.user.model.Role;
 import com.sgp.user.model.User;
-import com.sgp.user.repository.RoleRepository; // NUEVA INYECCIÓN
 import com.sgp.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -20,19 +22,25 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class UserAdminServiceImpl implements UserAdminService {
 
     private final UserRepository userRepository;
-    private final RoleRepository roleRepository; // 👈 NECESITAMOS ESTO PARA MANEJAR ROLES
+    private final RoleRegistry roleRegistry; // Roles en memoria (sin consulta por rol)
     private final UserMapper userMapper; // 👈 INYECTAMOS EL MAPPER
     private final SecurityContextService securityContextService;
     private final PasswordEncoder passwordEncoder;
     private final PersonRepository personRepository;
+    private final AdminCountService adminCountService;
+    private final PersonNameIndex personNameIndex;
+    private final PersonAutocompleteIndex personAutocompleteIndex;
 
     private static final String RESOURCE_NAME = "Usuario";
     private static final String UNAUTHORIZED_MSG = "Solo un usuario con el rol ADMIN puede realizar esta operación de gestión de usuarios.";
@@ -49,10 +57,7 @@ public class UserAdminServiceImpl implements UserAdminService {
         }
 
         // 2. Obtener Roles (manejar excepción si no existen)
-        Set<Role> roles = request.getRoles().stream()
-                .map(roleName -> roleRepository.findByName(roleName)
-                        .orElseThrow(() -> new ResourceNotFoundException("Rol", "nombre", roleName.name())))
-                .collect(Collectors.toSet());
+        Set<Role> roles = roleRegistry.getAll(request.getRoles());
 
         // 3. Crear Entidad User
         User user = new User();
@@ -76,32 +81,58 @@ public class UserAdminServiceImpl implements UserAdminService {
         // 5. Guardar ambas (Person debe guardar primero o User debe tener Cascade.ALL)
         // Lo más limpio es guardar Person después de User (si Person tiene @JoinColumn(name="user_id", unique=true))
         User savedUser = userRepository.save(user); // Guardamos User primero para obtener el ID
-        personRepository.save(person); // Guardamos Person (asumiendo que tiene los datos obligatorios)
+        Person savedPerson = personRepository.save(person); // Guardamos Person (asumiendo que tiene los datos obligatorios)
+        adminCountService.recordTransition(false, adminCountService.countsAsAdmin(savedUser), null);
+
+        // 6. Búsqueda y autocompletado (p. ej. para elegir al ministro): sin parroquia, visible en todas. Tras el commit.
+        personNameIndex.onPersonSaved(savedPerson.getId(), null, savedPerson.getFirstName(), savedPerson.getLastName());
+        personAutocompleteIndex.onPersonSaved(savedPerson.getId(), null, savedPerson.getFirstName(),
+                savedPerson.getLastName(), savedPerson.getBirthDate());
 
         return userMapper.toManagementResponse(savedUser);
     }
 
-    // --- Paginación (Método optimizado con JOIN FETCH) ---
+    // --- Paginación (proyección: 2 consultas por página, más el COUNT) ---
     @Override
     @Transactional(readOnly = true)
     public Page<UserManagementResponse> findAllUsers(Pageable pageable) {
-        // USAR EL MÉTODO CON OPTIMIZACIÓN DE FETCH
-        Page<User> userPage = userRepository.findAllUsersWithPerson(pageable);
-
-        // Mapear y asignar datos de Person
-        return userPage.map(user -> {
-            UserManagementResponse response = userMapper.toManagementResponse(user);
+        // 1. Usuarios + nombre de la Persona, sin cargar entidades (ni los roles EAGER por cada una).
+        Page<UserListRow> rows = userRepository.findAllUserRows(pageable);
+        if (rows.isEmpty()) {
+            return rows.map(this::toManagementResponse);
+        }
 
-            // Buscar la Person asociada (debería estar en la sesión/cache por el FETCH JOIN)
-            personRepository.findByUser(user).ifPresent(person -> {
-                response.setFirstName(person.getFirstName());
-                response.setLastName(person.getLastName());
-            });
+        // 2. Roles de toda la página en una sola consulta.
+        Map<Long, Set<RoleName>> rolesByUser = new HashMap<>();
+        List<Long> userIds = rows.getContent().stream().map(UserListRow::getId).toList();
+        for (Object[] row : userRepository.findRoleNamesByUserIdIn(userIds)) {
+            rolesByUser.computeIfAbsent((Long) row[0], id -> EnumSet.noneOf(RoleName.class)).add((RoleName) row[1]);
+        }
 
+        return rows.map(row -> {
+            UserManagementResponse response = toManagementResponse(row);
+            response.setRoles(rolesByUser.getOrDefault(row.getId(), Set.of()));
             return response;
         });
     }
 
+    private UserManagementResponse toManagementResponse(UserListRow row) {
+        return UserManagementResponse.builder()
+                .id(row.getId())
+                .email(row.getEmail())
+                .isActive(row.isActive())
+                .isEnabled(row.isEnabled())
+                .forcePasswordChange(row.isForcePasswordChange())
+                .firstName(row.getFirstName())
+                .lastName(row.getLastName())
+                .createdAt(row.getCreatedAt())
+                .createdBy(row.getCreatedBy())
+                .updatedAt(row.getUpdatedAt())
+                .updatedBy(row.getUpdatedBy())
+                .roles(Set.of())
+                .build();
+    }
+
     // --- Nuevo: Obtener por ID ---
     @Override
     @Transactional(readOnly = true)
@@ -122,8 +153,10 @@ public class UserAdminServiceImpl implements UserAdminService {
             throw new ResourceNotAuthorizedException(UNAUTHORIZED_MSG);
         }
 
-        User user = userRepository.findById(userId)
+        // Fila bloqueada: el estado "antes" usado para el contador de administradores no puede cambiar en paralelo.
+        User user = userRepository.findByIdForUpdate(userId)
                 .orElseThrow(() -> new ResourceNotFoundException(RESOURCE_NAME, "id", userId));
+        boolean wasCountedAdmin = adminCountService.countsAsAdmin(user);
 
         // =========================================================================
         // 1. APLICAR VALIDACIONES DE CONFLICTO (HTTP 409) - Flujo de Control
@@ -136,11 +169,6 @@ public class UserAdminServiceImpl implements UserAdminService {
 
         if (isCurrentUserAdmin) {
 
-            // Determinar si el rol ADMIN será removido:
-            boolean isRemovingAdminRole = request.getRoles()
-                    .map(newRoles -> !newRoles.contains(RoleName.ADMIN))
-                    .orElse(false); // Si 'roles' no se envía, no se remueve.
-
             // Determinar si el usuario será desactivado (isEnabled=false):
             boolean isDisablingAdmin = request.getIsEnabled()
                     .map(enabled -> !enabled)
@@ -157,19 +185,8 @@ public class UserAdminServiceImpl implements UserAdminService {
                 throw new ResourceConflictException(RESOURCE_NAME, "acción", "No puedes desactivar o eliminar lógicamente tu propia cuenta.");
             }
 
-            if (isRemovingAdminRole || isDisablingAdmin || isSoftDeletingAdmin) {
-                long adminCount = userRepository.countByRolesName(RoleName.ADMIN);
-
-                // Si SOLO queda este usuario como administrador (activo o no):
-                if (adminCount == 1) {
-                    throw new InvalidStateTransitionException(
-                            String.format(
-                                    "Conflicto de estado: No se puede modificar el usuario '%s' (ID: %d) ya que es el único administrador restante en el sistema. Debe asignar el rol a otro usuario primero.",
-                                    user.getEmail(), userId
-                            )
-                    );
-                }
-            }
+            // La comprobación de "último administrador" se hace al final (paso 3) con el contador atómico,
+            // una vez aplicados los cambios: cubre quitar el rol, deshabilitar y eliminar lógicamente.
         }
 
 
@@ -211,11 +228,8 @@ public class UserAdminServiceImpl implements UserAdminService {
         // 2. Manejar la actualización de Roles (Solo si está presente en el request)
         request.getRoles().ifPresent(newRoleNames -> {
 
-            // Búsqueda y mapeo de Roles
-            Set<Role> newRoles = newRoleNames.stream()
-                    .map(roleName -> roleRepository.findByName(roleName)
-                            .orElseThrow(() -> new ResourceNotFoundException("Rol", "nombre", roleName.name())))
-                    .collect(Collectors.toSet());
+            // Mapeo de Roles desde el registro en memoria
+            Set<Role> newRoles = roleRegistry.getAll(newRoleNames);
 
             user.setRoles(newRoles);
         });
@@ -223,6 +237,12 @@ public class UserAdminServiceImpl implements UserAdminService {
         // =========================================================================
         // 3. PERSISTIR LOS CAMBIOS
         // =========================================================================
+        // Si deja de contar como administrador, el UPDATE condicional del contador falla cuando es el último.
+        adminCountService.recordTransition(wasCountedAdmin, adminCountService.countsAsAdmin(user),
+                String.format(
+                        "Conflicto de estado: No se puede modificar el usuario '%s' (ID: %d) ya que es el único administrador restante en el sistema. Debe asignar el rol a otro usuario primero.",
+                        user.getEmail(), userId
+                ));
         User updatedUser = userRepository.save(user);
         return userMapper.toManagementResponse(updatedUser);
     }
@@ -238,7 +258,7 @@ public class UserAdminServiceImpl implements UserAdminService {
             throw new ResourceNotAuthorizedException("Solo un usuario con el rol ADMIN puede desactivar cuentas.");
         }
 
-        User user = userRepository.findById(userId)
+        User user = userRepository.findByIdForUpdate(userId)
                 .orElseThrow(() -> new ResourceNotFoundException(RESOURCE_NAME, "id", userId));
 
         // 2. Opcional: Impedir la autodesactivación
@@ -246,19 +266,12 @@ public class UserAdminServiceImpl implements UserAdminService {
         if (user.getId().equals(currentUserId)) {
             throw new ResourceConflictException(RESOURCE_NAME, "acción", "No puedes desactivar tu propia cuenta.");
         }
-        // 3. Opcional: Validar si es el único administrador
-        boolean isCurrentUserAdmin = user.getRoles().stream().anyMatch(r -> r.getName() == RoleName.ADMIN);
-        if (isCurrentUserAdmin) {
-            long adminCount = userRepository.countByRolesName(RoleName.ADMIN);
-            if (adminCount == 1) {
-                throw new InvalidStateTransitionException(
-                        String.format(
-                                "Conflicto de estado: El usuario '%s' (ID: %d) es el único administrador activo restante. Asigne el rol a otro usuario primero.",
-                                user.getEmail(), userId
-                        )
-                );
-            }
-        }
+        // 3. Validar si es el único administrador (UPDATE condicional del contador: atómico frente a bajas simultáneas)
+        adminCountService.recordTransition(adminCountService.countsAsAdmin(user), false,
+                String.format(
+                        "Conflicto de estado: El usuario '%s' (ID: %d) es el único administrador activo restante. Asigne el rol a otro usuario primero.",
+                        user.getEmail(), userId
+                ));
 
         // Borrado lógico: Establecer isActive a false
         // 4. ⭐ APLICAR EL BORRADO LÓGICO COMPLETO (isActive = false, deletedAt = NOW) ⭐
@@ -0,0 +1,99 @@
+package com.sgp.person.duplicate.service;
+
+import com.sgp.person.duplicate.service.DuplicatePersonDetector.Candidate;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Funciones puras del análisis de duplicados: similitud de Jaro-Winkler y puntuación de parejas.
+ */
+class DuplicatePersonDetectorTest {
+
+    private static final LocalDate BIRTH = LocalDate.of(1980, 3, 14);
+
+    // --- JARO-WINKLER ---
+
+    @Test
+    void jaroWinklerMatchesReferenceValues() {
+        assertThat(DuplicatePersonDetector.jaroWinkler("martha", "marhta")).isCloseTo(0.961, within(0.001));
+        assertThat(DuplicatePersonDetector.jaroWinkler("dwayne", "duane")).isCloseTo(0.84, within(0.001));
+        assertThat(DuplicatePersonDetector.jaroWinkler("dixon", "dicksonx")).isCloseTo(0.813, within(0.001));
+    }
+
+    @Test
+    void jaroWinklerHandlesIdenticalEmptyAndDisjointStrings() {
+        assertThat(DuplicatePersonDetector.jaroWinkler("maria", "maria")).isEqualTo(1.0);
+        assertThat(DuplicatePersonDetector.jaroWinkler("", "")).isEqualTo(1.0);
+        assertThat(DuplicatePersonDetector.jaroWinkler("maria", "")).isZero();
+        assertThat(DuplicatePersonDetector.jaroWinkler("abc", "xyz")).isZero();
+    }
+
+    @Test
+    void jaroWinklerIsSymmetric() {
+        assertThat(DuplicatePersonDetector.jaroWinkler("gonzalez juan", "gonsales juan"))
+                .isEqualTo(DuplicatePersonDetector.jaroWinkler("gonsales juan", "gonzalez juan"));
+    }
+
+    // --- PUNTUACIÓN ---
+
+    @Test
+    void sameNameAndBirthDateScoresOne() {
+        assertThat(DuplicatePersonDetector.score(candidate("juan perez", BIRTH, null), candidate("juan perez", BIRTH, null)))
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void unknownBirthDateNeitherConfirmsNorDiscards() {
+        assertThat(DuplicatePersonDetector.score(candidate("juan perez", BIRTH, null), candidate("juan perez", null, null)))
+                .isCloseTo(0.65 + 0.35 * 0.6, within(1e-9));
+    }
+
+    @Test
+    void swappedDayAndMonthOrSingleDifferentFieldIsPartialMatch() {
+        double partial = 0.65 + 0.35 * 0.7;
+        Candidate base = candidate("juan perez", LocalDate.of(1980, 3, 4), null);
+        assertThat(DuplicatePersonDetector.score(base, candidate("juan perez", LocalDate.of(1980, 4, 3), null)))
+                .isCloseTo(partial, within(1e-9));
+        assertThat(DuplicatePersonDetector.score(base, candidate("juan perez", LocalDate.of(1980, 3, 20), null)))
+                .isCloseTo(partial, within(1e-9));
+        assertThat(DuplicatePersonDetector.score(base, candidate("juan perez", LocalDate.of(1981, 3, 4), null)))
+                .isCloseTo(0.65, within(1e-9));
+    }
+
+    @Test
+    void dissimilarNamesScoreZero() {
+        assertThat(DuplicatePersonDetector.score(candidate("juan perez", BIRTH, null), candidate("ana lopez", BIRTH, null)))
+                .isZero();
+    }
+
+    @Test
+    void differentIdentificationOfSameTypeDiscardsPair() {
+        assertThat(DuplicatePersonDetector.score(candidate("juan perez", BIRTH, "12345678"), candidate("juan perez", BIRTH, "87654321")))
+                .isZero();
+    }
+
+    @Test
+    void identificationTypoRaisesScore() {
+        Candidate a = candidate("juan perez", null, "12345678");
+        Candidate b = candidate("juan perez", null, "12345679");
+        double withoutIdentification = 0.65 + 0.35 * 0.6;
+        assertThat(DuplicatePersonDetector.score(a, b)).isCloseTo(0.5 + 0.5 * withoutIdentification, within(1e-9));
+    }
+
+    @Test
+    void identificationOfDifferentTypeIsIgnored() {
+        Candidate a = candidate("juan perez", BIRTH, "12345678");
+        Candidate b = new Candidate(2, 1, "juan", "perez", "juan perez", BIRTH, "PASAPORTE", "X9999999");
+        assertThat(DuplicatePersonDetector.score(a, b)).isEqualTo(1.0);
+    }
+
+    private static Candidate candidate(String comparableName, LocalDate birthDate, String identificationNumber) {
+        String[] names = comparableName.split(" ", 2);
+        return new Candidate(1, 1, names[0], names[1], comparableName, birthDate,
+                identificationNumber != null ? "DNI" : null, identificationNumber);
+    }
+}
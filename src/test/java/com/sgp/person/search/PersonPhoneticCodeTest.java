@@ -0,0 +1,40 @@
+package com.sgp.person.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PersonPhoneticCodeTest {
+
+    @Test
+    void groupsLettersThatSoundAlike() {
+        assertThat(PersonPhoneticCode.encode("González")).isEqualTo("gnsls");
+        assertThat(PersonPhoneticCode.encode("Gonsales")).isEqualTo("gnsls");
+        assertThat(PersonPhoneticCode.encode("Vázquez")).isEqualTo(PersonPhoneticCode.encode("Básquez"));
+        assertThat(PersonPhoneticCode.encode("Jiménez")).isEqualTo(PersonPhoneticCode.encode("Giménez"));
+        assertThat(PersonPhoneticCode.encode("Villalba")).isEqualTo(PersonPhoneticCode.encode("Viyalba"));
+    }
+
+    @Test
+    void ignoresSilentHAndKeepsOnlyInitialVowel() {
+        assertThat(PersonPhoneticCode.encode("Hernández")).isEqualTo(PersonPhoneticCode.encode("Ernández"));
+        assertThat(PersonPhoneticCode.encode("Ana")).isEqualTo("an");
+    }
+
+    @Test
+    void vowelsSeparateRepeatedConsonants() {
+        assertThat(PersonPhoneticCode.encode("Sosa")).isEqualTo("ss");
+        assertThat(PersonPhoneticCode.encode("Rossi")).isEqualTo("rs");
+    }
+
+    @Test
+    void truncatesToMaxLength() {
+        assertThat(PersonPhoneticCode.encode("Bartolomeo Fernández")).hasSize(6);
+    }
+
+    @Test
+    void returnsEmptyCodeWithoutLetters() {
+        assertThat(PersonPhoneticCode.encode("")).isEmpty();
+        assertThat(PersonPhoneticCode.encode("123 -")).isEmpty();
+    }
+}
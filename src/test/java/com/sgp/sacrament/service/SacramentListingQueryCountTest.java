@@ -0,0 +1,119 @@
+package com.sgp.sacrament.service;
+
+import com.sgp.common.cache.PersonPageCache;
+import com.sgp.common.service.SecurityContextService;
+import com.sgp.parish.model.Parish;
+import com.sgp.person.model.Person;
+import com.sgp.sacrament.dto.SacramentResponse;
+import com.sgp.sacrament.dto.SacramentSearchCriteria;
+import com.sgp.sacrament.enums.SacramentType;
+import com.sgp.sacrament.model.Sacrament;
+import com.sgp.sacrament.model.SacramentDetail;
+import com.sgp.sacrament.relationship.service.SacramentRelationshipIndex;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica que una página del listado de sacramentos se resuelve con un número fijo de sentencias
+ * (proyección SacramentRow + COUNT), sin consultas por fila para las personas del detalle.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({SacramentServiceImpl.class, SacramentMapperImpl.class})
+class SacramentListingQueryCountTest {
+
+    private static final int SACRAMENTS = 12;
+    private static final int PAGE_SIZE = 5;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private SacramentService sacramentService;
+
+    @MockitoBean
+    private SecurityContextService securityContextService;
+    @MockitoBean
+    private PersonPageCache personPageCache;
+    @MockitoBean
+    private ActaBloomFilter actaBloomFilter;
+    @MockitoBean
+    private ActaNumberAllocator actaNumberAllocator;
+    @MockitoBean
+    private SacramentStatsService sacramentStatsService;
+    @MockitoBean
+    private SacramentEligibilityService eligibilityService;
+    @MockitoBean
+    private SacramentRelationshipIndex relationshipIndex;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        Parish parish = entityManager.persist(Parish.builder()
+                .name("Parroquia de prueba")
+                .address("Calle 1")
+                .build());
+        Person minister = entityManager.persist(person("Juan", "Ministro", parish));
+        Person godfather = entityManager.persist(person("Pedro", "Padrino", parish));
+
+        for (int i = 0; i < SACRAMENTS; i++) {
+            Person recipient = entityManager.persist(person("Ana" + i, "Bautizada", parish));
+            Sacrament sacrament = entityManager.persist(Sacrament.builder()
+                    .person(recipient)
+                    .parish(parish)
+                    .type(SacramentType.BAPTISM)
+                    .celebrationDate(LocalDate.of(2024, 1, 1).plusDays(i))
+                    .bookNumber("1")
+                    .pageNumber("1")
+                    .entryNumber(String.valueOf(i + 1))
+                    .build());
+            SacramentDetail detail = new SacramentDetail();
+            detail.setSacrament(sacrament);
+            detail.setOfficiantMinister(minister);
+            detail.setGodfather1(godfather);
+            entityManager.persist(detail);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void pageOfSacramentsUsesOneProjectionQueryPlusCount() {
+        Page<SacramentResponse> page = sacramentService.findAllSacraments(new SacramentSearchCriteria(),
+                PageRequest.of(0, PAGE_SIZE, Sort.by("celebrationDate")));
+
+        assertThat(page.getContent()).hasSize(PAGE_SIZE);
+        assertThat(page.getTotalElements()).isEqualTo(SACRAMENTS);
+        assertThat(page.getContent().get(0).getDetail().getOfficiantMinisterName()).isEqualTo("Juan Ministro");
+        assertThat(page.getContent().get(0).getDetail().getGodfather1Name()).isEqualTo("Pedro Padrino");
+        // 1 sentencia de datos + 1 COUNT, independientemente del tamaño de página.
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    private static Person person(String firstName, String lastName, Parish parish) {
+        Person person = new Person();
+        person.setFirstName(firstName);
+        person.setLastName(lastName);
+        person.setParish(parish);
+        return person;
+    }
+}
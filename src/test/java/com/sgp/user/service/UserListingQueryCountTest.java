@@ -0,0 +1,103 @@
+package com.sgp.user.service;
+
+import com.sgp.common.enums.RoleName;
+import com.sgp.common.service.SecurityContextService;
+import com.sgp.person.model.Person;
+import com.sgp.person.search.PersonAutocompleteIndex;
+import com.sgp.person.search.PersonNameIndex;
+import com.sgp.user.dto.UserManagementResponse;
+import com.sgp.user.model.Role;
+import com.sgp.user.model.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica que una página del listado de usuarios se resuelve con un número fijo de sentencias
+ * (filas de usuario + COUNT + roles de la página), sin cargar los roles ni la persona de cada usuario.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(UserAdminServiceImpl.class)
+class UserListingQueryCountTest {
+
+    private static final int USERS = 8;
+    private static final int PAGE_SIZE = 5;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserAdminService userAdminService;
+
+    @MockitoBean
+    private RoleRegistry roleRegistry;
+    @MockitoBean
+    private UserMapper userMapper;
+    @MockitoBean
+    private SecurityContextService securityContextService;
+    @MockitoBean
+    private PasswordEncoder passwordEncoder;
+    @MockitoBean
+    private AdminCountService adminCountService;
+    @MockitoBean
+    private PersonNameIndex personNameIndex;
+    @MockitoBean
+    private PersonAutocompleteIndex personAutocompleteIndex;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        Role admin = entityManager.persist(new Role(null, RoleName.ADMIN));
+        Role gestor = entityManager.persist(new Role(null, RoleName.GESTOR));
+
+        for (int i = 0; i < USERS; i++) {
+            User user = new User();
+            user.setEmail("usuario" + i + "@demo.com");
+            user.setPassword("x");
+            user.setEnabled(true);
+            user.setRoles(i == 0 ? Set.of(admin, gestor) : Set.of(gestor));
+            entityManager.persist(user);
+
+            Person person = new Person();
+            person.setFirstName("Nombre" + i);
+            person.setLastName("Apellido" + i);
+            person.setUser(user);
+            entityManager.persist(person);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void pageOfUsersUsesRowsCountAndOneRolesQuery() {
+        Page<UserManagementResponse> page = userAdminService.findAllUsers(PageRequest.of(0, PAGE_SIZE, Sort.by("email")));
+
+        assertThat(page.getContent()).hasSize(PAGE_SIZE);
+        assertThat(page.getTotalElements()).isEqualTo(USERS);
+        UserManagementResponse first = page.getContent().get(0);
+        assertThat(first.getFirstName()).isEqualTo("Nombre0");
+        assertThat(first.getRoles()).containsExactlyInAnyOrder(RoleName.ADMIN, RoleName.GESTOR);
+        // Filas de usuario + COUNT + roles de la página, independientemente del tamaño de página.
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+}